@@ -0,0 +1,14 @@
+-- MySQL user the SQL of the rules runs as (rule.query.datasource), allowed to SELECT the business tables only:
+-- no access to users, id_generator or the migration history, no FILE privilege, no write.
+-- Run as an administrator in the application database, after the migrations, once change-me is replaced
+-- by the password given to the application in DB_RULE_QUERY_password:
+--   mysql -u root -p demo < doc/rule_query_user.sql
+-- Tables added by later migrations are only readable by the rules once granted here.
+
+CREATE USER IF NOT EXISTS 'rule_query'@'%' IDENTIFIED BY 'change-me';
+
+GRANT SELECT ON bidlist TO 'rule_query'@'%';
+GRANT SELECT ON trade TO 'rule_query'@'%';
+GRANT SELECT ON curvepoint TO 'rule_query'@'%';
+GRANT SELECT ON rating TO 'rule_query'@'%';
+GRANT SELECT ON rulename TO 'rule_query'@'%';
@@ -0,0 +1,29 @@
+package com.nnk.springboot.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * Configuration of the REST API under /api.
+ */
+@Configuration
+public class ApiConfig {
+
+    /**
+     * Adds an ETag to the API responses, computed from the response body.
+     * A client sending it back in If-None-Match gets an empty 304 response
+     * while the resource is unchanged, which saves the transfer of the body.
+     *
+     * @return the filter registration, restricted to the API
+     * @see ShallowEtagHeaderFilter
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> apiEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
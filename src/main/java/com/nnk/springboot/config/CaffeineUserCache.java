@@ -0,0 +1,67 @@
+package com.nnk.springboot.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+
+/**
+ * Bounded cache of the UserDetails loaded at login, backed by Caffeine.
+ * Entries expire after a fixed time and the least used ones are evicted past the maximum size.
+ * Hit and miss counts are published as cache metrics under the name "userDetails".
+ * <p>
+ * Entries are copied on the way in and out, because Spring Security erases the password
+ * of the authenticated principal, which would otherwise wipe the cached one.
+ *
+ * @see SpringSecurityConfig
+ */
+public class CaffeineUserCache implements UserCache, MeterBinder {
+
+    private final Cache<String, UserDetails> cache;
+
+    public CaffeineUserCache(Duration timeToLive, long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(timeToLive)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        UserDetails user = cache.getIfPresent(username);
+        return user == null ? null : copy(user);
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        cache.put(user.getUsername(), copy(user));
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        cache.invalidate(username);
+    }
+
+    /**
+     * Evicts every cached user, for changes where the affected username is not known.
+     */
+    public void removeAllUsersFromCache() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "userDetails");
+    }
+
+    private static UserDetails copy(UserDetails user) {
+        return User.withUserDetails(user).build();
+    }
+}
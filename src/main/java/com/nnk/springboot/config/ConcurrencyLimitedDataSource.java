@@ -0,0 +1,163 @@
+package com.nnk.springboot.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the number of threads holding connections of a data source.
+ * Meant for virtual threads: requests are no longer bounded by the Tomcat thread pool,
+ * so thousands of them could queue in the connection pool and fail on its timeout together.
+ * They queue here instead, in order, and only as many reach the pool as it can serve.
+ * <p>
+ * A permit is taken by the first connection a thread opens and released when it closes the last one:
+ * a second connection opened meanwhile, such as the one of the table id generators, is not limited,
+ * so the pool must keep at least one connection more than the permits.
+ * <p>
+ * db.limiter.permits.available and db.limiter.queued report the free permits and the waiting threads.
+ *
+ * @see DataSourcePoolConfig
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource implements MeterBinder {
+
+    private final Semaphore permits;
+    private final long timeoutMillis;
+    private final ThreadLocal<int[]> openConnections = ThreadLocal.withInitial(() -> new int[1]);
+
+    /**
+     * @param dataSource the pooled data source
+     * @param permits    number of threads that may hold connections at once
+     * @param timeout    time to wait for a permit before failing
+     */
+    public ConcurrencyLimitedDataSource(DataSource dataSource, int permits, Duration timeout) {
+        super(dataSource);
+        this.permits = new Semaphore(permits, true);
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return limit(() -> obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return limit(() -> obtainTargetDataSource().getConnection(username, password));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("db.limiter.permits.available", permits, Semaphore::availablePermits)
+                .description("Permits left to open database connections")
+                .register(registry);
+        Gauge.builder("db.limiter.queued", permits, Semaphore::getQueueLength)
+                .description("Threads waiting for a permit to open a database connection")
+                .register(registry);
+    }
+
+    private Connection limit(ConnectionSupplier supplier) throws SQLException {
+        int[] open = openConnections.get();
+        boolean permitted = open[0] > 0;
+        if (!permitted) {
+            acquire();
+        }
+        Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            if (!permitted) {
+                permits.release();
+            }
+            throw e;
+        }
+        open[0]++;
+        return (Connection) Proxy.newProxyInstance(ConcurrencyLimitedDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ReleasingHandler(connection, open));
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("No database permit available after " + timeoutMillis
+                        + "ms (" + permits.getQueueLength() + " threads waiting)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database permit", e);
+        }
+    }
+
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+
+    /**
+     * Closes the connection once, releasing the permit of its thread with the last one.
+     */
+    private class ReleasingHandler implements InvocationHandler {
+
+        private final Connection connection;
+        private final int[] open;
+        private boolean closed;
+
+        ReleasingHandler(Connection connection, int[] open) {
+            this.connection = connection;
+            this.open = open;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (closed) {
+                        return null;
+                    }
+                    closed = true;
+                    try {
+                        connection.close();
+                    } finally {
+                        if (--open[0] == 0) {
+                            permits.release();
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "isWrapperFor":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.nnk.springboot.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration of the HikariCP connection pool, on top of the spring.datasource.hikari properties.
+ */
+@Configuration
+public class DataSourcePoolConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSourcePoolConfig.class);
+
+    private static final String MAXIMUM_POOL_SIZE = "spring.datasource.hikari.maximum-pool-size";
+
+    private static final int MINIMUM_POOL_SIZE = 10;
+
+    private static final String APPLICATION_DATA_SOURCE = "dataSource";
+
+    /**
+     * Sizes the pool of the application data source from the available cores,
+     * unless spring.datasource.hikari.maximum-pool-size is set:
+     * 2 connections per core plus 1, so that a connection is ready while others wait on I/O,
+     * without more threads competing for the database than it can serve.
+     * The size never falls under 10: the table id generators of bids and trades borrow a second connection
+     * while an insert holds the first, so a pool no larger than the number of concurrent inserts can deadlock.
+     * The pool of the rule queries keeps the size of its own properties.
+     * Declared static so that it is registered before the data source is created.
+     *
+     * @param environment where the pool size may be set
+     * @return the post-processor
+     */
+    @Bean
+    public static BeanPostProcessor poolSizePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource && APPLICATION_DATA_SOURCE.equals(beanName)
+                        && !environment.containsProperty(MAXIMUM_POOL_SIZE)) {
+                    dataSource.setMaximumPoolSize(defaultPoolSize(Runtime.getRuntime().availableProcessors()));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static int defaultPoolSize(int cores) {
+        return Math.max(cores * 2 + 1, MINIMUM_POOL_SIZE);
+    }
+
+    /**
+     * Limits the threads using the database to the size of the pool when requests run on virtual threads,
+     * keeping one connection for the table id generators (see {@link ConcurrencyLimitedDataSource}).
+     * Requests queue for a permit instead of queueing for a Tomcat thread, so they may wait longer
+     * than the connection timeout of the pool.
+     * Declared static so that it is registered before the data source is created.
+     *
+     * @param permitTimeout time a thread waits for a permit before its request fails
+     * @return the post-processor
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public static BeanPostProcessor concurrencyLimitPostProcessor(
+            @Value("${datasource.pool.permit-timeout:30s}") Duration permitTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitedDataSource)) {
+                    HikariDataSource pool = DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class,
+                            HikariDataSource.class);
+                    if (pool != null) {
+                        return new ConcurrencyLimitedDataSource(dataSource, Math.max(pool.getMaximumPoolSize() - 1, 1),
+                                permitTimeout);
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Publishes the permits of the database concurrency limit, wherever it sits among the data source wrappers.
+     *
+     * @param dataSource the limited data source
+     * @return the binder of the limit metrics
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public MeterBinder concurrencyLimitMetrics(DataSource dataSource) {
+        return registry -> {
+            MeterBinder limit = DataSourceUnwrapper.unwrap(dataSource, MeterBinder.class,
+                    ConcurrencyLimitedDataSource.class);
+            if (limit != null) {
+                limit.bindTo(registry);
+            }
+        };
+    }
+
+    /**
+     * Opens the connections of the pool at startup, before the first requests come in,
+     * instead of letting the pool fill up in the background.
+     *
+     * @param dataSource the pooled data source
+     * @param enabled    whether to warm the pool up
+     * @return the runner opening the connections
+     */
+    @Bean
+    public ApplicationRunner connectionPoolWarmUp(DataSource dataSource,
+                                                  @Value("${datasource.pool.warm-up:false}") boolean enabled) {
+        return args -> {
+            if (!enabled) {
+                return;
+            }
+            HikariDataSource pool = DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class,
+                    HikariDataSource.class);
+            if (pool == null) {
+                return;
+            }
+            int size = pool.getMinimumIdle();
+            List<Connection> connections = new ArrayList<>(size);
+            try {
+                for (int i = 0; i < size; i++) {
+                    connections.add(pool.getConnection());
+                }
+            } finally {
+                for (Connection connection : connections) {
+                    close(connection);
+                }
+            }
+            logger.info("Warmed up {} connections of pool {}", connections.size(), pool.getPoolName());
+        };
+    }
+
+    private static void close(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.warn("Could not return a warm-up connection to the pool", e);
+        }
+    }
+}
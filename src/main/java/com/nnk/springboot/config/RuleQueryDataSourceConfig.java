@@ -0,0 +1,40 @@
+package com.nnk.springboot.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the data source the SQL of the rules runs on, from the rule.query.datasource properties.
+ * It connects as a MySQL user only allowed to SELECT the business tables (see doc/rule_query_user.sql),
+ * so that a rule can neither read the users nor files of the server, whatever its SQL.
+ * <p>
+ * The beans are not default candidates: the application data source is still auto-configured,
+ * and only the beans qualified with "ruleQuery" get this one.
+ */
+@Configuration
+public class RuleQueryDataSourceConfig {
+
+    public static final String QUALIFIER = "ruleQuery";
+
+    @Bean(defaultCandidate = false)
+    @Qualifier(QUALIFIER)
+    @ConfigurationProperties("rule.query.datasource")
+    public DataSourceProperties ruleQueryDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    /**
+     * @param properties the URL and credentials of the restricted user
+     * @return the pool of the rule queries, configured by the rule.query.datasource.hikari properties
+     */
+    @Bean(defaultCandidate = false)
+    @Qualifier(QUALIFIER)
+    @ConfigurationProperties("rule.query.datasource.hikari")
+    public HikariDataSource ruleQueryDataSource(@Qualifier(QUALIFIER) DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+}
@@ -1,16 +1,30 @@
 package com.nnk.springboot.config;
 
 import com.nnk.springboot.services.CustomUserDetailsService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Spring Security Configuration class.
  * This class configures the security settings for the application,
@@ -28,6 +42,64 @@ public class SpringSecurityConfig {
         this.customUserDetailsService = customUserDetailsService;
     }
 
+    /**
+     * Configures the security filter chain of the REST API under /api, used by machine clients.
+     * It is checked before the main chain. Requests are authenticated with HTTP Basic,
+     * so an anonymous request gets a 401 instead of a redirect to the login page.
+     * No session is created and CSRF protection is disabled,
+     * since the API does not rely on the session cookie.
+     *
+     * @param http the HttpSecurity object used to configure security settings
+     * @return the configured SecurityFilterChain
+     * @throws Exception if an error occurs during configuration
+     * @see HttpSecurity
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain apiFilterChain(HttpSecurity http) throws Exception {
+        return http
+                .securityMatcher("/api/**")
+                .authorizeHttpRequests(auth -> {
+                    auth.requestMatchers("/api/v1/users/**", "/api/v1/positions/rebuild", "/api/v1/rules/*/results")
+                            .hasRole("ADMIN");
+                    auth.anyRequest().hasAnyRole("ADMIN", "USER");
+                })
+                .httpBasic(Customizer.withDefaults())
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .build();
+    }
+
+    /**
+     * Configures the security filter chain of the actuator endpoints under /actuator,
+     * used by monitoring tools such as a Prometheus scraper. It is checked after the API chain.
+     * Health can be read by any authenticated user, the other endpoints, metrics included,
+     * are reserved to administrators. Like the API, requests are authenticated with HTTP Basic
+     * and no session is created.
+     *
+     * @param http the HttpSecurity object used to configure security settings
+     * @return the configured SecurityFilterChain
+     * @throws Exception if an error occurs during configuration
+     * @see HttpSecurity
+     */
+    @Bean
+    @Order(2)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http) throws Exception {
+        return http
+                .securityMatcher("/actuator/**")
+                .authorizeHttpRequests(auth -> {
+                    auth.requestMatchers("/actuator/health", "/actuator/health/**")
+                            .authenticated();
+                    auth.anyRequest().hasRole("ADMIN");
+                })
+                .httpBasic(Customizer.withDefaults())
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .build();
+    }
+
     /**
      * Configures the security filter chain for the application.
      * This method defines the authorization rules for different URL patterns,
@@ -44,7 +116,8 @@ public class SpringSecurityConfig {
                 .authorizeHttpRequests(auth -> {
                     auth.requestMatchers(
                                     "/",
-                                    "/css/**")
+                                    "/css/**",
+                                    "/js/**")
                             .permitAll();
                     auth.requestMatchers("/user/**")
                             .hasRole("ADMIN");
@@ -67,30 +140,75 @@ public class SpringSecurityConfig {
 
     /**
      * Configures the password encoder to be used for encoding passwords.
-     * This method returns a BCryptPasswordEncoder with a strength of 10.
+     * This method returns a DelegatingPasswordEncoder: new hashes are written with the configured
+     * algorithm and prefixed with its id, while hashes of the other algorithms are still accepted.
+     * Hashes without prefix are read as BCrypt. Hashes that use another algorithm, or a lower BCrypt
+     * strength, are upgraded at the next successful login.
+     *
+     * @param encodingId       id of the algorithm used for new hashes: bcrypt, pbkdf2 or argon2
+     * @param bcryptStrength   BCrypt log rounds
+     * @param pbkdf2Iterations PBKDF2-HMAC-SHA256 iterations
+     * @param argon2Memory     Argon2id memory cost in KiB
+     * @param argon2Iterations Argon2id iterations
+     * @return a DelegatingPasswordEncoder instance
+     * @see DelegatingPasswordEncoder
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(
+            @Value("${security.password.encoder:bcrypt}") String encodingId,
+            @Value("${security.password.bcrypt.strength:10}") int bcryptStrength,
+            @Value("${security.password.pbkdf2.iterations:310000}") int pbkdf2Iterations,
+            @Value("${security.password.argon2.memory:16384}") int argon2Memory,
+            @Value("${security.password.argon2.iterations:2}") int argon2Iterations) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("pbkdf2", new Pbkdf2PasswordEncoder("", 16, pbkdf2Iterations,
+                SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+        encoders.put("argon2", new Argon2PasswordEncoder(16, 32, 1, argon2Memory, argon2Iterations));
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(encodingId, encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return passwordEncoder;
+    }
+
+    /**
+     * Configures the cache of users loaded at login,
+     * so that repeated logins do not query the database each time.
      *
-     * @return a BCryptPasswordEncoder instance
-     * @see BCryptPasswordEncoder
+     * @param timeToLive  how long a user stays cached after being loaded
+     * @param maximumSize how many users can be cached at once
+     * @return a CaffeineUserCache instance
+     * @see CaffeineUserCache
      */
     @Bean
-    public BCryptPasswordEncoder bCryptPasswordEncoder() {
-        return new BCryptPasswordEncoder(10);
+    public CaffeineUserCache userCache(@Value("${security.user-cache.ttl:10m}") Duration timeToLive,
+                                       @Value("${security.user-cache.maximum-size:10000}") long maximumSize) {
+        return new CaffeineUserCache(timeToLive, maximumSize);
     }
 
     /**
      * Configures the authentication provider for the application.
-     * This method sets up a DaoAuthenticationProvider with a custom UserDetailsService
-     * and a password encoder.
+     * This method sets up a DaoAuthenticationProvider with a custom UserDetailsService,
+     * a password encoder, a user cache and the service storing upgraded password hashes.
+     * An upgraded user replaces the cached one, so that it is not upgraded again at the next login.
      *
+     * @param userCache       the cache of loaded users
+     * @param passwordEncoder the password encoder
      * @return an AuthenticationProvider instance
      * @see DaoAuthenticationProvider
      * @see CustomUserDetailsService
      */
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(CaffeineUserCache userCache, PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(customUserDetailsService);
-        authProvider.setPasswordEncoder(bCryptPasswordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setUserCache(userCache);
+        authProvider.setUserDetailsPasswordService((user, newPassword) -> {
+            UserDetails upgraded = customUserDetailsService.updatePassword(user, newPassword);
+            userCache.putUserInCache(upgraded);
+            return upgraded;
+        });
         return authProvider;
     }
 
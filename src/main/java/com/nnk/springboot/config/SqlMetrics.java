@@ -0,0 +1,256 @@
+package com.nnk.springboot.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Slice;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.BaseStream;
+
+/**
+ * Measures the JDBC statements run by the application, in place of logging each of them.
+ * <ul>
+ *     <li>sql.statements times every statement, tagged with its type: select, insert, update, delete or other.</li>
+ *     <li>sql.repository.time times the JDBC work of each repository call,
+ *     sql.repository.statements and sql.repository.rows count its statements and the rows it read or wrote.
+ *     They are tagged with the repository and method.</li>
+ * </ul>
+ * Only the statements themselves are seen, not the calls on their results: the rows written are the update
+ * counts, and the rows read are the entities the repository call returned. Statements run outside of
+ * a repository call, such as lazy loading, only count in sql.statements, and streamed results are not counted.
+ * <p>
+ * Statements slower than the threshold are logged, without their parameters, for a sample of them.
+ *
+ * @see SqlMetricsConfig
+ */
+public class SqlMetrics implements QueryExecutionListener, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlMetrics.class);
+    private static final String START_NANOS = "startNanos";
+
+    private final long slowQueryThresholdNanos;
+    private final double slowQuerySampleRate;
+    private final ThreadLocal<Call> currentCall = new ThreadLocal<>();
+    private volatile MeterRegistry registry;
+    private volatile Map<QueryType, Timer> statementTimers;
+
+    /**
+     * @param slowQueryThreshold  statements taking at least this time are logged, none if zero
+     * @param slowQuerySampleRate share of the slow statements that are logged, from 0 to 1
+     */
+    public SqlMetrics(Duration slowQueryThreshold, double slowQuerySampleRate) {
+        this.slowQueryThresholdNanos = slowQueryThreshold.toNanos();
+        this.slowQuerySampleRate = slowQuerySampleRate;
+    }
+
+    /**
+     * Wraps a data source so that the statements run through it are measured.
+     *
+     * @param dataSource the actual data source
+     * @return the measured data source
+     */
+    public DataSource proxy(DataSource dataSource) {
+        return ProxyDataSourceBuilder.create(dataSource)
+                .listener(this)
+                .build();
+    }
+
+    /**
+     * Creates the interceptor that delimits the calls of one repository.
+     *
+     * @param repositoryInterface the repository
+     * @return the interceptor, to be put first in the repository proxy
+     */
+    public MethodInterceptor repositoryInterceptor(Class<?> repositoryInterface) {
+        return new RepositoryInterceptor(repositoryInterface.getSimpleName());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Map<QueryType, Timer> timers = new EnumMap<>(QueryType.class);
+        for (QueryType type : QueryType.values()) {
+            timers.put(type, Timer.builder("sql.statements")
+                    .description("JDBC statements")
+                    .tag("type", type.name().toLowerCase())
+                    .register(registry));
+        }
+        this.statementTimers = timers;
+        this.registry = registry;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long nanos = System.nanoTime() - execInfo.getCustomValue(START_NANOS, Long.class);
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        QueryType type = QueryUtils.getQueryType(sql);
+        Map<QueryType, Timer> timers = statementTimers;
+        if (timers != null) {
+            timers.get(type).record(nanos, TimeUnit.NANOSECONDS);
+        }
+        Call call = currentCall.get();
+        if (call != null) {
+            call.statements += execInfo.isBatch() ? execInfo.getBatchSize() : 1;
+            call.rows += writtenRows(execInfo.getResult());
+            call.nanos += nanos;
+        }
+        if (slowQueryThresholdNanos > 0 && nanos >= slowQueryThresholdNanos
+                && (slowQuerySampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < slowQuerySampleRate)) {
+            logger.warn("Slow {} statement of {} ms in {}: {}", type.name().toLowerCase(),
+                    TimeUnit.NANOSECONDS.toMillis(nanos), call == null ? "no repository call" : call.name(), sql);
+        }
+    }
+
+    /**
+     * Reads the update counts of an executeUpdate or executeBatch.
+     * Batched statements without a count, as rewritten by the MySQL driver, count as one row.
+     */
+    private static long writtenRows(Object result) {
+        if (result instanceof Integer count) {
+            return Math.max(count, 0);
+        }
+        if (result instanceof Long count) {
+            return Math.max(count, 0);
+        }
+        long rows = 0;
+        if (result instanceof int[] counts) {
+            for (int count : counts) {
+                rows += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+            }
+        } else if (result instanceof long[] counts) {
+            for (long count : counts) {
+                rows += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Counts the rows a repository call returned: the elements of a collection or page, one for a present
+     * optional or an entity, none for a count, a flag or a stream that is read later.
+     */
+    private static long returnedRows(Object result) {
+        if (result instanceof Collection<?> elements) {
+            return elements.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result == null || result instanceof Number || result instanceof Boolean
+                || result instanceof BaseStream<?, ?>) {
+            return 0;
+        }
+        return 1;
+    }
+
+    /**
+     * What one repository call did so far, only touched by the calling thread.
+     */
+    private static final class Call {
+        private final String repository;
+        private final String method;
+        private long statements;
+        private long rows;
+        private long nanos;
+
+        private Call(String repository, String method) {
+            this.repository = repository;
+            this.method = method;
+        }
+
+        private String name() {
+            return repository + "." + method;
+        }
+    }
+
+    private final class RepositoryInterceptor implements MethodInterceptor {
+
+        private final String repository;
+        private final Map<Method, CallMeters> meters = new ConcurrentHashMap<>();
+
+        private RepositoryInterceptor(String repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Call parent = currentCall.get();
+            Call call = new Call(repository, invocation.getMethod().getName());
+            currentCall.set(call);
+            try {
+                Object result = invocation.proceed();
+                call.rows += returnedRows(result);
+                return result;
+            } finally {
+                if (parent == null) {
+                    currentCall.remove();
+                } else {
+                    currentCall.set(parent);
+                }
+                MeterRegistry registry = SqlMetrics.this.registry;
+                if (registry != null) {
+                    meters.computeIfAbsent(invocation.getMethod(), method -> new CallMeters(registry, call))
+                            .record(call);
+                }
+            }
+        }
+    }
+
+    private static final class CallMeters {
+        private final Timer time;
+        private final DistributionSummary statements;
+        private final DistributionSummary rows;
+
+        private CallMeters(MeterRegistry registry, Call call) {
+            this.time = Timer.builder("sql.repository.time")
+                    .description("Time spent in JDBC by a repository call")
+                    .tags("repository", call.repository, "method", call.method)
+                    .register(registry);
+            this.statements = DistributionSummary.builder("sql.repository.statements")
+                    .description("JDBC statements run by a repository call")
+                    .tags("repository", call.repository, "method", call.method)
+                    .register(registry);
+            this.rows = DistributionSummary.builder("sql.repository.rows")
+                    .description("Rows read or written by a repository call")
+                    .baseUnit("rows")
+                    .tags("repository", call.repository, "method", call.method)
+                    .register(registry);
+        }
+
+        private void record(Call call) {
+            time.record(call.nanos, TimeUnit.NANOSECONDS);
+            statements.record(call.statements);
+            rows.record(call.rows);
+        }
+    }
+}
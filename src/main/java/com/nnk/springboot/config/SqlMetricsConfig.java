@@ -0,0 +1,58 @@
+package com.nnk.springboot.config;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Configuration of the SQL metrics: the data source is wrapped to measure statements,
+ * and every repository proxy delimits its calls so that statements are attributed to them.
+ */
+@Configuration
+public class SqlMetricsConfig {
+
+    @Bean
+    public SqlMetrics sqlMetrics(@Value("${sql.slow-query.threshold:0ms}") Duration slowQueryThreshold,
+                                 @Value("${sql.slow-query.sample-rate:1.0}") double slowQuerySampleRate) {
+        return new SqlMetrics(slowQueryThreshold, slowQuerySampleRate);
+    }
+
+    /**
+     * Applies the SQL metrics to the data source and repository beans.
+     * Declared static so that it is registered before those beans are created.
+     *
+     * @param sqlMetrics resolved once the first of those beans is created
+     * @return the post-processor
+     */
+    @Bean
+    public static BeanPostProcessor sqlMetricsPostProcessor(ObjectProvider<SqlMetrics> sqlMetrics) {
+        return new BeanPostProcessor() {
+
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactoryBean) {
+                    repositoryFactoryBean.addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                                    proxyFactory.addAdvice(0, sqlMetrics.getObject()
+                                            .repositoryInterceptor(repositoryInformation.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return sqlMetrics.getObject().proxy(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
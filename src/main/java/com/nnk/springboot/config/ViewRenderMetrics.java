@@ -0,0 +1,53 @@
+package com.nnk.springboot.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the rendering of the views as view.render, tagged with the view name.
+ * The time runs from the end of the handler, once the data is loaded, to the end of the request,
+ * so that it only counts the template. Redirects and responses without a view are not timed.
+ *
+ * @see WebConfig
+ */
+public class ViewRenderMetrics implements HandlerInterceptor {
+
+    private static final String START_NANOS = ViewRenderMetrics.class.getName() + ".startNanos";
+    private static final String VIEW_NAME = ViewRenderMetrics.class.getName() + ".viewName";
+
+    private final MeterRegistry registry;
+
+    public ViewRenderMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        if (modelAndView != null && modelAndView.getViewName() != null
+                && !modelAndView.getViewName().startsWith("redirect:")) {
+            request.setAttribute(VIEW_NAME, modelAndView.getViewName());
+            request.setAttribute(START_NANOS, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(START_NANOS) instanceof Long start
+                && request.getAttribute(VIEW_NAME) instanceof String view) {
+            Timer.builder("view.render")
+                    .description("Rendering of a view, after its handler returned")
+                    .tag("view", view)
+                    .tag("outcome", ex == null ? "success" : "error")
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -1,12 +1,23 @@
 package com.nnk.springboot.controllers;
 
 import com.nnk.springboot.domain.Bid;
+import com.nnk.springboot.dto.BidSummary;
 import com.nnk.springboot.services.BidService;
+import com.nnk.springboot.services.ListChangeFeed;
+import com.nnk.springboot.services.TableVersions;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * Controller for managing bids.
@@ -17,22 +28,47 @@ import org.springframework.web.bind.annotation.*;
 public class BidController {
 
     private final BidService bidService;
+    private final ListChangeFeed listChangeFeed;
+    private final TableVersions tableVersions;
 
-    public BidController(BidService bidService) {
+    public BidController(BidService bidService, ListChangeFeed listChangeFeed, TableVersions tableVersions) {
         this.bidService = bidService;
+        this.listChangeFeed = listChangeFeed;
+        this.tableVersions = tableVersions;
     }
 
     /**
-     * Displays the list of all bids.
+     * Displays one page of bids, starting after the given cursor.
+     * Answers 304 without reading the bids if none changed since the browser cached the page.
+     * @param after id of the last bid of the previous page, absent for the first page
      * @param model to add to the template
-     * @return template for listing all bids
+     * @param request to check and set the ETag and Last-Modified of the page
+     * @return template for listing bids, or null if the page is unchanged
      */
     @RequestMapping("list")
-    public String home(Model model) {
-        model.addAttribute("bids", bidService.findAll());
+    public String home(@RequestParam(value = "after", required = false) Integer after, Model model,
+                       ServletWebRequest request) {
+        if (tableVersions.checkNotModified(Bid.class, request)) {
+            return null;
+        }
+        Slice<BidSummary> page = bidService.findPage(after);
+        model.addAttribute("bids", page.getContent());
+        model.addAttribute("after", after);
+        if (page.hasNext()) {
+            model.addAttribute("nextCursor", page.getContent().get(page.getNumberOfElements() - 1).bidListId());
+        }
         return "bid/list";
     }
 
+    /**
+     * Streams the changes of the bid list, applied by the list page instead of reloading it.
+     * @return the stream of saved and deleted bids
+     */
+    @GetMapping(value = "stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return listChangeFeed.subscribe("bid");
+    }
+
     /**
      * Fetches the add template for a new bid.
      * @param model to add to the template
@@ -49,19 +85,16 @@ public class BidController {
      * Validates and saves a new bid.
      * @param bid the bid to be added
      * @param result the result of the validation
-     * @param model to add to the template
      * @return redirect to the list of bids if successful, otherwise show the add form again
      */
     @PostMapping("validate")
     public String validate(
             @Valid @ModelAttribute("bid") Bid bid,
-            BindingResult result,
-            Model model) {
+            BindingResult result) {
         if (result.hasErrors()) {
             return "bid/add";
         }
         bidService.save(bid);
-        model.addAttribute("bids", bidService.findAll());
         return "redirect:/bid/list";
     }
 
@@ -79,35 +112,47 @@ public class BidController {
     }
 
     /**
-     * Validates and updates an existing bid.
+     * Validates and updates an existing bid, if it was not changed since the form was displayed.
+     * Otherwise the form is displayed again with the current bid and status 409, so that the edit can be redone.
      * @param id the ID of the bid to be updated
-     * @param bid the updated bid
+     * @param bid the updated bid, with the version it was read with
      * @param result the result of the validation
      * @param model to add to the template
+     * @param response to set the status of a conflict
      * @return redirect to the list of bids if successful, otherwise show the update form again
+     * @throws ResponseStatusException with status 404 if no bid has this id
      */
     @PostMapping("update/{id}")
     public String updateBid(@PathVariable("id") Integer id, @Valid Bid bid,
-                            BindingResult result, Model model) {
+                            BindingResult result, Model model, HttpServletResponse response) {
         if (result.hasErrors()) {
             return "bid/update";
         }
-        bidService.save(bid);
-        model.addAttribute("bids", bidService.findAll());
+        bid.setBidListId(id);
+        try {
+            bidService.update(bid);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            response.setStatus(HttpServletResponse.SC_CONFLICT);
+            model.addAttribute("bid", bidService.findById(id));
+            model.addAttribute("conflict", true);
+            return "bid/update";
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
         return "redirect:/bid/list";
     }
 
     /**
      * Deletes a specific bid.
      * @param id the ID of the bid to be deleted
-     * @param model to add to the template
      * @return redirect to the list of bids
+     * @throws ResponseStatusException with status 404 if no bid has this id
      */
     @GetMapping("delete/{id}")
-    public String deleteBid(@PathVariable("id") Integer id, Model model) {
-        Bid bid = bidService.findById(id);
-        bidService.delete(bid);
-        model.addAttribute("bids", bidService.findAll());
+    public String deleteBid(@PathVariable("id") Integer id) {
+        if (!bidService.deleteById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Invalid Bid Id: " + id);
+        }
         return "redirect:/bid/list";
     }
 }
\ No newline at end of file
@@ -2,13 +2,17 @@ package com.nnk.springboot.controllers;
 
 import com.nnk.springboot.domain.CurvePoint;
 import com.nnk.springboot.services.CurvePointService;
+import com.nnk.springboot.services.TableVersions;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 /**
  * Controller for managing curvePoints.
@@ -20,20 +24,27 @@ public class CurveController {
     private static final Logger logger = LoggerFactory.getLogger(CurveController.class);
 
     private final CurvePointService curvePointService;
+    private final TableVersions tableVersions;
 
-    public CurveController(CurvePointService curvePointService) {
+    public CurveController(CurvePointService curvePointService, TableVersions tableVersions) {
         this.curvePointService = curvePointService;
+        this.tableVersions = tableVersions;
     }
 
     /**
      * Displays the list of all curvePoints.
+     * Answers 304 without reading the curvePoints if none changed since the browser cached the page.
      *
-     * @param model to add to the template
-     * @return template for listing all curvePoints
+     * @param model   to add to the template
+     * @param request to check and set the ETag and Last-Modified of the page
+     * @return template for listing all curvePoints, or null if the page is unchanged
      */
     @RequestMapping("list")
-    public String home(Model model) {
-        model.addAttribute("curvePoints", curvePointService.findAll());
+    public String home(Model model, ServletWebRequest request) {
+        if (tableVersions.checkNotModified(CurvePoint.class, request)) {
+            return null;
+        }
+        model.addAttribute("curvePoints", curvePointService.findSummaries());
         return "curvePoint/list";
     }
 
@@ -55,20 +66,17 @@ public class CurveController {
      *
      * @param curvePoint the curvePoint to be added
      * @param result     the result of the validation
-     * @param model      to add to the template
      * @return redirect to the list of curvePoints if successful, otherwise show the add form again
      */
     @PostMapping("validate")
     public String validate(
             @Valid @ModelAttribute("curvePoint") CurvePoint curvePoint,
-            BindingResult result,
-            Model model) {
+            BindingResult result) {
         if (result.hasErrors()) {
             logger.error("error with submitted CurvePoint");
             return "curvePoint/add";
         }
         curvePointService.save(curvePoint);
-        model.addAttribute("curvePoints", curvePointService.findAll());
         return "redirect:/curvePoint/list";
     }
 
@@ -92,32 +100,30 @@ public class CurveController {
      * @param id         the ID of the curvePoint to be updated
      * @param curvePoint the updated curvePoint
      * @param result     the result of the validation
-     * @param model      to add to the template
      * @return redirect to the list of curvePoints if successful, otherwise show the update form again
      */
     @PostMapping("update/{id}")
     public String updateCurve(@PathVariable("id") Integer id, @Valid CurvePoint curvePoint,
-                              BindingResult result, Model model) {
+                              BindingResult result) {
         if (result.hasErrors()) {
             return "curvePoint/update";
         }
         curvePointService.save(curvePoint);
-        model.addAttribute("curvePoints", curvePointService.findAll());
         return "redirect:/curvePoint/list";
     }
 
     /**
      * Deletes a specific curvePoint.
      *
-     * @param id    the ID of the curvePoint to be deleted
-     * @param model to add to the template
+     * @param id the ID of the curvePoint to be deleted
      * @return redirect to the list of curvePoints
+     * @throws ResponseStatusException with status 404 if no curvePoint has this id
      */
     @GetMapping("delete/{id}")
-    public String deleteCurve(@PathVariable("id") Integer id, Model model) {
-        CurvePoint curvePoint = curvePointService.findById(id);
-        curvePointService.delete(curvePoint);
-        model.addAttribute("curvePoints", curvePointService.findAll());
+    public String deleteCurve(@PathVariable("id") Integer id) {
+        if (!curvePointService.deleteById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Invalid CurvePoint Id: " + id);
+        }
         return "redirect:/curvePoint/list";
     }
 }
@@ -0,0 +1,46 @@
+package com.nnk.springboot.controllers;
+
+import com.nnk.springboot.services.TradeExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Controller for exporting the trade blotter as CSV.
+ * Rows are written to the response as they are read from the database.
+ */
+@Controller
+public class ExportController {
+
+    private final TradeExportService tradeExportService;
+
+    public ExportController(TradeExportService tradeExportService) {
+        this.tradeExportService = tradeExportService;
+    }
+
+    /**
+     * Streams the trades matching the optional filters as a CSV attachment.
+     *
+     * @param account   only trades of this account
+     * @param book      only trades of this book
+     * @param tradeDate only trades of this day, as yyyy-MM-dd
+     * @param response  the response the CSV is written to
+     * @throws IOException if the response cannot be written
+     */
+    @GetMapping("trade/export")
+    public void exportTrades(@RequestParam(value = "account", required = false) String account,
+                             @RequestParam(value = "book", required = false) String book,
+                             @RequestParam(value = "tradeDate", required = false)
+                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate tradeDate,
+                             HttpServletResponse response) throws IOException {
+        response.setContentType("text/csv;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"trades.csv\"");
+        tradeExportService.exportCsv(account, book, tradeDate, response.getOutputStream());
+    }
+}
@@ -2,11 +2,15 @@ package com.nnk.springboot.controllers;
 
 import com.nnk.springboot.domain.Rating;
 import com.nnk.springboot.services.RatingService;
+import com.nnk.springboot.services.TableVersions;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 /**
  * Controller for managing ratings.
@@ -17,20 +21,27 @@ import org.springframework.web.bind.annotation.*;
 public class RatingController {
 
     private final RatingService ratingService;
+    private final TableVersions tableVersions;
 
-    public RatingController(RatingService ratingService) {
+    public RatingController(RatingService ratingService, TableVersions tableVersions) {
         this.ratingService = ratingService;
+        this.tableVersions = tableVersions;
     }
 
     /**
      * Displays the list of all ratings.
+     * Answers 304 without reading the ratings if none changed since the browser cached the page.
      *
-     * @param model to add to the template
-     * @return template for listing all ratings
+     * @param model   to add to the template
+     * @param request to check and set the ETag and Last-Modified of the page
+     * @return template for listing all ratings, or null if the page is unchanged
      */
     @RequestMapping("list")
-    public String home(Model model) {
-        model.addAttribute("ratings", ratingService.findAll());
+    public String home(Model model, ServletWebRequest request) {
+        if (tableVersions.checkNotModified(Rating.class, request)) {
+            return null;
+        }
+        model.addAttribute("ratings", ratingService.findSummaries());
         return "rating/list";
     }
 
@@ -52,19 +63,16 @@ public class RatingController {
      *
      * @param rating    the rating to be added
      * @param result the result of the validation
-     * @param model  to add to the template
      * @return redirect to the list of ratings if successful, otherwise show the add form again
      */
     @PostMapping("validate")
     public String validate(
             @Valid @ModelAttribute("rating") Rating rating,
-            BindingResult result,
-            Model model) {
+            BindingResult result) {
         if (result.hasErrors()) {
             return "rating/add";
         }
         ratingService.save(rating);
-        model.addAttribute("ratings", ratingService.findAll());
         return "redirect:/rating/list";
     }
 
@@ -88,32 +96,30 @@ public class RatingController {
      * @param id     the ID of the rating to be updated
      * @param rating    the updated rating
      * @param result the result of the validation
-     * @param model  to add to the template
      * @return redirect to the list of ratings if successful, otherwise show the update form again
      */
     @PostMapping("update/{id}")
     public String updateRating(@PathVariable("id") Integer id, @Valid Rating rating,
-                               BindingResult result, Model model) {
+                               BindingResult result) {
         if (result.hasErrors()) {
             return "rating/update";
         }
         ratingService.save(rating);
-        model.addAttribute("ratings", ratingService.findAll());
         return "redirect:/rating/list";
     }
 
     /**
      * Deletes a specific rating.
      *
-     * @param id    the ID of the rating to be deleted
-     * @param model to add to the template
+     * @param id the ID of the rating to be deleted
      * @return redirect to the list of ratings
+     * @throws ResponseStatusException with status 404 if no rating has this id
      */
     @GetMapping("delete/{id}")
-    public String deleteRating(@PathVariable("id") Integer id, Model model) {
-        Rating rating = ratingService.findById(id);
-        ratingService.delete(rating);
-        model.addAttribute("ratings", ratingService.findAll());
+    public String deleteRating(@PathVariable("id") Integer id) {
+        if (!ratingService.deleteById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Invalid Rating Id: " + id);
+        }
         return "redirect:/rating/list";
     }
 }
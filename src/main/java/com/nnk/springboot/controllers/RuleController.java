@@ -2,11 +2,15 @@ package com.nnk.springboot.controllers;
 
 import com.nnk.springboot.domain.Rule;
 import com.nnk.springboot.services.RuleService;
+import com.nnk.springboot.services.TableVersions;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 /**
  * Controller for managing rules.
@@ -17,20 +21,27 @@ import org.springframework.web.bind.annotation.*;
 public class RuleController {
 
     private final RuleService ruleService;
+    private final TableVersions tableVersions;
 
-    public RuleController(RuleService ruleService) {
+    public RuleController(RuleService ruleService, TableVersions tableVersions) {
         this.ruleService = ruleService;
+        this.tableVersions = tableVersions;
     }
 
     /**
      * Displays the list of all rules.
+     * Answers 304 without reading the rules if none changed since the browser cached the page.
      *
-     * @param model to add to the template
-     * @return template for listing all rules
+     * @param model   to add to the template
+     * @param request to check and set the ETag and Last-Modified of the page
+     * @return template for listing all rules, or null if the page is unchanged
      */
     @RequestMapping("list")
-    public String home(Model model) {
-        model.addAttribute("rules", ruleService.findAll());
+    public String home(Model model, ServletWebRequest request) {
+        if (tableVersions.checkNotModified(Rule.class, request)) {
+            return null;
+        }
+        model.addAttribute("rules", ruleService.findSummaries());
         return "rule/list";
     }
 
@@ -52,19 +63,16 @@ public class RuleController {
      *
      * @param rule   the rule to be added
      * @param result the result of the validation
-     * @param model  to add to the template
      * @return redirect to the list of rules if successful, otherwise show the add form again
      */
     @PostMapping("validate")
     public String validate(
             @Valid @ModelAttribute("rule") Rule rule,
-            BindingResult result,
-            Model model) {
+            BindingResult result) {
         if (result.hasErrors()) {
             return "rule/add";
         }
         ruleService.save(rule);
-        model.addAttribute("rules", ruleService.findAll());
         return "redirect:/rule/list";
     }
 
@@ -88,32 +96,30 @@ public class RuleController {
      * @param id     the ID of the rule to be updated
      * @param rule   the updated rule
      * @param result the result of the validation
-     * @param model  to add to the template
      * @return redirect to the list of rules if successful, otherwise show the update form again
      */
     @PostMapping("update/{id}")
     public String updateRule(@PathVariable("id") Integer id, @Valid Rule rule,
-                             BindingResult result, Model model) {
+                             BindingResult result) {
         if (result.hasErrors()) {
             return "rule/update";
         }
         ruleService.save(rule);
-        model.addAttribute("rules", ruleService.findAll());
         return "redirect:/rule/list";
     }
 
     /**
      * Deletes a specific rule.
      *
-     * @param id    the ID of the rule to be deleted
-     * @param model to add to the template
+     * @param id the ID of the rule to be deleted
      * @return redirect to the list of rules
+     * @throws ResponseStatusException with status 404 if no rule has this id
      */
     @GetMapping("delete/{id}")
-    public String deleteRule(@PathVariable("id") Integer id, Model model) {
-        Rule rule = ruleService.findById(id);
-        ruleService.delete(rule);
-        model.addAttribute("rules", ruleService.findAll());
+    public String deleteRule(@PathVariable("id") Integer id) {
+        if (!ruleService.deleteById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Invalid Rule Id: " + id);
+        }
         return "redirect:/rule/list";
     }
 }
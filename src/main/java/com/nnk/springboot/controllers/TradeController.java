@@ -1,12 +1,21 @@
 package com.nnk.springboot.controllers;
 
 import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.services.ListChangeFeed;
 import com.nnk.springboot.services.TradeService;
+import com.nnk.springboot.services.TableVersions;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * Controller for managing trades.
@@ -17,23 +26,42 @@ import org.springframework.web.bind.annotation.*;
 public class TradeController {
 
     private final TradeService tradeService;
+    private final ListChangeFeed listChangeFeed;
+    private final TableVersions tableVersions;
 
-    public TradeController(TradeService tradeService) {
+    public TradeController(TradeService tradeService, ListChangeFeed listChangeFeed, TableVersions tableVersions) {
         this.tradeService = tradeService;
+        this.listChangeFeed = listChangeFeed;
+        this.tableVersions = tableVersions;
     }
 
     /**
      * Displays the list of all trades.
+     * Answers 304 without reading the trades if none changed since the browser cached the page.
      *
-     * @param model to add to the template
-     * @return template for listing all trades
+     * @param model   to add to the template
+     * @param request to check and set the ETag and Last-Modified of the page
+     * @return template for listing all trades, or null if the page is unchanged
      */
     @RequestMapping("list")
-    public String home(Model model) {
-        model.addAttribute("trades", tradeService.findAll());
+    public String home(Model model, ServletWebRequest request) {
+        if (tableVersions.checkNotModified(Trade.class, request)) {
+            return null;
+        }
+        model.addAttribute("trades", tradeService.findSummaries());
         return "trade/list";
     }
 
+    /**
+     * Streams the changes of the trade list, applied by the list page instead of reloading it.
+     *
+     * @return the stream of saved and deleted trades
+     */
+    @GetMapping(value = "stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return listChangeFeed.subscribe("trade");
+    }
+
     /**
      * Fetches the add template for a new trade.
      *
@@ -52,19 +80,16 @@ public class TradeController {
      *
      * @param trade  the trade to be added
      * @param result the result of the validation
-     * @param model  to add to the template
      * @return redirect to the list of trades if successful, otherwise show the add form again
      */
     @PostMapping("validate")
     public String validate(
             @Valid @ModelAttribute("trade") Trade trade,
-            BindingResult result,
-            Model model) {
+            BindingResult result) {
         if (result.hasErrors()) {
             return "trade/add";
         }
         tradeService.save(trade);
-        model.addAttribute("trades", tradeService.findAll());
         return "redirect:/trade/list";
     }
 
@@ -83,37 +108,49 @@ public class TradeController {
     }
 
     /**
-     * Validates and updates an existing trade.
+     * Validates and updates an existing trade, if it was not changed since the form was displayed.
+     * Otherwise the form is displayed again with the current trade and status 409, so that the edit can be redone.
      *
-     * @param id     the ID of the trade to be updated
-     * @param trade  the updated trade
-     * @param result the result of the validation
-     * @param model  to add to the template
+     * @param id       the ID of the trade to be updated
+     * @param trade    the updated trade, with the version it was read with
+     * @param result   the result of the validation
+     * @param model    to add to the template
+     * @param response to set the status of a conflict
      * @return redirect to the list of trades if successful, otherwise show the update form again
+     * @throws ResponseStatusException with status 404 if no trade has this id
      */
     @PostMapping("update/{id}")
     public String updateTrade(@PathVariable("id") Integer id, @Valid Trade trade,
-                              BindingResult result, Model model) {
+                              BindingResult result, Model model, HttpServletResponse response) {
         if (result.hasErrors()) {
             return "trade/update";
         }
-        tradeService.save(trade);
-        model.addAttribute("trades", tradeService.findAll());
+        trade.setTradeId(id);
+        try {
+            tradeService.update(trade);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            response.setStatus(HttpServletResponse.SC_CONFLICT);
+            model.addAttribute("trade", tradeService.findById(id));
+            model.addAttribute("conflict", true);
+            return "trade/update";
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
         return "redirect:/trade/list";
     }
 
     /**
      * Deletes a specific trade.
      *
-     * @param id    the ID of the trade to be deleted
-     * @param model to add to the template
+     * @param id the ID of the trade to be deleted
      * @return redirect to the list of trades
+     * @throws ResponseStatusException with status 404 if no trade has this id
      */
     @GetMapping("delete/{id}")
-    public String deleteTrade(@PathVariable("id") Integer id, Model model) {
-        Trade trade = tradeService.findById(id);
-        tradeService.delete(trade);
-        model.addAttribute("trades", tradeService.findAll());
+    public String deleteTrade(@PathVariable("id") Integer id) {
+        if (!tradeService.deleteById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Invalid Trade Id: " + id);
+        }
         return "redirect:/trade/list";
     }
 }
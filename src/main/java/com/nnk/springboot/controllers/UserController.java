@@ -3,6 +3,7 @@ package com.nnk.springboot.controllers;
 import com.nnk.springboot.domain.User;
 import com.nnk.springboot.services.UserService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.server.ResponseStatusException;
 
 /**
  * Controller for managing users.
@@ -55,16 +57,14 @@ public class UserController {
      *
      * @param user   the user to be added
      * @param result the result of the validation
-     * @param model  to add to the template
      * @return redirect to the list of users if successful, otherwise show the add form again
      */
     @PostMapping("validate")
-    public String validate(@Valid User user, BindingResult result, Model model) {
+    public String validate(@Valid User user, BindingResult result) {
         if (result.hasErrors()) {
             return "user/add";
         }
         userService.save(user);
-        model.addAttribute("users", userService.findAll());
         return "redirect:/user/list";
     }
 
@@ -89,32 +89,30 @@ public class UserController {
      * @param id     the ID of the user to be updated
      * @param user   the updated user
      * @param result the result of the validation
-     * @param model  to add to the template
      * @return redirect to the list of users if successful, otherwise show the update form again
      */
     @PostMapping("update/{id}")
     public String updateUser(@PathVariable("id") Integer id, @Valid User user,
-                             BindingResult result, Model model) {
+                             BindingResult result) {
         if (result.hasErrors()) {
             return "user/update";
         }
         userService.save(user);
-        model.addAttribute("users", userService.findAll());
         return "redirect:/user/list";
     }
 
     /**
      * Deletes a specific user.
      *
-     * @param id    the ID of the user to be deleted
-     * @param model to add to the template
+     * @param id the ID of the user to be deleted
      * @return redirect to the list of users
+     * @throws ResponseStatusException with status 404 if no user has this id
      */
     @GetMapping("delete/{id}")
-    public String deleteUser(@PathVariable("id") Integer id, Model model) {
-        User user = userService.findById(id);
-        userService.delete(user);
-        model.addAttribute("users", userService.findAll());
+    public String deleteUser(@PathVariable("id") Integer id) {
+        if (!userService.deleteById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Invalid User Id: " + id);
+        }
         return "redirect:/user/list";
     }
 }
@@ -0,0 +1,29 @@
+package com.nnk.springboot.controllers.api;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.io.IOException;
+
+/**
+ * Turns the errors of the REST API that come from a bad request parameter into a 400,
+ * rendered like the ResponseStatusException the controllers throw.
+ */
+@RestControllerAdvice(basePackageClasses = ApiExceptionHandler.class)
+public class ApiExceptionHandler {
+
+    /**
+     * Handles a sort parameter naming a property the entity does not have.
+     *
+     * @param e        the exception raised when the query was built
+     * @param response the response to send the error on
+     * @throws IOException if the error cannot be sent
+     */
+    @ExceptionHandler(PropertyReferenceException.class)
+    public void unknownSortProperty(PropertyReferenceException e, HttpServletResponse response) throws IOException {
+        response.sendError(HttpStatus.BAD_REQUEST.value(), "Unknown sort property: " + e.getPropertyName());
+    }
+}
@@ -0,0 +1,21 @@
+package com.nnk.springboot.controllers.api;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * One page of a REST API listing, with what a client needs to fetch the next ones.
+ *
+ * @param content       the items of the page
+ * @param page          the page number, starting at 0
+ * @param size          the requested page size
+ * @param totalElements the number of items of all pages
+ * @param totalPages    the number of pages
+ */
+public record ApiPage<T>(List<T> content, int page, int size, long totalElements, int totalPages) {
+
+    public static <T> ApiPage<T> of(Page<?> page, List<T> content) {
+        return new ApiPage<>(content, page.getNumber(), page.getSize(), page.getTotalElements(), page.getTotalPages());
+    }
+}
@@ -0,0 +1,120 @@
+package com.nnk.springboot.controllers.api;
+
+import com.nnk.springboot.domain.Bid;
+import com.nnk.springboot.services.BidService;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * REST API for bids.
+ * Listings are paged with the page, size and sort parameters,
+ * and the fields parameter restricts the returned properties.
+ */
+@RestController
+@RequestMapping("api/v1/bids")
+public class BidApiController {
+
+    private final BidService bidService;
+    private final SparseFields sparseFields;
+
+    public BidApiController(BidService bidService, SparseFields sparseFields) {
+        this.bidService = bidService;
+        this.sparseFields = sparseFields;
+    }
+
+    /**
+     * Lists one page of bids, ordered by id unless another sort is requested.
+     *
+     * @param pageable the page number, size and sort order
+     * @param fields   comma-separated properties to return, all of them if absent
+     * @return the page of bids
+     */
+    @GetMapping
+    public ApiPage<Object> list(@SortDefault("bidListId") Pageable pageable,
+                                @RequestParam(value = "fields", required = false) String fields) {
+        return sparseFields.page(bidService.findAll(pageable), Bid.class, fields);
+    }
+
+    /**
+     * Fetches a specific bid.
+     *
+     * @param id     the ID of the bid
+     * @param fields comma-separated properties to return, all of them if absent
+     * @return the bid
+     * @throws ResponseStatusException with status 404 if no bid has this id
+     */
+    @GetMapping("{id}")
+    public Object get(@PathVariable("id") Integer id,
+                      @RequestParam(value = "fields", required = false) String fields) {
+        return sparseFields.select(findById(id), fields);
+    }
+
+    /**
+     * Validates and saves a new bid.
+     *
+     * @param bid the bid to be added, any id and version are ignored
+     * @param uriBuilder to build the location of the new bid
+     * @return the saved bid, with status 201 and its location
+     */
+    @PostMapping
+    public ResponseEntity<Bid> create(@Valid @RequestBody Bid bid, UriComponentsBuilder uriBuilder) {
+        bid.setBidListId(null);
+        bid.setVersion(null);
+        Bid saved = bidService.save(bid);
+        return ResponseEntity.created(uriBuilder.path("/api/v1/bids/{id}").build(saved.getBidListId()))
+                .body(saved);
+    }
+
+    /**
+     * Validates and replaces an existing bid, if it still has the version sent by the client.
+     *
+     * @param id     the ID of the bid to be updated
+     * @param bid    the updated bid, with the version it was read with
+     * @return the saved bid, with its new version
+     * @throws ResponseStatusException with status 400 if the version is missing,
+     *                                 404 if no bid has this id, or 409 if the bid was changed meanwhile
+     */
+    @PutMapping("{id}")
+    public Bid update(@PathVariable("id") Integer id, @Valid @RequestBody Bid bid) {
+        if (bid.getVersion() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The version of the bid is required");
+        }
+        bid.setBidListId(id);
+        try {
+            return bidService.replace(bid);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Bid " + id + " was changed meanwhile");
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes a specific bid.
+     *
+     * @param id the ID of the bid to be deleted
+     * @throws ResponseStatusException with status 404 if no bid has this id
+     */
+    @DeleteMapping("{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void delete(@PathVariable("id") Integer id) {
+        if (!bidService.deleteById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Invalid Bid Id: " + id);
+        }
+    }
+
+    private Bid findById(Integer id) {
+        try {
+            return bidService.findById(id);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+}
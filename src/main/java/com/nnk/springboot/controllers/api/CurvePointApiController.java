@@ -0,0 +1,109 @@
+package com.nnk.springboot.controllers.api;
+
+import com.nnk.springboot.domain.CurvePoint;
+import com.nnk.springboot.services.CurvePointService;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * REST API for curve points.
+ * Listings are paged with the page, size and sort parameters,
+ * and the fields parameter restricts the returned properties.
+ */
+@RestController
+@RequestMapping("api/v1/curvePoints")
+public class CurvePointApiController {
+
+    private final CurvePointService curvePointService;
+    private final SparseFields sparseFields;
+
+    public CurvePointApiController(CurvePointService curvePointService, SparseFields sparseFields) {
+        this.curvePointService = curvePointService;
+        this.sparseFields = sparseFields;
+    }
+
+    /**
+     * Lists one page of curve points, ordered by id unless another sort is requested.
+     *
+     * @param pageable the page number, size and sort order
+     * @param fields   comma-separated properties to return, all of them if absent
+     * @return the page of curve points
+     */
+    @GetMapping
+    public ApiPage<Object> list(@SortDefault("id") Pageable pageable,
+                                @RequestParam(value = "fields", required = false) String fields) {
+        return sparseFields.page(curvePointService.findAll(pageable), CurvePoint.class, fields);
+    }
+
+    /**
+     * Fetches a specific curve point.
+     *
+     * @param id     the ID of the curve point
+     * @param fields comma-separated properties to return, all of them if absent
+     * @return the curve point
+     * @throws ResponseStatusException with status 404 if no curve point has this id
+     */
+    @GetMapping("{id}")
+    public Object get(@PathVariable("id") Integer id,
+                      @RequestParam(value = "fields", required = false) String fields) {
+        return sparseFields.select(findById(id), fields);
+    }
+
+    /**
+     * Validates and saves a new curve point.
+     *
+     * @param curvePoint the curve point to be added, any id is ignored
+     * @param uriBuilder to build the location of the new curve point
+     * @return the saved curve point, with status 201 and its location
+     */
+    @PostMapping
+    public ResponseEntity<CurvePoint> create(@Valid @RequestBody CurvePoint curvePoint, UriComponentsBuilder uriBuilder) {
+        curvePoint.setId(null);
+        CurvePoint saved = curvePointService.save(curvePoint);
+        return ResponseEntity.created(uriBuilder.path("/api/v1/curvePoints/{id}").build(saved.getId()))
+                .body(saved);
+    }
+
+    /**
+     * Validates and replaces an existing curve point.
+     *
+     * @param id     the ID of the curve point to be updated
+     * @param curvePoint the updated curve point
+     * @return the saved curve point
+     * @throws ResponseStatusException with status 404 if no curve point has this id
+     */
+    @PutMapping("{id}")
+    public CurvePoint update(@PathVariable("id") Integer id, @Valid @RequestBody CurvePoint curvePoint) {
+        findById(id);
+        curvePoint.setId(id);
+        return curvePointService.save(curvePoint);
+    }
+
+    /**
+     * Deletes a specific curve point.
+     *
+     * @param id the ID of the curve point to be deleted
+     * @throws ResponseStatusException with status 404 if no curve point has this id
+     */
+    @DeleteMapping("{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void delete(@PathVariable("id") Integer id) {
+        if (!curvePointService.deleteById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Invalid CurvePoint Id: " + id);
+        }
+    }
+
+    private CurvePoint findById(Integer id) {
+        try {
+            return curvePointService.findById(id);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+}
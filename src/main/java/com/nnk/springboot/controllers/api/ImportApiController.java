@@ -0,0 +1,73 @@
+package com.nnk.springboot.controllers.api;
+
+import com.nnk.springboot.domain.Bid;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.services.BulkImportService;
+import com.nnk.springboot.services.BulkImportService.Format;
+import com.nnk.springboot.services.ImportReport;
+import com.nnk.springboot.services.PositionService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static com.nnk.springboot.services.BulkImportService.APPLICATION_NDJSON;
+import static com.nnk.springboot.services.BulkImportService.TEXT_CSV;
+
+/**
+ * REST API for bulk loading bids and trades from CSV or NDJSON files, such as end-of-day files
+ * posted by batch clients with HTTP Basic. The request body is streamed, so files of any size can be posted.
+ */
+@RestController
+@RequestMapping("api/v1")
+public class ImportApiController {
+
+    private final BulkImportService bulkImportService;
+    private final PositionService positionService;
+
+    public ImportApiController(BulkImportService bulkImportService, PositionService positionService) {
+        this.bulkImportService = bulkImportService;
+        this.positionService = positionService;
+    }
+
+    /**
+     * Imports bids from the request body.
+     *
+     * @param contentType text/csv or application/x-ndjson
+     * @param body        the file content
+     * @return the import report as JSON
+     * @throws IOException if the body cannot be read
+     */
+    @PostMapping(value = "bids/import", consumes = {TEXT_CSV, APPLICATION_NDJSON})
+    public ImportReport importBids(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                   InputStream body) throws IOException {
+        return bulkImportService.importRows(body, Format.fromMediaType(contentType), Bid.class,
+                bid -> bid.setBidListId(null));
+    }
+
+    /**
+     * Imports trades from the request body.
+     * The positions are built again from the table the next time they are read.
+     *
+     * @param contentType text/csv or application/x-ndjson
+     * @param body        the file content
+     * @return the import report as JSON
+     * @throws IOException if the body cannot be read
+     */
+    @PostMapping(value = "trades/import", consumes = {TEXT_CSV, APPLICATION_NDJSON})
+    public ImportReport importTrades(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                     InputStream body) throws IOException {
+        try {
+            return bulkImportService.importRows(body, Format.fromMediaType(contentType), Trade.class,
+                    trade -> trade.setTradeId(null));
+        } finally {
+            // batches are committed one by one, so some may be in even if the import failed
+            positionService.invalidate();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.nnk.springboot.controllers.api;
+
+import com.nnk.springboot.dto.Position;
+import com.nnk.springboot.services.PositionService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST API for the positions aggregated from the trades.
+ */
+@RestController
+@RequestMapping("api/v1/positions")
+public class PositionApiController {
+
+    private final PositionService positionService;
+
+    public PositionApiController(PositionService positionService) {
+        this.positionService = positionService;
+    }
+
+    /**
+     * Lists the positions by book, account and security, with their net quantity, average price and realized P&amp;L.
+     *
+     * @param book    only the positions of this book, all if absent
+     * @param account only the positions of this account, all if absent
+     * @return the positions, ordered by book, account and security
+     */
+    @GetMapping
+    public List<Position> list(@RequestParam(value = "book", required = false) String book,
+                               @RequestParam(value = "account", required = false) String account) {
+        return positionService.findAll(book, account);
+    }
+
+    /**
+     * Builds the positions again from the trade table, for trades written to the database directly.
+     * Reserved to administrators.
+     *
+     * @return status 204
+     */
+    @PostMapping("rebuild")
+    public ResponseEntity<Void> rebuild() {
+        positionService.rebuild(true);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.nnk.springboot.controllers.api;
+
+import com.nnk.springboot.domain.Rating;
+import com.nnk.springboot.services.RatingService;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * REST API for ratings.
+ * Listings are paged with the page, size and sort parameters,
+ * and the fields parameter restricts the returned properties.
+ */
+@RestController
+@RequestMapping("api/v1/ratings")
+public class RatingApiController {
+
+    private final RatingService ratingService;
+    private final SparseFields sparseFields;
+
+    public RatingApiController(RatingService ratingService, SparseFields sparseFields) {
+        this.ratingService = ratingService;
+        this.sparseFields = sparseFields;
+    }
+
+    /**
+     * Lists one page of ratings, ordered by id unless another sort is requested.
+     *
+     * @param pageable the page number, size and sort order
+     * @param fields   comma-separated properties to return, all of them if absent
+     * @return the page of ratings
+     */
+    @GetMapping
+    public ApiPage<Object> list(@SortDefault("id") Pageable pageable,
+                                @RequestParam(value = "fields", required = false) String fields) {
+        return sparseFields.page(ratingService.findAll(pageable), Rating.class, fields);
+    }
+
+    /**
+     * Fetches a specific rating.
+     *
+     * @param id     the ID of the rating
+     * @param fields comma-separated properties to return, all of them if absent
+     * @return the rating
+     * @throws ResponseStatusException with status 404 if no rating has this id
+     */
+    @GetMapping("{id}")
+    public Object get(@PathVariable("id") Integer id,
+                      @RequestParam(value = "fields", required = false) String fields) {
+        return sparseFields.select(findById(id), fields);
+    }
+
+    /**
+     * Validates and saves a new rating.
+     *
+     * @param rating the rating to be added, any id is ignored
+     * @param uriBuilder to build the location of the new rating
+     * @return the saved rating, with status 201 and its location
+     */
+    @PostMapping
+    public ResponseEntity<Rating> create(@Valid @RequestBody Rating rating, UriComponentsBuilder uriBuilder) {
+        rating.setId(null);
+        Rating saved = ratingService.save(rating);
+        return ResponseEntity.created(uriBuilder.path("/api/v1/ratings/{id}").build(saved.getId()))
+                .body(saved);
+    }
+
+    /**
+     * Validates and replaces an existing rating.
+     *
+     * @param id     the ID of the rating to be updated
+     * @param rating the updated rating
+     * @return the saved rating
+     * @throws ResponseStatusException with status 404 if no rating has this id
+     */
+    @PutMapping("{id}")
+    public Rating update(@PathVariable("id") Integer id, @Valid @RequestBody Rating rating) {
+        findById(id);
+        rating.setId(id);
+        return ratingService.save(rating);
+    }
+
+    /**
+     * Deletes a specific rating.
+     *
+     * @param id the ID of the rating to be deleted
+     * @throws ResponseStatusException with status 404 if no rating has this id
+     */
+    @DeleteMapping("{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void delete(@PathVariable("id") Integer id) {
+        if (!ratingService.deleteById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Invalid Rating Id: " + id);
+        }
+    }
+
+    private Rating findById(Integer id) {
+        try {
+            return ratingService.findById(id);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+}
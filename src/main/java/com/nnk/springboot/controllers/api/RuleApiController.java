@@ -0,0 +1,169 @@
+package com.nnk.springboot.controllers.api;
+
+import com.nnk.springboot.domain.Bid;
+import com.nnk.springboot.domain.Rule;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.dto.RuleMatch;
+import com.nnk.springboot.services.RuleEngine;
+import com.nnk.springboot.services.RuleQueryService;
+import com.nnk.springboot.services.RuleService;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+
+/**
+ * REST API for rules.
+ * Listings are paged with the page, size and sort parameters,
+ * and the fields parameter restricts the returned properties.
+ * A trade or a bid can be evaluated against the predicates of the rules without being saved,
+ * and the SQL of a rule can be run, by administrators only.
+ */
+@RestController
+@RequestMapping("api/v1/rules")
+public class RuleApiController {
+
+    private final RuleService ruleService;
+    private final RuleEngine ruleEngine;
+    private final RuleQueryService ruleQueryService;
+    private final SparseFields sparseFields;
+
+    public RuleApiController(RuleService ruleService, RuleEngine ruleEngine, RuleQueryService ruleQueryService,
+                             SparseFields sparseFields) {
+        this.ruleService = ruleService;
+        this.ruleEngine = ruleEngine;
+        this.ruleQueryService = ruleQueryService;
+        this.sparseFields = sparseFields;
+    }
+
+    /**
+     * Lists one page of rules, ordered by id unless another sort is requested.
+     *
+     * @param pageable the page number, size and sort order
+     * @param fields   comma-separated properties to return, all of them if absent
+     * @return the page of rules
+     */
+    @GetMapping
+    public ApiPage<Object> list(@SortDefault("id") Pageable pageable,
+                                @RequestParam(value = "fields", required = false) String fields) {
+        return sparseFields.page(ruleService.findAll(pageable), Rule.class, fields);
+    }
+
+    /**
+     * Fetches a specific rule.
+     *
+     * @param id     the ID of the rule
+     * @param fields comma-separated properties to return, all of them if absent
+     * @return the rule
+     * @throws ResponseStatusException with status 404 if no rule has this id
+     */
+    @GetMapping("{id}")
+    public Object get(@PathVariable("id") Integer id,
+                      @RequestParam(value = "fields", required = false) String fields) {
+        return sparseFields.select(findById(id), fields);
+    }
+
+    /**
+     * Validates and saves a new rule.
+     *
+     * @param rule the rule to be added, any id is ignored
+     * @param uriBuilder to build the location of the new rule
+     * @return the saved rule, with status 201 and its location
+     */
+    @PostMapping
+    public ResponseEntity<Rule> create(@Valid @RequestBody Rule rule, UriComponentsBuilder uriBuilder) {
+        rule.setId(null);
+        Rule saved = ruleService.save(rule);
+        return ResponseEntity.created(uriBuilder.path("/api/v1/rules/{id}").build(saved.getId()))
+                .body(saved);
+    }
+
+    /**
+     * Validates and replaces an existing rule.
+     *
+     * @param id     the ID of the rule to be updated
+     * @param rule the updated rule
+     * @return the saved rule
+     * @throws ResponseStatusException with status 404 if no rule has this id
+     */
+    @PutMapping("{id}")
+    public Rule update(@PathVariable("id") Integer id, @Valid @RequestBody Rule rule) {
+        findById(id);
+        rule.setId(id);
+        return ruleService.save(rule);
+    }
+
+    /**
+     * Deletes a specific rule.
+     *
+     * @param id the ID of the rule to be deleted
+     * @throws ResponseStatusException with status 404 if no rule has this id
+     */
+    @DeleteMapping("{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void delete(@PathVariable("id") Integer id) {
+        if (!ruleService.deleteById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Invalid Rule Id: " + id);
+        }
+    }
+
+    /**
+     * Evaluates a trade against the rules.
+     *
+     * @param trade the trade, not saved
+     * @return the rules it matches, ordered by id
+     */
+    @PostMapping("matches/trade")
+    public List<RuleMatch> matchTrade(@RequestBody Trade trade) {
+        return ruleEngine.matches(trade);
+    }
+
+    /**
+     * Evaluates a bid against the rules.
+     *
+     * @param bid the bid, not saved
+     * @return the rules it matches, ordered by id
+     */
+    @PostMapping("matches/bid")
+    public List<RuleMatch> matchBid(@RequestBody Bid bid) {
+        return ruleEngine.matches(bid);
+    }
+
+    /**
+     * Runs the SQL of a rule and streams its rows, up to the configured row cap.
+     *
+     * @param id         the ID of the rule
+     * @param parameters values of the :name parameters of the SQL, repeated for an IN list
+     * @return the rows as a JSON array of objects keyed by column label
+     * @throws ResponseStatusException with status 404 if no rule has this id,
+     *                                 or 400 if its SQL is not a single SELECT or a parameter is missing
+     */
+    @GetMapping(value = "{id}/results", produces = MediaType.APPLICATION_JSON_VALUE)
+    public StreamingResponseBody results(@PathVariable("id") Integer id,
+                                         @RequestParam MultiValueMap<String, String> parameters) {
+        RuleQueryService.PreparedQuery query;
+        try {
+            query = ruleQueryService.prepare(findById(id), parameters);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return out -> ruleQueryService.execute(query, out);
+    }
+
+    private Rule findById(Integer id) {
+        try {
+            return ruleService.findById(id);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+}
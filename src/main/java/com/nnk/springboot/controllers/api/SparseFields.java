@@ -0,0 +1,101 @@
+package com.nnk.springboot.controllers.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Applies the {@code fields} parameter of the REST API,
+ * so that clients only receive the properties they asked for.
+ * <p>
+ * This only saves response size: the entities are still loaded with all their columns,
+ * and the properties that were not requested are dropped when they are serialized.
+ * The requested names are checked against the properties the type serializes,
+ * so that an unknown one is rejected whether or not the page has rows.
+ */
+@Component
+public class SparseFields {
+
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, Set<String>> propertiesByType = new ConcurrentHashMap<>();
+
+    public SparseFields(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Keeps only the requested properties of an entity.
+     *
+     * @param value  the entity to return
+     * @param fields comma-separated property names, or null or blank for all of them
+     * @return the entity itself, or a JSON object holding only the requested properties
+     * @throws ResponseStatusException with status 400 if a requested property does not exist
+     */
+    public Object select(Object value, String fields) {
+        Set<String> names = parse(value.getClass(), fields);
+        return names.isEmpty() ? value : select(value, names);
+    }
+
+    /**
+     * Keeps only the requested properties of each entity of a page.
+     *
+     * @param page   the page of entities to return
+     * @param type   the type of the entities, whose properties can be requested
+     * @param fields comma-separated property names, or null or blank for all of them
+     * @return the page with its entities, or with JSON objects holding only the requested properties
+     * @throws ResponseStatusException with status 400 if a requested property does not exist
+     */
+    public ApiPage<Object> page(Page<?> page, Class<?> type, String fields) {
+        Set<String> names = parse(type, fields);
+        List<Object> content = names.isEmpty()
+                ? List.copyOf(page.getContent())
+                : page.getContent().stream().<Object>map(value -> select(value, names)).toList();
+        return ApiPage.of(page, content);
+    }
+
+    private ObjectNode select(Object value, Set<String> names) {
+        ObjectNode node = objectMapper.valueToTree(value);
+        return node.retain(names);
+    }
+
+    private Set<String> parse(Class<?> type, String fields) {
+        if (fields == null || fields.isBlank()) {
+            return Set.of();
+        }
+        Set<String> names = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<String> properties = propertiesByType.computeIfAbsent(type, this::serializedProperties);
+        for (String name : names) {
+            if (!properties.contains(name)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown field: " + name);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Lists the JSON names of the properties Jackson writes for a type, leaving out the write-only ones.
+     */
+    private Set<String> serializedProperties(Class<?> type) {
+        SerializationConfig config = objectMapper.getSerializationConfig();
+        return config.introspect(config.constructType(type)).findProperties().stream()
+                .filter(BeanPropertyDefinition::couldSerialize)
+                .map(BeanPropertyDefinition::getName)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
@@ -0,0 +1,120 @@
+package com.nnk.springboot.controllers.api;
+
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.services.TradeService;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * REST API for trades.
+ * Listings are paged with the page, size and sort parameters,
+ * and the fields parameter restricts the returned properties.
+ */
+@RestController
+@RequestMapping("api/v1/trades")
+public class TradeApiController {
+
+    private final TradeService tradeService;
+    private final SparseFields sparseFields;
+
+    public TradeApiController(TradeService tradeService, SparseFields sparseFields) {
+        this.tradeService = tradeService;
+        this.sparseFields = sparseFields;
+    }
+
+    /**
+     * Lists one page of trades, ordered by id unless another sort is requested.
+     *
+     * @param pageable the page number, size and sort order
+     * @param fields   comma-separated properties to return, all of them if absent
+     * @return the page of trades
+     */
+    @GetMapping
+    public ApiPage<Object> list(@SortDefault("tradeId") Pageable pageable,
+                                @RequestParam(value = "fields", required = false) String fields) {
+        return sparseFields.page(tradeService.findAll(pageable), Trade.class, fields);
+    }
+
+    /**
+     * Fetches a specific trade.
+     *
+     * @param id     the ID of the trade
+     * @param fields comma-separated properties to return, all of them if absent
+     * @return the trade
+     * @throws ResponseStatusException with status 404 if no trade has this id
+     */
+    @GetMapping("{id}")
+    public Object get(@PathVariable("id") Integer id,
+                      @RequestParam(value = "fields", required = false) String fields) {
+        return sparseFields.select(findById(id), fields);
+    }
+
+    /**
+     * Validates and saves a new trade.
+     *
+     * @param trade the trade to be added, any id and version are ignored
+     * @param uriBuilder to build the location of the new trade
+     * @return the saved trade, with status 201 and its location
+     */
+    @PostMapping
+    public ResponseEntity<Trade> create(@Valid @RequestBody Trade trade, UriComponentsBuilder uriBuilder) {
+        trade.setTradeId(null);
+        trade.setVersion(null);
+        Trade saved = tradeService.save(trade);
+        return ResponseEntity.created(uriBuilder.path("/api/v1/trades/{id}").build(saved.getTradeId()))
+                .body(saved);
+    }
+
+    /**
+     * Validates and replaces an existing trade, if it still has the version sent by the client.
+     *
+     * @param id     the ID of the trade to be updated
+     * @param trade  the updated trade, with the version it was read with
+     * @return the saved trade, with its new version
+     * @throws ResponseStatusException with status 400 if the version is missing,
+     *                                 404 if no trade has this id, or 409 if the trade was changed meanwhile
+     */
+    @PutMapping("{id}")
+    public Trade update(@PathVariable("id") Integer id, @Valid @RequestBody Trade trade) {
+        if (trade.getVersion() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The version of the trade is required");
+        }
+        trade.setTradeId(id);
+        try {
+            return tradeService.replace(trade);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Trade " + id + " was changed meanwhile");
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes a specific trade.
+     *
+     * @param id the ID of the trade to be deleted
+     * @throws ResponseStatusException with status 404 if no trade has this id
+     */
+    @DeleteMapping("{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void delete(@PathVariable("id") Integer id) {
+        if (!tradeService.deleteById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Invalid Trade Id: " + id);
+        }
+    }
+
+    private Trade findById(Integer id) {
+        try {
+            return tradeService.findById(id);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+}
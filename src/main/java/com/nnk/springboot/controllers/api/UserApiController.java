@@ -0,0 +1,109 @@
+package com.nnk.springboot.controllers.api;
+
+import com.nnk.springboot.domain.User;
+import com.nnk.springboot.services.UserService;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * REST API for users.
+ * Listings are paged with the page, size and sort parameters,
+ * and the fields parameter restricts the returned properties.
+ */
+@RestController
+@RequestMapping("api/v1/users")
+public class UserApiController {
+
+    private final UserService userService;
+    private final SparseFields sparseFields;
+
+    public UserApiController(UserService userService, SparseFields sparseFields) {
+        this.userService = userService;
+        this.sparseFields = sparseFields;
+    }
+
+    /**
+     * Lists one page of users, ordered by id unless another sort is requested.
+     *
+     * @param pageable the page number, size and sort order
+     * @param fields   comma-separated properties to return, all of them if absent
+     * @return the page of users
+     */
+    @GetMapping
+    public ApiPage<Object> list(@SortDefault("id") Pageable pageable,
+                                @RequestParam(value = "fields", required = false) String fields) {
+        return sparseFields.page(userService.findAll(pageable), User.class, fields);
+    }
+
+    /**
+     * Fetches a specific user.
+     *
+     * @param id     the ID of the user
+     * @param fields comma-separated properties to return, all of them if absent
+     * @return the user
+     * @throws ResponseStatusException with status 404 if no user has this id
+     */
+    @GetMapping("{id}")
+    public Object get(@PathVariable("id") Integer id,
+                      @RequestParam(value = "fields", required = false) String fields) {
+        return sparseFields.select(findById(id), fields);
+    }
+
+    /**
+     * Validates and saves a new user.
+     *
+     * @param user the user to be added, any id is ignored
+     * @param uriBuilder to build the location of the new user
+     * @return the saved user, with status 201 and its location
+     */
+    @PostMapping
+    public ResponseEntity<User> create(@Valid @RequestBody User user, UriComponentsBuilder uriBuilder) {
+        user.setId(null);
+        User saved = userService.save(user);
+        return ResponseEntity.created(uriBuilder.path("/api/v1/users/{id}").build(saved.getId()))
+                .body(saved);
+    }
+
+    /**
+     * Validates and replaces an existing user.
+     *
+     * @param id     the ID of the user to be updated
+     * @param user the updated user
+     * @return the saved user
+     * @throws ResponseStatusException with status 404 if no user has this id
+     */
+    @PutMapping("{id}")
+    public User update(@PathVariable("id") Integer id, @Valid @RequestBody User user) {
+        findById(id);
+        user.setId(id);
+        return userService.save(user);
+    }
+
+    /**
+     * Deletes a specific user.
+     *
+     * @param id the ID of the user to be deleted
+     * @throws ResponseStatusException with status 404 if no user has this id
+     */
+    @DeleteMapping("{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void delete(@PathVariable("id") Integer id) {
+        if (!userService.deleteById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Invalid User Id: " + id);
+        }
+    }
+
+    private User findById(Integer id) {
+        try {
+            return userService.findById(id);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+}
@@ -3,18 +3,26 @@ package com.nnk.springboot.domain;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.sql.Timestamp;
 
 @Entity
+@DynamicUpdate
 @Table(name = "bidlist")
 public class Bid {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "bidlist_id")
+    @TableGenerator(name = "bidlist_id", table = "id_generator", pkColumnName = "name",
+            valueColumnName = "next_val", pkColumnValue = "bidlist", allocationSize = 50)
     @Column(name="BidListId")
     private Integer bidListId;
 
+    @Version
+    @Column(name = "version")
+    private Integer version;
+
     @NotBlank(message = "Account is mandatory")
     @Column(name="account")
     private String account;
@@ -83,6 +91,14 @@ public class Bid {
         this.bidListId = bidListId;
     }
 
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
     public String getAccount() {
         return account;
     }
@@ -2,11 +2,16 @@ package com.nnk.springboot.domain;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.sql.Timestamp;
 
 @Entity
-@Table(name = "curvepoint")
+@Table(name = "curvepoint", indexes = @Index(name = "idx_curvepoint_curve_date_term",
+        columnList = "curveId, asOfDate, term"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "curvePoint")
 public class CurvePoint {
 
     @Id
@@ -3,18 +3,29 @@ package com.nnk.springboot.domain;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.sql.Timestamp;
 
 @Entity
-@Table(name = "trade")
+@DynamicUpdate
+@Table(name = "trade", indexes = {
+        @Index(name = "idx_trade_account_trade_date", columnList = "account, tradeDate"),
+        @Index(name = "idx_trade_book_trade_date", columnList = "book, tradeDate"),
+        @Index(name = "idx_trade_trade_date", columnList = "tradeDate")})
 public class Trade {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "trade_id")
+    @TableGenerator(name = "trade_id", table = "id_generator", pkColumnName = "name",
+            valueColumnName = "next_val", pkColumnValue = "trade", allocationSize = 50)
     @Column(name = "TradeId")
     private Integer tradeId;
 
+    @Version
+    @Column(name = "version")
+    private Integer version;
+
     @NotBlank(message = "Account is mandatory")
     private String account;
 
@@ -83,6 +94,14 @@ public class Trade {
         this.tradeId = tradeId;
     }
 
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
     public String getAccount() {
         return account;
     }
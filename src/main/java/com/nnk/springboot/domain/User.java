@@ -1,11 +1,12 @@
 package com.nnk.springboot.domain;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.nnk.springboot.config.ValidPassword;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = @UniqueConstraint(name = "uk_users_username", columnNames = "username"))
 public class User {
     @Id
     @GeneratedValue(strategy= GenerationType.IDENTITY)
@@ -13,6 +14,7 @@ public class User {
     @NotBlank(message = "Username is mandatory")
     private String username;
     @ValidPassword
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
     @NotBlank(message = "FullName is mandatory")
     private String fullname;
@@ -0,0 +1,7 @@
+package com.nnk.springboot.dto;
+
+/**
+ * The columns of a bid shown in the bid list.
+ */
+public record BidSummary(Integer bidListId, String account, String type, double bidQuantity) {
+}
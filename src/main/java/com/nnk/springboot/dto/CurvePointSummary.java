@@ -0,0 +1,7 @@
+package com.nnk.springboot.dto;
+
+/**
+ * The columns of a curve point shown in the curve point list.
+ */
+public record CurvePointSummary(Integer id, int curveId, double term, double value) {
+}
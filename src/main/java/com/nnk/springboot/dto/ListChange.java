@@ -0,0 +1,21 @@
+package com.nnk.springboot.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * A row of a list view that was saved or deleted, published once the change is committed.
+ *
+ * @param list the list the row belongs to: trade or bid
+ * @param id   the id of the row
+ * @param row  the displayed columns of the row, null if it was deleted
+ */
+public record ListChange(@JsonIgnore String list, Integer id, Object row) {
+
+    public static ListChange saved(String list, Integer id, Object row) {
+        return new ListChange(list, id, row);
+    }
+
+    public static ListChange deleted(String list, Integer id) {
+        return new ListChange(list, id, null);
+    }
+}
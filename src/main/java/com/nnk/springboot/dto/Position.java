@@ -0,0 +1,21 @@
+package com.nnk.springboot.dto;
+
+/**
+ * The running position of a security in an account of a book.
+ * Bought and sold amounts are matched at their average prices: the realized P&amp;L is the matched quantity
+ * times the difference between the average sell and buy prices, and the open quantity keeps the average
+ * price of its side.
+ *
+ * @param book           the book
+ * @param account        the account
+ * @param security       the security
+ * @param boughtQuantity total quantity bought
+ * @param soldQuantity   total quantity sold
+ * @param netQuantity    bought minus sold quantity, negative for a short position
+ * @param averagePrice   average price of the open quantity, 0 when flat
+ * @param realizedPnl    profit or loss of the matched quantity
+ * @param trades         number of trades of the position
+ */
+public record Position(String book, String account, String security, double boughtQuantity, double soldQuantity,
+                       double netQuantity, double averagePrice, double realizedPnl, int trades) {
+}
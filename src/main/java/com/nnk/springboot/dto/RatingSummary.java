@@ -0,0 +1,8 @@
+package com.nnk.springboot.dto;
+
+/**
+ * The columns of a rating shown in the rating list.
+ */
+public record RatingSummary(Integer id, String moodysRating, String sandPRating, String fitchRating,
+                            int orderNumber) {
+}
@@ -0,0 +1,7 @@
+package com.nnk.springboot.dto;
+
+/**
+ * A rule whose predicate a trade or a bid matches.
+ */
+public record RuleMatch(Integer id, String name) {
+}
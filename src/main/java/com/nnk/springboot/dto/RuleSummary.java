@@ -0,0 +1,8 @@
+package com.nnk.springboot.dto;
+
+/**
+ * The columns of a rule shown in the rule list.
+ */
+public record RuleSummary(Integer id, String name, String description, String json, String template,
+                          String sqlStr, String sqlPart) {
+}
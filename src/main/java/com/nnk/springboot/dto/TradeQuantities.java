@@ -0,0 +1,18 @@
+package com.nnk.springboot.dto;
+
+/**
+ * The columns of a trade that make up its position.
+ *
+ * @param tradeId      the id of the trade
+ * @param version      the version of the trade, to tell its latest state
+ * @param book         the book
+ * @param account      the account
+ * @param security     the security
+ * @param buyQuantity  quantity bought
+ * @param buyPrice     price of the bought quantity
+ * @param sellQuantity quantity sold
+ * @param sellPrice    price of the sold quantity
+ */
+public record TradeQuantities(Integer tradeId, Integer version, String book, String account, String security,
+                              double buyQuantity, double buyPrice, double sellQuantity, double sellPrice) {
+}
@@ -0,0 +1,7 @@
+package com.nnk.springboot.dto;
+
+/**
+ * The columns of a trade shown in the trade list.
+ */
+public record TradeSummary(Integer tradeId, String account, String type, double buyQuantity) {
+}
@@ -1,9 +1,82 @@
 package com.nnk.springboot.repositories;
 
 import com.nnk.springboot.domain.Bid;
+import com.nnk.springboot.dto.BidSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 
 public interface BidRepository extends JpaRepository<Bid, Integer> {
 
+    /**
+     * Keyset scrolling on the primary key: only the rows after the given id are read,
+     * so each page costs the same however deep the list is scrolled.
+     * Only the columns shown in the list view are read, into DTOs instead of managed entities,
+     * so no snapshot is kept for dirty checking.
+     *
+     * @param bidListId last id of the previous page, 0 for the first page
+     * @param pageable  carries the page size, the page number is always 0
+     * @return the next slice of bid summaries ordered by id
+     */
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new com.nnk.springboot.dto.BidSummary(b.bidListId, b.account, b.type, b.bidQuantity)"
+            + " from Bid b where b.bidListId > :bidListId order by b.bidListId")
+    Slice<BidSummary> findSummariesAfter(@Param("bidListId") Integer bidListId, Pageable pageable);
+
+    /**
+     * Deletes a bid in a single statement, without loading it first.
+     *
+     * @param id of the bid to delete
+     * @return the number of deleted rows, 0 when no bid has this id
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from Bid b where b.bidListId = :id")
+    int removeById(@Param("id") Integer id);
+
+    /**
+     * Updates the columns edited in the bid form in a single statement, without loading the bid first.
+     * The row is only updated if it still has the version the form was read with, and its version is incremented,
+     * so that a concurrent edit is detected instead of overwritten.
+     *
+     * @param bid the edited bid, with its id and the version it was read with
+     * @return 1 if the bid was updated, 0 if no bid has this id and version
+     */
+    @Transactional
+    @Modifying
+    @Query("update Bid b set b.account = :#{#bid.account}, b.type = :#{#bid.type},"
+            + " b.bidQuantity = :#{#bid.bidQuantity}, b.version = b.version + 1"
+            + " where b.bidListId = :#{#bid.bidListId} and b.version = :#{#bid.version}")
+    int updateIfUnchanged(@Param("bid") Bid bid);
+
+    /**
+     * Replaces all the columns of a bid in a single statement, under the same version check as
+     * {@link #updateIfUnchanged(Bid)}.
+     *
+     * @param bid the new state of the bid, with its id and the version it replaces
+     * @return 1 if the bid was replaced, 0 if no bid has this id and version
+     */
+    @Transactional
+    @Modifying
+    @Query("update Bid b set b.account = :#{#bid.account}, b.type = :#{#bid.type},"
+            + " b.bidQuantity = :#{#bid.bidQuantity}, b.askQuantity = :#{#bid.askQuantity},"
+            + " b.bid = :#{#bid.bid}, b.ask = :#{#bid.ask}, b.benchmark = :#{#bid.benchmark},"
+            + " b.bidListDate = :#{#bid.bidListDate}, b.commentary = :#{#bid.commentary},"
+            + " b.security = :#{#bid.security}, b.status = :#{#bid.status},"
+            + " b.trader = :#{#bid.trader}, b.book = :#{#bid.book},"
+            + " b.creationName = :#{#bid.creationName}, b.creationDate = :#{#bid.creationDate},"
+            + " b.revisionName = :#{#bid.revisionName}, b.revisionDate = :#{#bid.revisionDate},"
+            + " b.dealName = :#{#bid.dealName}, b.dealType = :#{#bid.dealType},"
+            + " b.sourceListId = :#{#bid.sourceListId}, b.side = :#{#bid.side}, b.version = b.version + 1"
+            + " where b.bidListId = :#{#bid.bidListId} and b.version = :#{#bid.version}")
+    int replaceIfUnchanged(@Param("bid") Bid bid);
 }
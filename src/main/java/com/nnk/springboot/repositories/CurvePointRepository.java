@@ -1,9 +1,96 @@
 package com.nnk.springboot.repositories;
 
 import com.nnk.springboot.domain.CurvePoint;
+import com.nnk.springboot.dto.CurvePointSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
 
 
 public interface CurvePointRepository extends JpaRepository<CurvePoint, Integer> {
 
+    /**
+     * Deletes a curvePoint in a single statement, without loading it first.
+     *
+     * @param id of the curvePoint to delete
+     * @return the number of deleted rows, 0 when no curvePoint has this id
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from CurvePoint c where c.id = :id")
+    int removeById(@Param("id") Integer id);
+
+    /**
+     * Lists the columns of the curve points shown in the list view, ordered by id.
+     * Rows are read into DTOs instead of managed entities, so no snapshot is kept for dirty checking.
+     * The result is kept in the query cache until the table is written to.
+     *
+     * @return the summaries of all curve points
+     */
+    @Transactional(readOnly = true)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "curvePoint-list")})
+    @Query("select new com.nnk.springboot.dto.CurvePointSummary(c.id, c.curveId, c.term, c.value)"
+            + " from CurvePoint c order by c.id")
+    List<CurvePointSummary> findAllSummaries();
+
+    /**
+     * Lists the points of one curve, ordered by term.
+     * Served by the (curveId, asOfDate, term) index, without sorting.
+     *
+     * @param curveId  the curve id
+     * @param asOfDate the as-of date of the curve
+     * @return the points of the curve
+     */
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<CurvePoint> findByCurveIdAndAsOfDateOrderByTermAsc(int curveId, Timestamp asOfDate);
+
+    /**
+     * Lists the points of one curve that have no as-of date, ordered by term.
+     *
+     * @param curveId the curve id
+     * @return the points of the curve
+     */
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<CurvePoint> findByCurveIdAndAsOfDateIsNullOrderByTermAsc(int curveId);
+
+    /**
+     * Lists the id, term and value of the points of one curve, ordered by term.
+     * Served by the (curveId, asOfDate, term) index, without sorting.
+     *
+     * @param curveId  the curve id
+     * @param asOfDate the as-of date of the curve
+     * @return the points of the curve
+     */
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new com.nnk.springboot.dto.CurvePointSummary(c.id, c.curveId, c.term, c.value)"
+            + " from CurvePoint c where c.curveId = :curveId and c.asOfDate = :asOfDate"
+            + " order by c.term, c.id")
+    List<CurvePointSummary> findCurve(@Param("curveId") int curveId, @Param("asOfDate") Timestamp asOfDate);
+
+    /**
+     * Lists the id, term and value of the points of one curve that have no as-of date, ordered by term.
+     *
+     * @param curveId the curve id
+     * @return the points of the curve
+     */
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new com.nnk.springboot.dto.CurvePointSummary(c.id, c.curveId, c.term, c.value)"
+            + " from CurvePoint c where c.curveId = :curveId and c.asOfDate is null"
+            + " order by c.term, c.id")
+    List<CurvePointSummary> findCurveWithoutDate(@Param("curveId") int curveId);
 }
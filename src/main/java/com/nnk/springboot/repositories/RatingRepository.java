@@ -1,8 +1,45 @@
 package com.nnk.springboot.repositories;
 
 import com.nnk.springboot.domain.Rating;
+import com.nnk.springboot.dto.RatingSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
 
 public interface RatingRepository extends JpaRepository<Rating, Integer> {
 
+    /**
+     * Deletes a rating in a single statement, without loading it first.
+     *
+     * @param id of the rating to delete
+     * @return the number of deleted rows, 0 when no rating has this id
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from Rating r where r.id = :id")
+    int removeById(@Param("id") Integer id);
+
+    /**
+     * Lists the columns of the ratings shown in the list view, ordered by id.
+     * Rows are read into DTOs instead of managed entities, so no snapshot is kept for dirty checking.
+     * The result is kept in the query cache until the table is written to.
+     *
+     * @return the summaries of all ratings
+     */
+    @Transactional(readOnly = true)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "rating-list")})
+    @Query("select new com.nnk.springboot.dto.RatingSummary(r.id, r.moodysRating, r.sandPRating, r.fitchRating, r.orderNumber)"
+            + " from Rating r order by r.id")
+    List<RatingSummary> findAllSummaries();
 }
@@ -1,8 +1,141 @@
 package com.nnk.springboot.repositories;
 
 import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.dto.TradeQuantities;
+import com.nnk.springboot.dto.TradeSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 
 public interface TradeRepository extends JpaRepository<Trade, Integer> {
+
+    /**
+     * Deletes a trade in a single statement, without loading it first.
+     *
+     * @param id of the trade to delete
+     * @return the number of deleted rows, 0 when no trade has this id
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from Trade t where t.tradeId = :id")
+    int removeById(@Param("id") Integer id);
+
+    /**
+     * Updates the columns edited in the trade form in a single statement, without loading the trade first.
+     * The row is only updated if it still has the version the form was read with, and its version is incremented,
+     * so that a concurrent edit is detected instead of overwritten.
+     *
+     * @param trade the edited trade, with its id and the version it was read with
+     * @return 1 if the trade was updated, 0 if no trade has this id and version
+     */
+    @Transactional
+    @Modifying
+    @Query("update Trade t set t.account = :#{#trade.account}, t.type = :#{#trade.type},"
+            + " t.buyQuantity = :#{#trade.buyQuantity}, t.version = t.version + 1"
+            + " where t.tradeId = :#{#trade.tradeId} and t.version = :#{#trade.version}")
+    int updateIfUnchanged(@Param("trade") Trade trade);
+
+    /**
+     * Replaces all the columns of a trade in a single statement, under the same version check as
+     * {@link #updateIfUnchanged(Trade)}.
+     *
+     * @param trade the new state of the trade, with its id and the version it replaces
+     * @return 1 if the trade was replaced, 0 if no trade has this id and version
+     */
+    @Transactional
+    @Modifying
+    @Query("update Trade t set t.account = :#{#trade.account}, t.type = :#{#trade.type},"
+            + " t.buyQuantity = :#{#trade.buyQuantity},"
+            + " t.sellQuantity = :#{#trade.sellQuantity}, t.buyPrice = :#{#trade.buyPrice},"
+            + " t.sellPrice = :#{#trade.sellPrice}, t.tradeDate = :#{#trade.tradeDate},"
+            + " t.security = :#{#trade.security}, t.status = :#{#trade.status},"
+            + " t.trader = :#{#trade.trader}, t.benchmark = :#{#trade.benchmark},"
+            + " t.book = :#{#trade.book}, t.creationName = :#{#trade.creationName},"
+            + " t.creationDate = :#{#trade.creationDate},"
+            + " t.revisionName = :#{#trade.revisionName},"
+            + " t.revisionDate = :#{#trade.revisionDate}, t.dealName = :#{#trade.dealName},"
+            + " t.dealType = :#{#trade.dealType}, t.sourceListId = :#{#trade.sourceListId},"
+            + " t.side = :#{#trade.side}, t.version = t.version + 1"
+            + " where t.tradeId = :#{#trade.tradeId} and t.version = :#{#trade.version}")
+    int replaceIfUnchanged(@Param("trade") Trade trade);
+
+    /**
+     * Streams the trades matching the optional filters, ordered by id.
+     * Rows are fetched from a server-side cursor in blocks of the fetch size
+     * and loaded read-only; the stream must be consumed inside a transaction and closed.
+     *
+     * @param account only trades of this account, or null for all
+     * @param book    only trades of this book, or null for all
+     * @param from    only trades dated at or after this instant, or null
+     * @param to      only trades dated before this instant, or null
+     * @return a lazily fetched stream of trades
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select t from Trade t"
+            + " where (:account is null or t.account = :account)"
+            + " and (:book is null or t.book = :book)"
+            + " and (:from is null or t.tradeDate >= :from)"
+            + " and (:to is null or t.tradeDate < :to)"
+            + " order by t.tradeId")
+    Stream<Trade> streamAll(@Param("account") String account,
+                            @Param("book") String book,
+                            @Param("from") Timestamp from,
+                            @Param("to") Timestamp to);
+
+    /**
+     * Lists the columns of the trades shown in the list view, ordered by id.
+     * Rows are read into DTOs instead of managed entities, so no snapshot is kept for dirty checking.
+     *
+     * @return the summaries of all trades
+     */
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new com.nnk.springboot.dto.TradeSummary(t.tradeId, t.account, t.type, t.buyQuantity)"
+            + " from Trade t order by t.tradeId")
+    List<TradeSummary> findAllSummaries();
+
+    /**
+     * Streams the columns making up the positions of the trades in a range of ids.
+     * Rows are fetched from a server-side cursor in blocks of the fetch size;
+     * the stream must be consumed inside a transaction and closed.
+     *
+     * @param from the first id of the range
+     * @param to   the id following the range
+     * @return a lazily fetched stream of trade quantities
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select new com.nnk.springboot.dto.TradeQuantities(t.tradeId, t.version, t.book, t.account, t.security,"
+            + " t.buyQuantity, t.buyPrice, t.sellQuantity, t.sellPrice)"
+            + " from Trade t where t.tradeId >= :from and t.tradeId < :to")
+    Stream<TradeQuantities> streamQuantities(@Param("from") int from, @Param("to") int to);
+
+    /**
+     * @param id the id of the trade
+     * @return the columns making up the position of the trade, empty if it does not exist
+     */
+    @Query("select new com.nnk.springboot.dto.TradeQuantities(t.tradeId, t.version, t.book, t.account, t.security,"
+            + " t.buyQuantity, t.buyPrice, t.sellQuantity, t.sellPrice)"
+            + " from Trade t where t.tradeId = :id")
+    Optional<TradeQuantities> findQuantitiesById(@Param("id") int id);
+
+    /**
+     * @return the highest trade id, 0 when there is no trade
+     */
+    @Query("select coalesce(max(t.tradeId), 0) from Trade t")
+    int findMaxTradeId();
 }
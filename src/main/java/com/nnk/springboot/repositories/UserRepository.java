@@ -3,8 +3,10 @@ package com.nnk.springboot.repositories;
 import com.nnk.springboot.domain.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -12,4 +14,27 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Integer>, JpaSpecificationExecutor<User> {
 
     Optional<User> findByUsername(String username);
+
+    /**
+     * Deletes a user in a single statement, without loading it first.
+     *
+     * @param id of the user to delete
+     * @return the number of deleted rows, 0 when no user has this id
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from User u where u.id = :id")
+    int removeById(@Param("id") Integer id);
+
+    /**
+     * Replaces the password hash of a user in a single statement.
+     *
+     * @param username identifying the user
+     * @param password the new encoded password
+     * @return the number of updated rows, 0 when no user has this username
+     */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :password where u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
 }
@@ -1,26 +1,107 @@
 package com.nnk.springboot.services;
 
 import com.nnk.springboot.domain.Bid;
+import com.nnk.springboot.dto.BidSummary;
+import com.nnk.springboot.dto.ListChange;
 import com.nnk.springboot.repositories.BidRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
 @Service
+@Timed("service.calls")
 public class BidService {
 
     private final BidRepository bidRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TableVersions tableVersions;
+    private final int pageSize;
 
-    public BidService(BidRepository bidRepository) {
+    public BidService(BidRepository bidRepository, ApplicationEventPublisher eventPublisher,
+                      TableVersions tableVersions, @Value("${bid.list.page-size:50}") int pageSize) {
         this.bidRepository = bidRepository;
+        this.eventPublisher = eventPublisher;
+        this.tableVersions = tableVersions;
+        this.pageSize = pageSize;
     }
 
     public List<Bid> findAll() {
         return bidRepository.findAll();
     }
 
+    /**
+     * Fetches one page of bids.
+     *
+     * @param pageable the page number, size and sort order
+     * @return the requested page with the total number of bids
+     */
+    public Page<Bid> findAll(Pageable pageable) {
+        return bidRepository.findAll(pageable);
+    }
+
+    /**
+     * Fetches the page of bids following the given cursor.
+     *
+     * @param after id of the last bid already displayed, null for the first page
+     * @return a slice of at most the configured page size, with only the displayed columns
+     */
+    public Slice<BidSummary> findPage(Integer after) {
+        return bidRepository.findSummariesAfter(
+                after == null ? 0 : after, PageRequest.ofSize(pageSize));
+    }
+
     public Bid save(Bid bid) {
-        return bidRepository.save(bid);
+        return published(bidRepository.save(bid));
+    }
+
+    /**
+     * Saves the account, type and quantity of a bid edited in the form, in a single conditional statement.
+     *
+     * @param bid the edited bid, with the version it was read with
+     * @return the bid, with its new version
+     * @throws ObjectOptimisticLockingFailureException if the bid was changed since it was read
+     * @throws IllegalArgumentException if no bid has this id
+     */
+    public Bid update(Bid bid) {
+        return checkUpdated(bidRepository.updateIfUnchanged(bid), bid);
+    }
+
+    /**
+     * Replaces all the fields of a bid, in a single conditional statement.
+     *
+     * @param bid the new state of the bid, with the version it replaces
+     * @return the bid, with its new version
+     * @throws ObjectOptimisticLockingFailureException if the bid was changed since it was read
+     * @throws IllegalArgumentException if no bid has this id
+     */
+    public Bid replace(Bid bid) {
+        return checkUpdated(bidRepository.replaceIfUnchanged(bid), bid);
+    }
+
+    private Bid checkUpdated(int updated, Bid bid) {
+        if (updated == 0) {
+            if (!bidRepository.existsById(bid.getBidListId())) {
+                throw new IllegalArgumentException("Invalid Bid Id: " + bid.getBidListId());
+            }
+            throw new ObjectOptimisticLockingFailureException(Bid.class, bid.getBidListId());
+        }
+        bid.setVersion(bid.getVersion() + 1);
+        return published(bid);
+    }
+
+    private Bid published(Bid bid) {
+        tableVersions.bump(Bid.class);
+        eventPublisher.publishEvent(ListChange.saved("bid", bid.getBidListId(),
+                new BidSummary(bid.getBidListId(), bid.getAccount(), bid.getType(), bid.getBidQuantity())));
+        return bid;
     }
 
     public Bid findById(Integer id) {
@@ -30,5 +111,22 @@ public class BidService {
 
     public void delete(Bid bid) {
         bidRepository.delete(bid);
+        tableVersions.bump(Bid.class);
+        eventPublisher.publishEvent(ListChange.deleted("bid", bid.getBidListId()));
+    }
+
+    /**
+     * Deletes a bid by id with a single statement.
+     *
+     * @param id of the bid to delete
+     * @return true if a bid was deleted, false if none had this id
+     */
+    public boolean deleteById(Integer id) {
+        if (bidRepository.removeById(id) == 0) {
+            return false;
+        }
+        tableVersions.bump(Bid.class);
+        eventPublisher.publishEvent(ListChange.deleted("bid", id));
+        return true;
     }
 }
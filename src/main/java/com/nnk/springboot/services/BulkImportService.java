@@ -0,0 +1,320 @@
+package com.nnk.springboot.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Streams CSV or NDJSON files into the database.
+ * Rows are read one line at a time, validated with the entity constraints
+ * and persisted in JDBC batches, each batch in its own transaction.
+ * A batch rejected by the database is persisted again row by row, so that only its bad rows
+ * are rejected and reported with their line.
+ * Memory stays bounded by the batch size, the maximum line length and the number of reported errors,
+ * whatever the size of the file: longer lines are rejected without being kept.
+ */
+@Service
+public class BulkImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportService.class);
+
+    public static final String TEXT_CSV = "text/csv";
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    /**
+     * Supported input formats.
+     * CSV files start with a header line naming the entity properties,
+     * NDJSON files hold one JSON object per line.
+     */
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format fromMediaType(MediaType mediaType) {
+            if (MediaType.valueOf(TEXT_CSV).isCompatibleWith(mediaType)) {
+                return CSV;
+            }
+            if (MediaType.valueOf(APPLICATION_NDJSON).isCompatibleWith(mediaType)) {
+                return NDJSON;
+            }
+            throw new IllegalArgumentException("Unsupported import format: " + mediaType);
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TableVersions tableVersions;
+    private final int batchSize;
+    private final int maxReportedErrors;
+    private final int maxLineLength;
+
+    public BulkImportService(ObjectMapper objectMapper,
+                             Validator validator,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             TableVersions tableVersions,
+                             @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize,
+                             @Value("${import.max-reported-errors:1000}") int maxReportedErrors,
+                             @Value("${import.max-line-length:65536}") int maxLineLength) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tableVersions = tableVersions;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * Imports every row of the input as a new entity.
+     *
+     * @param input   the file content, read until the end
+     * @param format  CSV or NDJSON
+     * @param type    the entity class each row is mapped to
+     * @param clearId resets the id read from the file, so that rows are always inserted
+     * @return the number of imported rows and the errors of the rejected ones
+     * @throws IOException if the input cannot be read
+     */
+    public <T> ImportReport importRows(InputStream input, Format format, Class<T> type, Consumer<T> clearId)
+            throws IOException {
+        ImportReport report = new ImportReport(maxReportedErrors);
+        List<Row<T>> batch = new ArrayList<>(batchSize);
+        try (LineReader reader = new LineReader(new InputStreamReader(input, StandardCharsets.UTF_8), maxLineLength)) {
+            String[] header = null;
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (reader.isTooLong()) {
+                    report.reject(lineNumber, "Line longer than " + maxLineLength + " characters");
+                    continue;
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && header == null) {
+                    header = parseCsvLine(line).toArray(String[]::new);
+                    continue;
+                }
+                T row;
+                try {
+                    row = format == Format.CSV
+                            ? objectMapper.convertValue(toMap(header, parseCsvLine(line)), type)
+                            : objectMapper.readValue(line, type);
+                } catch (JsonProcessingException e) {
+                    report.reject(lineNumber, "Unreadable row: " + e.getOriginalMessage());
+                    continue;
+                } catch (IllegalArgumentException e) {
+                    report.reject(lineNumber, "Unreadable row: " + (e.getCause() instanceof JsonProcessingException cause
+                            ? cause.getOriginalMessage() : e.getMessage()));
+                    continue;
+                }
+                Set<ConstraintViolation<T>> violations = validator.validate(row);
+                if (!violations.isEmpty()) {
+                    report.reject(lineNumber, violations.stream()
+                            .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                            .sorted()
+                            .collect(Collectors.joining(", ")));
+                    continue;
+                }
+                clearId.accept(row);
+                batch.add(new Row<>(lineNumber, row));
+                if (batch.size() == batchSize) {
+                    flush(batch, clearId, report);
+                }
+            }
+        }
+        flush(batch, clearId, report);
+        logger.info("Imported {} {} rows, rejected {}", report.getImported(), type.getSimpleName(), report.getRejected());
+        return report;
+    }
+
+    /**
+     * Persists one batch in its own transaction, then detaches it so that
+     * the persistence context does not grow with the file. The list of the table changes with each batch.
+     * If the database rejects the batch, such as for a value too long for its column, the batch is rolled back
+     * and its rows are persisted again one by one, each in its own transaction.
+     */
+    private <T> void flush(List<Row<T>> batch, Consumer<T> clearId, ImportReport report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            persist(batch);
+            report.imported(batch.size());
+        } catch (DataAccessException | PersistenceException e) {
+            logger.info("Import batch of lines {} to {} rejected, retrying row by row", batch.get(0).line(),
+                    batch.get(batch.size() - 1).line());
+            for (Row<T> row : batch) {
+                // the rolled back persist left an id on the entity
+                clearId.accept(row.entity());
+                try {
+                    persist(List.of(row));
+                    report.imported(1);
+                } catch (DataAccessException | PersistenceException rowError) {
+                    report.reject(row.line(), "Rejected by the database: "
+                            + NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                }
+            }
+        }
+        tableVersions.bump(batch.get(0).entity().getClass());
+        batch.clear();
+    }
+
+    private <T> void persist(List<Row<T>> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                rows.forEach(row -> entityManager.persist(row.entity()));
+                entityManager.flush();
+            } finally {
+                entityManager.clear();
+            }
+        });
+    }
+
+    private static Map<String, String> toMap(String[] header, List<String> values) {
+        if (values.size() != header.length) {
+            throw new IllegalArgumentException(
+                    "Expected " + header.length + " columns but found " + values.size());
+        }
+        Map<String, String> row = new LinkedHashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            if (!values.get(i).isEmpty()) {
+                row.put(header[i].trim(), values.get(i));
+            }
+        }
+        return row;
+    }
+
+    /**
+     * An entity read from the file, with its line number for the report.
+     */
+    private record Row<T>(long line, T entity) {
+    }
+
+    /**
+     * Reads the lines of a file, ended by LF, CR or CRLF, keeping at most the maximum length of each.
+     * The rest of a longer line is read and dropped, and the line is flagged as too long.
+     */
+    private static final class LineReader implements AutoCloseable {
+
+        private final Reader reader;
+        private final int maxLength;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+        private boolean skipLineFeed;
+        private boolean tooLong;
+
+        private LineReader(Reader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        /**
+         * @return the next line, truncated if it is too long, or null at the end of the file
+         */
+        private String readLine() throws IOException {
+            line.setLength(0);
+            tooLong = false;
+            boolean read = false;
+            while (true) {
+                if (position == limit) {
+                    limit = reader.read(buffer, 0, buffer.length);
+                    position = 0;
+                    if (limit < 0) {
+                        limit = 0;
+                        return read ? line.toString() : null;
+                    }
+                    continue;
+                }
+                char c = buffer[position++];
+                if (skipLineFeed) {
+                    skipLineFeed = false;
+                    if (c == '\n') {
+                        continue;
+                    }
+                }
+                if (c == '\n' || c == '\r') {
+                    skipLineFeed = c == '\r';
+                    return line.toString();
+                }
+                read = true;
+                if (line.length() < maxLength) {
+                    line.append(c);
+                } else {
+                    tooLong = true;
+                }
+            }
+        }
+
+        private boolean isTooLong() {
+            return tooLong;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * Splits a CSV line on commas, honouring double-quoted fields
+     * and doubled quotes inside them. Fields cannot span several lines.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
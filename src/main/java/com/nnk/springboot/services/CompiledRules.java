@@ -0,0 +1,377 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.dto.RuleMatch;
+import com.nnk.springboot.services.RuleCondition.And;
+import com.nnk.springboot.services.RuleCondition.Compare;
+import com.nnk.springboot.services.RuleCondition.Not;
+import com.nnk.springboot.services.RuleCondition.Or;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Pattern;
+
+/**
+ * The predicates of a set of rules, compiled against the fields of trades or bids.
+ * <p>
+ * Each distinct condition becomes a single node, with its field getter and constant bound in a lambda,
+ * so that a condition shared by several rules, or repeated in one, is evaluated at most once per row:
+ * the result of every node is kept in a per-evaluation array. AND and OR stop at the first condition
+ * deciding them.
+ * <p>
+ * A comparison with a null text is false, as in a WHERE clause, but unlike SQL its negation is true.
+ * Texts are compared ignoring case, as the case-insensitive collation of the tables does, so that the rules
+ * match the same rows here as their SQL does; unlike the collation, accents are not ignored.
+ * Instances are immutable and can be shared between threads.
+ *
+ * @param <T> Trade or Bid
+ */
+public final class CompiledRules<T> {
+
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+
+    private final RuleMatch[] rules;
+    private final Node<T>[] roots;
+    private final int nodes;
+
+    private CompiledRules(RuleMatch[] rules, Node<T>[] roots, int nodes) {
+        this.rules = rules;
+        this.roots = roots;
+        this.nodes = nodes;
+    }
+
+    /**
+     * @param fields the fields the rules can test
+     * @param <T>    Trade or Bid
+     * @return a builder of compiled rules
+     */
+    public static <T> Builder<T> builder(RuleFields<T> fields) {
+        return new Builder<>(fields);
+    }
+
+    /**
+     * Evaluates all the rules against a row.
+     *
+     * @param row the trade or bid
+     * @return the rules it matches, in the order they were added
+     */
+    public List<RuleMatch> matches(T row) {
+        byte[] results = new byte[nodes];
+        List<RuleMatch> matched = new ArrayList<>();
+        for (int i = 0; i < roots.length; i++) {
+            if (roots[i].test(row, results)) {
+                matched.add(rules[i]);
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * @return the number of compiled rules
+     */
+    public int size() {
+        return roots.length;
+    }
+
+    /**
+     * @return the number of distinct conditions of the rules
+     */
+    public int conditions() {
+        return nodes;
+    }
+
+    /**
+     * Compiles rules one at a time, sharing their equal conditions.
+     *
+     * @param <T> Trade or Bid
+     */
+    public static final class Builder<T> {
+
+        private final RuleFields<T> fields;
+        private final Map<RuleCondition, Node<T>> nodes = new HashMap<>();
+        private final List<RuleMatch> rules = new ArrayList<>();
+        private final List<Node<T>> roots = new ArrayList<>();
+
+        private Builder(RuleFields<T> fields) {
+            this.fields = fields;
+        }
+
+        /**
+         * Compiles the predicate of a rule.
+         *
+         * @param rule      the rule
+         * @param condition its predicate
+         * @throws IllegalArgumentException if the predicate tests a field that does not exist, or compares it
+         *                                  to a value of another type; the rule is then not added
+         */
+        public Builder<T> add(RuleMatch rule, RuleCondition condition) {
+            Map<RuleCondition, Node<T>> added = new HashMap<>();
+            Node<T> root = compile(condition, added);
+            nodes.putAll(added);
+            rules.add(rule);
+            roots.add(root);
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public CompiledRules<T> build() {
+            return new CompiledRules<>(rules.toArray(RuleMatch[]::new), roots.toArray(Node[]::new), nodes.size());
+        }
+
+        private Node<T> compile(RuleCondition condition, Map<RuleCondition, Node<T>> added) {
+            Node<T> node = nodes.get(condition);
+            if (node == null) {
+                node = added.get(condition);
+            }
+            if (node != null) {
+                return node;
+            }
+            // the children are compiled first, so that a slot is only taken by a node once it is complete
+            if (condition instanceof And and) {
+                Node<T>[] children = compileAll(and.conditions(), added);
+                node = new AndNode<>(slot(added), children);
+            } else if (condition instanceof Or or) {
+                Node<T>[] children = compileAll(or.conditions(), added);
+                node = new OrNode<>(slot(added), children);
+            } else if (condition instanceof Not not) {
+                Node<T> child = compile(not.condition(), added);
+                node = new NotNode<>(slot(added), child);
+            } else {
+                node = new LeafNode<>(slot(added), predicate((Compare) condition));
+            }
+            added.put(condition, node);
+            return node;
+        }
+
+        private int slot(Map<RuleCondition, Node<T>> added) {
+            return nodes.size() + added.size();
+        }
+
+        @SuppressWarnings("unchecked")
+        private Node<T>[] compileAll(List<RuleCondition> conditions, Map<RuleCondition, Node<T>> added) {
+            Node<T>[] children = new Node[conditions.size()];
+            for (int i = 0; i < children.length; i++) {
+                children[i] = compile(conditions.get(i), added);
+            }
+            return children;
+        }
+
+        private Predicate<T> predicate(Compare compare) {
+            ToDoubleFunction<T> number = fields.number(compare.field());
+            if (number != null) {
+                return numberPredicate(compare, number);
+            }
+            Function<T, String> text = fields.text(compare.field());
+            if (text != null) {
+                return textPredicate(compare, text);
+            }
+            throw new IllegalArgumentException("Unknown field " + compare.field());
+        }
+
+        private Predicate<T> numberPredicate(Compare compare, ToDoubleFunction<T> getter) {
+            switch (compare.operator()) {
+                case IS_NULL:
+                    return row -> false;
+                case IS_NOT_NULL:
+                    return row -> true;
+                case IN:
+                    double[] values = ((List<?>) compare.value()).stream()
+                            .mapToDouble(value -> number(compare, value)).sorted().toArray();
+                    return row -> Arrays.binarySearch(values, getter.applyAsDouble(row)) >= 0;
+                case LIKE:
+                    throw new IllegalArgumentException(compare.field() + " is a number, it cannot be LIKE a text");
+                default:
+                    break;
+            }
+            double value = number(compare, compare.value());
+            return switch (compare.operator()) {
+                case EQ -> row -> getter.applyAsDouble(row) == value;
+                case NE -> row -> getter.applyAsDouble(row) != value;
+                case LT -> row -> getter.applyAsDouble(row) < value;
+                case LE -> row -> getter.applyAsDouble(row) <= value;
+                case GT -> row -> getter.applyAsDouble(row) > value;
+                case GE -> row -> getter.applyAsDouble(row) >= value;
+                default -> throw new IllegalStateException(compare.operator().name());
+            };
+        }
+
+        private Predicate<T> textPredicate(Compare compare, Function<T, String> getter) {
+            switch (compare.operator()) {
+                case IS_NULL:
+                    return row -> getter.apply(row) == null;
+                case IS_NOT_NULL:
+                    return row -> getter.apply(row) != null;
+                case IN:
+                    Set<String> values = new HashSet<>();
+                    ((List<?>) compare.value()).forEach(value -> values.add(lowerCase(text(compare, value))));
+                    return row -> {
+                        String text = getter.apply(row);
+                        return text != null && values.contains(lowerCase(text));
+                    };
+                case LIKE:
+                    Pattern pattern = like(text(compare, compare.value()));
+                    return row -> {
+                        String text = getter.apply(row);
+                        return text != null && pattern.matcher(text).matches();
+                    };
+                default:
+                    break;
+            }
+            String value = text(compare, compare.value());
+            return switch (compare.operator()) {
+                case EQ -> row -> value.equalsIgnoreCase(getter.apply(row));
+                case NE -> compared(getter, value, order -> order != 0);
+                case LT -> compared(getter, value, order -> order < 0);
+                case LE -> compared(getter, value, order -> order <= 0);
+                case GT -> compared(getter, value, order -> order > 0);
+                case GE -> compared(getter, value, order -> order >= 0);
+                default -> throw new IllegalStateException(compare.operator().name());
+            };
+        }
+
+        /**
+         * Compares the text of a row to a value ignoring case, false when the row has no text.
+         */
+        private static <T> Predicate<T> compared(Function<T, String> getter, String value, IntPredicate order) {
+            return row -> {
+                String text = getter.apply(row);
+                return text != null && order.test(String.CASE_INSENSITIVE_ORDER.compare(text, value));
+            };
+        }
+
+        private static double number(Compare compare, Object value) {
+            if (value instanceof Double number) {
+                return number;
+            }
+            throw new IllegalArgumentException(compare.field() + " is a number, it cannot be compared to " + value);
+        }
+
+        private static String text(Compare compare, Object value) {
+            if (value instanceof String text) {
+                return text;
+            }
+            throw new IllegalArgumentException(compare.field() + " is a text, it cannot be compared to " + value);
+        }
+
+        private static String lowerCase(String text) {
+            return text.toLowerCase(Locale.ROOT);
+        }
+
+        private static Pattern like(String pattern) {
+            StringBuilder regex = new StringBuilder();
+            StringBuilder literal = new StringBuilder();
+            for (char c : pattern.toCharArray()) {
+                if (c == '%' || c == '_') {
+                    regex.append(Pattern.quote(literal.toString())).append(c == '%' ? ".*" : ".");
+                    literal.setLength(0);
+                } else {
+                    literal.append(c);
+                }
+            }
+            return Pattern.compile(regex.append(Pattern.quote(literal.toString())).toString(), Pattern.DOTALL | Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        }
+    }
+
+    /**
+     * A distinct condition, whose result is kept at its slot of the results of an evaluation.
+     */
+    private abstract static class Node<T> {
+
+        private final int slot;
+
+        Node(int slot) {
+            this.slot = slot;
+        }
+
+        final boolean test(T row, byte[] results) {
+            byte result = results[slot];
+            if (result == 0) {
+                result = evaluate(row, results) ? TRUE : FALSE;
+                results[slot] = result;
+            }
+            return result == TRUE;
+        }
+
+        abstract boolean evaluate(T row, byte[] results);
+    }
+
+    private static final class LeafNode<T> extends Node<T> {
+
+        private final Predicate<T> predicate;
+
+        LeafNode(int slot, Predicate<T> predicate) {
+            super(slot);
+            this.predicate = predicate;
+        }
+
+        @Override
+        boolean evaluate(T row, byte[] results) {
+            return predicate.test(row);
+        }
+    }
+
+    private static final class AndNode<T> extends Node<T> {
+
+        private final Node<T>[] children;
+
+        AndNode(int slot, Node<T>[] children) {
+            super(slot);
+            this.children = children;
+        }
+
+        @Override
+        boolean evaluate(T row, byte[] results) {
+            for (Node<T> child : children) {
+                if (!child.test(row, results)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class OrNode<T> extends Node<T> {
+
+        private final Node<T>[] children;
+
+        OrNode(int slot, Node<T>[] children) {
+            super(slot);
+            this.children = children;
+        }
+
+        @Override
+        boolean evaluate(T row, byte[] results) {
+            for (Node<T> child : children) {
+                if (child.test(row, results)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class NotNode<T> extends Node<T> {
+
+        private final Node<T> child;
+
+        NotNode(int slot, Node<T> child) {
+            super(slot);
+            this.child = child;
+        }
+
+        @Override
+        boolean evaluate(T row, byte[] results) {
+            return !child.test(row, results);
+        }
+    }
+}
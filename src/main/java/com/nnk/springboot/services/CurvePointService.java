@@ -1,26 +1,78 @@
 package com.nnk.springboot.services;
 
 import com.nnk.springboot.domain.CurvePoint;
+import com.nnk.springboot.dto.CurvePointSummary;
 import com.nnk.springboot.repositories.CurvePointRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
 import java.util.List;
 
 @Service
+@Timed("service.calls")
 public class CurvePointService {
 
     private final CurvePointRepository curvePointRepository;
+    private final YieldCurveService yieldCurveService;
+    private final TableVersions tableVersions;
 
-    public CurvePointService(CurvePointRepository curvePointRepository) {
+    public CurvePointService(CurvePointRepository curvePointRepository, YieldCurveService yieldCurveService,
+                             TableVersions tableVersions) {
         this.curvePointRepository = curvePointRepository;
+        this.yieldCurveService = yieldCurveService;
+        this.tableVersions = tableVersions;
     }
 
     public List<CurvePoint> findAll() {
         return curvePointRepository.findAll();
     }
 
+    /**
+     * Fetches one page of curve points.
+     *
+     * @param pageable the page number, size and sort order
+     * @return the requested page with the total number of curve points
+     */
+    public Page<CurvePoint> findAll(Pageable pageable) {
+        return curvePointRepository.findAll(pageable);
+    }
+
+    /**
+     * Fetches the curve points for the list view, with only the displayed columns.
+     *
+     * @return the summaries of all curve points, ordered by id
+     */
+    public List<CurvePointSummary> findSummaries() {
+        return curvePointRepository.findAllSummaries();
+    }
+
+    /**
+     * Fetches the points of one curve, for pricing.
+     *
+     * @param curveId  the curve id
+     * @param asOfDate the as-of date of the curve, or null for the points without one
+     * @return the points of the curve, ordered by term
+     */
+    public List<CurvePoint> findCurve(int curveId, Timestamp asOfDate) {
+        return asOfDate == null
+                ? curvePointRepository.findByCurveIdAndAsOfDateIsNullOrderByTermAsc(curveId)
+                : curvePointRepository.findByCurveIdAndAsOfDateOrderByTermAsc(curveId, asOfDate);
+    }
+
+    /**
+     * Saves a curve point and applies it to the loaded yield curves.
+     *
+     * @param curvePoint the curve point to save
+     * @return the saved curve point
+     */
     public CurvePoint save(CurvePoint curvePoint) {
-        return curvePointRepository.save(curvePoint);
+        CurvePoint saved = curvePointRepository.save(curvePoint);
+        tableVersions.bump(CurvePoint.class);
+        yieldCurveService.pointSaved(saved);
+        return saved;
     }
 
     public CurvePoint findById(Integer id) {
@@ -30,5 +82,24 @@ public class CurvePointService {
 
     public void delete(CurvePoint curvePoint) {
         curvePointRepository.delete(curvePoint);
+        tableVersions.bump(CurvePoint.class);
+        if (curvePoint.getId() != null) {
+            yieldCurveService.pointDeleted(curvePoint.getId());
+        }
+    }
+
+    /**
+     * Deletes a curvePoint by id with a single statement and removes it from the loaded yield curves.
+     *
+     * @param id of the curvePoint to delete
+     * @return true if a curvePoint was deleted, false if none had this id
+     */
+    public boolean deleteById(Integer id) {
+        boolean deleted = curvePointRepository.removeById(id) > 0;
+        if (deleted) {
+            tableVersions.bump(CurvePoint.class);
+            yieldCurveService.pointDeleted(id);
+        }
+        return deleted;
     }
 }
@@ -7,6 +7,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -16,7 +17,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     private static final Logger logger = LoggerFactory.getLogger(CustomUserDetailsService.class);
     private final UserRepository userRepository;
 
@@ -36,7 +37,7 @@ public class CustomUserDetailsService implements UserDetailsService {
         Optional<User> optUser = userRepository.findByUsername(username);
         if (optUser.isPresent()) {
             User user = optUser.get();
-            logger.info("User found with username: " + user.getUsername());
+            logger.debug("User found with username: {}", user.getUsername());
             return new org.springframework.security.core.userdetails.User(
                     user.getUsername(),
                     user.getPassword(),
@@ -46,6 +47,25 @@ public class CustomUserDetailsService implements UserDetailsService {
         }
     }
 
+    /**
+     * Stores a rehashed password after a successful login.
+     * Method is used by Spring Security when the stored hash uses an outdated algorithm or cost.
+     *
+     * @param user        the authenticated user
+     * @param newPassword the password encoded with the current algorithm
+     * @return UserDetails with the new password
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (userRepository.updatePassword(user.getUsername(), newPassword) == 0) {
+            throw new UsernameNotFoundException(user.getUsername());
+        }
+        logger.debug("Upgraded password encoding of user {}", user.getUsername());
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
+
     private List<GrantedAuthority> getGrantedAuthorities(User user) {
         List<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority("ROLE_" + user.getRole()));
@@ -0,0 +1,58 @@
+package com.nnk.springboot.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import: how many rows were written and why the others were rejected.
+ * Only the first errors are kept, so that a broken file cannot exhaust memory;
+ * the rejected count still covers every rejected row.
+ */
+public class ImportReport {
+
+    /**
+     * A rejected row and the reason it was rejected.
+     *
+     * @param line    line number in the imported file, starting at 1
+     * @param message validation or parsing error
+     */
+    public record RowError(long line, String message) {
+    }
+
+    private final int maxErrors;
+    private final List<RowError> errors = new ArrayList<>();
+    private long imported;
+    private long rejected;
+
+    public ImportReport(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    void imported(int count) {
+        imported += count;
+    }
+
+    void reject(long line, String message) {
+        rejected++;
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(line, message));
+        }
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public boolean isErrorsTruncated() {
+        return rejected > errors.size();
+    }
+
+    public List<RowError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+}
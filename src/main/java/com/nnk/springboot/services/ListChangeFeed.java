@@ -0,0 +1,232 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.dto.ListChange;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes the changes of the trade and bid lists to the browsers displaying them, as Server-Sent Events.
+ * <p>
+ * Writers only record a change in the buffer of each subscriber, keyed by row id, so that several changes
+ * of a row before the next flush are sent as its last state. The buffers are flushed at a fixed interval
+ * by a few sender threads, one "changes" event holding the JSON array of the buffered changes.
+ * A subscriber that falls behind, with more buffered rows than allowed or a send that does not complete
+ * in time, is dropped: its stream is closed and the browser reconnects and reloads the list.
+ * <p>
+ * list.feed.subscribers reports the open streams and list.feed.dropped counts the dropped ones.
+ */
+@Service
+public class ListChangeFeed implements MeterBinder, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ListChangeFeed.class);
+
+    private static final long HEARTBEAT_NANOS = TimeUnit.SECONDS.toNanos(15);
+
+    private final long timeoutMillis;
+    private final int maxPending;
+    private final long sendTimeoutNanos;
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private final ScheduledExecutorService flusher;
+    private final ExecutorService senders;
+
+    /**
+     * @param flushInterval time between two flushes of the buffered changes
+     * @param maxPending    rows a subscriber may have buffered before it is dropped
+     * @param sendTimeout   time a send may take before its subscriber is dropped
+     * @param timeout       lifetime of a stream, after which the browser reconnects
+     * @param senderThreads threads writing to the streams
+     */
+    public ListChangeFeed(@Value("${list.feed.flush-interval:250ms}") Duration flushInterval,
+                          @Value("${list.feed.max-pending:1000}") int maxPending,
+                          @Value("${list.feed.send-timeout:5s}") Duration sendTimeout,
+                          @Value("${list.feed.timeout:30m}") Duration timeout,
+                          @Value("${list.feed.sender-threads:2}") int senderThreads) {
+        this.timeoutMillis = timeout.toMillis();
+        this.maxPending = maxPending;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(daemon("list-feed-flush"));
+        this.senders = Executors.newFixedThreadPool(senderThreads, daemon("list-feed-send"));
+        this.flusher.scheduleWithFixedDelay(this::flush, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream of the changes of a list.
+     *
+     * @param list the list to follow: trade or bid
+     * @return the stream, kept open until it times out, the browser leaves or it is dropped
+     */
+    public SseEmitter subscribe(String list) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(list, emitter);
+        subscribers.computeIfAbsent(list, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        return emitter;
+    }
+
+    /**
+     * Buffers a change for the subscribers of its list, once the transaction that made it is committed,
+     * or right away when published outside of a transaction.
+     *
+     * @param change the saved or deleted row
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(ListChange change) {
+        for (Subscriber subscriber : subscribers.getOrDefault(change.list(), Set.of())) {
+            if (!subscriber.offer(change)) {
+                drop(subscriber, "more than " + maxPending + " rows behind");
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("list.feed.subscribers", subscribers,
+                        all -> all.values().stream().mapToInt(Set::size).sum())
+                .description("Open streams of list changes")
+                .register(registry);
+        FunctionCounter.builder("list.feed.dropped", dropped, AtomicLong::get)
+                .description("Streams of list changes closed because their browser fell behind")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        flusher.shutdownNow();
+        senders.shutdownNow();
+        subscribers.values().forEach(list -> list.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private void flush() {
+        long now = System.nanoTime();
+        for (Set<Subscriber> list : subscribers.values()) {
+            for (Subscriber subscriber : list) {
+                if (subscriber.isStalled(now)) {
+                    drop(subscriber, "send blocked for more than " + TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos)
+                            + "ms");
+                } else if (subscriber.isDue(now) && subscriber.claim(now)) {
+                    senders.execute(subscriber::send);
+                }
+            }
+        }
+    }
+
+    private void drop(Subscriber subscriber, String reason) {
+        if (remove(subscriber)) {
+            dropped.incrementAndGet();
+            logger.debug("Dropped a stream of the {} list: {}", subscriber.list, reason);
+            // completing waits for a send in progress, which must not hold up a writer or the flush
+            senders.execute(subscriber.emitter::complete);
+        }
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        Set<Subscriber> list = subscribers.get(subscriber.list);
+        return list != null && list.remove(subscriber);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * A stream and the changes buffered for it, by row id in the order they first changed.
+     */
+    private final class Subscriber {
+
+        private final String list;
+        private final SseEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private Map<Integer, ListChange> pending = new LinkedHashMap<>();
+        private volatile long sendStartedNanos;
+        private volatile long lastSentNanos = System.nanoTime();
+
+        Subscriber(String list, SseEmitter emitter) {
+            this.list = list;
+            this.emitter = emitter;
+        }
+
+        synchronized boolean offer(ListChange change) {
+            pending.put(change.id(), change);
+            return pending.size() <= maxPending;
+        }
+
+        synchronized List<ListChange> drain() {
+            if (pending.isEmpty()) {
+                return List.of();
+            }
+            List<ListChange> changes = new ArrayList<>(pending.values());
+            pending = new LinkedHashMap<>();
+            return changes;
+        }
+
+        synchronized boolean hasPending() {
+            return !pending.isEmpty();
+        }
+
+        boolean isDue(long now) {
+            return hasPending() || now - lastSentNanos >= HEARTBEAT_NANOS;
+        }
+
+        boolean isStalled(long now) {
+            return sending.get() && now - sendStartedNanos > sendTimeoutNanos;
+        }
+
+        boolean claim(long now) {
+            if (sending.compareAndSet(false, true)) {
+                sendStartedNanos = now;
+                return true;
+            }
+            return false;
+        }
+
+        void send() {
+            try {
+                List<ListChange> changes = drain();
+                if (changes.isEmpty()) {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                } else {
+                    emitter.send(SseEmitter.event().name("changes").data(changes, MediaType.APPLICATION_JSON));
+                }
+                lastSentNanos = System.nanoTime();
+            } catch (IOException | IllegalStateException e) {
+                remove(this);
+            } finally {
+                sending.set(false);
+            }
+        }
+    }
+}
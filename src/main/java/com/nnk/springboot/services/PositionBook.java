@@ -0,0 +1,159 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.dto.Position;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Running positions by book, account and security.
+ * Positions are spread over stripes by the hash of their key. Each stripe has its own lock, a map from key
+ * to slot, and primitive arrays holding the amounts of its slots, so that concurrent updates of different
+ * positions rarely wait for each other and an update allocates nothing once its position exists.
+ * <p>
+ * A position keeps the quantity and value bought and sold. Adding a trade sums its amounts, and removing it
+ * subtracts them, whatever the order of the trades. The net quantity, average price and realized P&amp;L are
+ * computed from these sums when positions are read.
+ */
+public final class PositionBook {
+
+    /**
+     * Identifies a position.
+     */
+    public record Key(String book, String account, String security) {
+    }
+
+    private static final int BOUGHT_QUANTITY = 0;
+    private static final int BOUGHT_VALUE = 1;
+    private static final int SOLD_QUANTITY = 2;
+    private static final int SOLD_VALUE = 3;
+    private static final int AMOUNTS = 4;
+
+    private final Stripe[] stripes;
+    private final int mask;
+
+    /**
+     * @param stripes number of stripes, rounded up to a power of two
+     */
+    public PositionBook(int stripes) {
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.stripes = new Stripe[size];
+        this.mask = this.stripes.length - 1;
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Adds the amounts of a trade to its position, or subtracts them with negative amounts and trade count.
+     *
+     * @param key            the position
+     * @param boughtQuantity quantity bought
+     * @param boughtValue    quantity bought times its price
+     * @param soldQuantity   quantity sold
+     * @param soldValue      quantity sold times its price
+     * @param trades         1 to add a trade, -1 to remove it
+     */
+    public void add(Key key, double boughtQuantity, double boughtValue, double soldQuantity, double soldValue,
+                    int trades) {
+        stripe(key).add(key, boughtQuantity, boughtValue, soldQuantity, soldValue, trades);
+    }
+
+    /**
+     * Reads the positions that have trades, each stripe at a time.
+     *
+     * @return the positions, in no particular order
+     */
+    public List<Position> positions() {
+        List<Position> positions = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.collect(positions);
+        }
+        return positions;
+    }
+
+    /**
+     * Removes all the positions.
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    private Stripe stripe(Key key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    private static Position position(Key key, double[] amounts, int offset, int trades) {
+        double boughtQuantity = amounts[offset + BOUGHT_QUANTITY];
+        double soldQuantity = amounts[offset + SOLD_QUANTITY];
+        double averageBuyPrice = boughtQuantity == 0 ? 0 : amounts[offset + BOUGHT_VALUE] / boughtQuantity;
+        double averageSellPrice = soldQuantity == 0 ? 0 : amounts[offset + SOLD_VALUE] / soldQuantity;
+        double netQuantity = boughtQuantity - soldQuantity;
+        double averagePrice = netQuantity > 0 ? averageBuyPrice : netQuantity < 0 ? averageSellPrice : 0;
+        double realizedPnl = Math.min(boughtQuantity, soldQuantity) * (averageSellPrice - averageBuyPrice);
+        return new Position(key.book(), key.account(), key.security(), boughtQuantity, soldQuantity,
+                netQuantity, averagePrice, realizedPnl, trades);
+    }
+
+    /**
+     * The positions of a share of the keys. Slots are never freed: a position left without trades keeps
+     * its slot for its next trade, until the book is cleared.
+     */
+    private static final class Stripe {
+
+        private final Map<Key, Integer> slots = new HashMap<>();
+        private Key[] keys = new Key[8];
+        private double[] amounts = new double[8 * AMOUNTS];
+        private int[] trades = new int[8];
+
+        synchronized void add(Key key, double boughtQuantity, double boughtValue, double soldQuantity,
+                              double soldValue, int count) {
+            Integer slot = slots.get(key);
+            if (slot == null) {
+                slot = newSlot(key);
+            }
+            int offset = slot * AMOUNTS;
+            amounts[offset + BOUGHT_QUANTITY] += boughtQuantity;
+            amounts[offset + BOUGHT_VALUE] += boughtValue;
+            amounts[offset + SOLD_QUANTITY] += soldQuantity;
+            amounts[offset + SOLD_VALUE] += soldValue;
+            trades[slot] += count;
+        }
+
+        synchronized void collect(List<Position> positions) {
+            for (int slot = 0; slot < slots.size(); slot++) {
+                if (trades[slot] > 0) {
+                    positions.add(position(keys[slot], amounts, slot * AMOUNTS, trades[slot]));
+                }
+            }
+        }
+
+        synchronized void clear() {
+            slots.clear();
+            Arrays.fill(keys, null);
+            Arrays.fill(amounts, 0);
+            Arrays.fill(trades, 0);
+        }
+
+        private int newSlot(Key key) {
+            int slot = slots.size();
+            if (slot == keys.length) {
+                keys = Arrays.copyOf(keys, slot * 2);
+                amounts = Arrays.copyOf(amounts, slot * 2 * AMOUNTS);
+                trades = Arrays.copyOf(trades, slot * 2);
+            }
+            keys[slot] = key;
+            slots.put(key, slot);
+            return slot;
+        }
+    }
+}
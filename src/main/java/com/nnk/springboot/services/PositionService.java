@@ -0,0 +1,262 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.dto.Position;
+import com.nnk.springboot.dto.TradeQuantities;
+import com.nnk.springboot.repositories.TradeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the positions of the trades in memory, in a {@link PositionBook}.
+ * The positions are built from the trade table the first time they are read, by several threads each
+ * scanning a range of ids. Afterwards they are updated trade by trade when a trade is saved or deleted,
+ * instead of being rebuilt.
+ * <p>
+ * The last applied state of each trade is kept, so that a saved trade replaces its previous amounts and
+ * a state that is not newer, applied late by a concurrent save, is ignored. A deleted trade leaves a tombstone
+ * newer than any state, as ids are never reused, so that a late save does not bring it back. Tombstones are
+ * dropped when the positions are built again. Trade updates wait while the positions are built, then apply
+ * on top of the scan.
+ */
+@Service
+public class PositionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PositionService.class);
+
+    private static final int DELETED = Integer.MAX_VALUE;
+
+    private final TradeRepository tradeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int scanThreads;
+    private final PositionBook positions;
+    private final ConcurrentMap<Integer, TradeQuantities> trades = new ConcurrentHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loaded;
+
+    /**
+     * @param tradeRepository    the trades
+     * @param transactionManager to scan the trades in read-only transactions
+     * @param stripes            number of stripes of the positions
+     * @param scanThreads        threads scanning the trade table, each holding a connection
+     */
+    public PositionService(TradeRepository tradeRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${position.stripes:64}") int stripes,
+                           @Value("${position.scan-threads:4}") int scanThreads) {
+        this.tradeRepository = tradeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.scanThreads = scanThreads;
+        this.positions = new PositionBook(stripes);
+    }
+
+    /**
+     * Lists the positions, building them the first time.
+     *
+     * @param book    only the positions of this book, or null for all
+     * @param account only the positions of this account, or null for all
+     * @return the positions with trades, ordered by book, account and security
+     */
+    public List<Position> findAll(String book, String account) {
+        if (!loaded) {
+            rebuild(false);
+        }
+        return positions.positions().stream()
+                .filter(position -> book == null || book.equals(position.book()))
+                .filter(position -> account == null || account.equals(position.account()))
+                .sorted(Comparator.comparing(Position::book, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(Position::account, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(Position::security, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList();
+    }
+
+    /**
+     * Applies the state of a saved trade to the positions, if they are built.
+     *
+     * @param trade the saved trade, with its id and version
+     */
+    public void tradeSaved(Trade trade) {
+        apply(new TradeQuantities(trade.getTradeId(), trade.getVersion(), trade.getBook(), trade.getAccount(),
+                trade.getSecurity(), trade.getBuyQuantity(), trade.getBuyPrice(), trade.getSellQuantity(),
+                trade.getSellPrice()));
+    }
+
+    /**
+     * Applies a trade edited in the form to the positions, if they are built.
+     * Only its account and buy quantity are taken from the form, the other amounts are kept.
+     * A trade without an applied state yet, saved concurrently, is read again from the table first.
+     *
+     * @param trade the edited trade, with its id and new version
+     */
+    public void tradeEdited(Trade trade) {
+        lock.readLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            trades.compute(trade.getTradeId(), (id, previous) -> {
+                TradeQuantities current = previous != null ? previous
+                        : tradeRepository.findQuantitiesById(id).map(reloaded -> replace(null, reloaded)).orElse(null);
+                if (current == null) {
+                    return null;
+                }
+                return replace(current, new TradeQuantities(id, trade.getVersion(), current.book(),
+                        trade.getAccount(), current.security(), trade.getBuyQuantity(), current.buyPrice(),
+                        current.sellQuantity(), current.sellPrice()));
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a deleted trade from the positions, if they are built, and leaves its tombstone.
+     *
+     * @param id the ID of the deleted trade
+     */
+    public void tradeDeleted(int id) {
+        lock.readLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            trades.compute(id, (key, previous) -> replace(previous,
+                    new TradeQuantities(id, DELETED, null, null, null, 0, 0, 0, 0)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the positions, for trades written without going through {@link TradeService}:
+     * they are built again the next time they are read.
+     */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Builds the positions again from the trade table.
+     *
+     * @param force whether to rebuild positions that are already built
+     */
+    public void rebuild(boolean force) {
+        lock.writeLock().lock();
+        try {
+            if (loaded && !force) {
+                return;
+            }
+            clear();
+            long start = System.nanoTime();
+            try {
+                scan();
+            } catch (RuntimeException e) {
+                clear();
+                throw e;
+            }
+            loaded = true;
+            logger.info("Built {} positions from {} trades in {}ms", positions.positions().size(), trades.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(TradeQuantities trade) {
+        lock.readLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            trades.compute(trade.tradeId(), (id, previous) -> replace(previous, trade));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the applied state of a trade by a newer one, in the positions.
+     *
+     * @param previous the applied state, a tombstone or null
+     * @param trade    the new state or a tombstone
+     * @return the state to keep
+     */
+    private TradeQuantities replace(TradeQuantities previous, TradeQuantities trade) {
+        if (previous != null && version(previous) >= version(trade)) {
+            return previous;
+        }
+        if (previous != null) {
+            add(previous, -1);
+        }
+        add(trade, 1);
+        return trade;
+    }
+
+    private void add(TradeQuantities trade, int sign) {
+        if (version(trade) == DELETED) {
+            return;
+        }
+        positions.add(new PositionBook.Key(trade.book(), trade.account(), trade.security()),
+                sign * trade.buyQuantity(), sign * trade.buyQuantity() * trade.buyPrice(),
+                sign * trade.sellQuantity(), sign * trade.sellQuantity() * trade.sellPrice(), sign);
+    }
+
+    /**
+     * Splits the ids into one range per thread and scans them in parallel, each in its own transaction.
+     */
+    private void scan() {
+        int maxId = tradeRepository.findMaxTradeId();
+        int span = maxId / scanThreads + 1;
+        ExecutorService executor = Executors.newFixedThreadPool(scanThreads);
+        try {
+            List<CompletableFuture<Void>> ranges = new ArrayList<>(scanThreads);
+            for (int from = 0; from <= maxId; from += span) {
+                int start = from;
+                ranges.add(CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+                    try (Stream<TradeQuantities> rows = tradeRepository.streamQuantities(start, start + span)) {
+                        rows.forEach(row -> {
+                            trades.put(row.tradeId(), row);
+                            add(row, 1);
+                        });
+                    }
+                }), executor));
+            }
+            CompletableFuture.allOf(ranges.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void clear() {
+        loaded = false;
+        trades.clear();
+        positions.clear();
+    }
+
+    private static int version(TradeQuantities trade) {
+        return Objects.requireNonNullElse(trade.version(), 0);
+    }
+}
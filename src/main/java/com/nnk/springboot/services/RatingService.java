@@ -1,26 +1,54 @@
 package com.nnk.springboot.services;
 
 import com.nnk.springboot.domain.Rating;
+import com.nnk.springboot.dto.RatingSummary;
 import com.nnk.springboot.repositories.RatingRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
 @Service
+@Timed("service.calls")
 public class RatingService {
 
     private final RatingRepository ratingRepository;
+    private final TableVersions tableVersions;
 
-    public RatingService(RatingRepository ratingRepository) {
+    public RatingService(RatingRepository ratingRepository, TableVersions tableVersions) {
         this.ratingRepository = ratingRepository;
+        this.tableVersions = tableVersions;
     }
 
     public List<Rating> findAll() {
         return ratingRepository.findAll();
     }
 
+    /**
+     * Fetches one page of ratings.
+     *
+     * @param pageable the page number, size and sort order
+     * @return the requested page with the total number of ratings
+     */
+    public Page<Rating> findAll(Pageable pageable) {
+        return ratingRepository.findAll(pageable);
+    }
+
+    /**
+     * Fetches the ratings for the list view, with only the displayed columns.
+     *
+     * @return the summaries of all ratings, ordered by id
+     */
+    public List<RatingSummary> findSummaries() {
+        return ratingRepository.findAllSummaries();
+    }
+
     public Rating save(Rating rating) {
-        return ratingRepository.save(rating);
+        Rating saved = ratingRepository.save(rating);
+        tableVersions.bump(Rating.class);
+        return saved;
     }
 
     public Rating findById(Integer id) {
@@ -30,5 +58,20 @@ public class RatingService {
 
     public void delete(Rating rating) {
         ratingRepository.delete(rating);
+        tableVersions.bump(Rating.class);
+    }
+
+    /**
+     * Deletes a rating by id with a single statement.
+     *
+     * @param id of the rating to delete
+     * @return true if a rating was deleted, false if none had this id
+     */
+    public boolean deleteById(Integer id) {
+        boolean deleted = ratingRepository.removeById(id) > 0;
+        if (deleted) {
+            tableVersions.bump(Rating.class);
+        }
+        return deleted;
     }
 }
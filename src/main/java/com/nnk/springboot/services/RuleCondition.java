@@ -0,0 +1,59 @@
+package com.nnk.springboot.services;
+
+import java.util.List;
+
+/**
+ * A parsed rule predicate, before it is compiled against the fields of trades or bids.
+ * Conditions are values: equal conditions, in the same rule or in different rules, are compiled once.
+ * Field names are lower case and numbers are doubles, so that the same condition written differently
+ * is still equal.
+ */
+public sealed interface RuleCondition {
+
+    /**
+     * How a field is compared to the value of a {@link Compare}.
+     */
+    enum Operator {
+        EQ, NE, LT, LE, GT, GE,
+        /** The value is a list. */
+        IN,
+        /** The value is a SQL pattern, with % and _. */
+        LIKE,
+        /** There is no value. */
+        IS_NULL,
+        /** There is no value. */
+        IS_NOT_NULL
+    }
+
+    /**
+     * True if all the conditions are, evaluated in order until one is false.
+     */
+    record And(List<RuleCondition> conditions) implements RuleCondition {
+
+        public And {
+            conditions = List.copyOf(conditions);
+        }
+    }
+
+    /**
+     * True if any of the conditions is, evaluated in order until one is true.
+     */
+    record Or(List<RuleCondition> conditions) implements RuleCondition {
+
+        public Or {
+            conditions = List.copyOf(conditions);
+        }
+    }
+
+    /**
+     * True if the condition is false.
+     */
+    record Not(RuleCondition condition) implements RuleCondition {
+    }
+
+    /**
+     * Compares a field to a value: a Double, a String, a List of them for IN, or null for the null checks.
+     */
+    record Compare(String field, Operator operator, Object value) implements RuleCondition {
+    }
+}
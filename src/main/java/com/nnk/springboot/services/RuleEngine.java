@@ -0,0 +1,136 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.domain.Bid;
+import com.nnk.springboot.domain.Rule;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.dto.RuleMatch;
+import com.nnk.springboot.repositories.RuleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evaluates trades and bids against the predicates of all the rules.
+ * The rules are parsed and compiled the first time they are used, see {@link RuleParser} and
+ * {@link CompiledRules}. Afterwards a saved or deleted rule is parsed again alone, and the rules are
+ * compiled again from the parsed predicates, instead of being reloaded.
+ * <p>
+ * The active rules are those whose predicate parses. A rule applies to trades if all the fields it tests
+ * are fields of a trade, and to bids if they are fields of a bid.
+ */
+@Service
+public class RuleEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuleEngine.class);
+
+    /**
+     * The rules compiled for each kind of row.
+     */
+    private record Compiled(CompiledRules<Trade> trades, CompiledRules<Bid> bids) {
+    }
+
+    private record ParsedRule(RuleMatch rule, RuleCondition condition) {
+    }
+
+    private final RuleRepository ruleRepository;
+    private final Map<Integer, ParsedRule> rules = new HashMap<>();
+    private volatile Compiled compiled;
+
+    public RuleEngine(RuleRepository ruleRepository) {
+        this.ruleRepository = ruleRepository;
+    }
+
+    /**
+     * Evaluates a trade against the rules, compiling them the first time.
+     *
+     * @param trade the trade, saved or not
+     * @return the rules it matches, ordered by id
+     */
+    public List<RuleMatch> matches(Trade trade) {
+        return compiled().trades().matches(trade);
+    }
+
+    /**
+     * Evaluates a bid against the rules, compiling them the first time.
+     *
+     * @param bid the bid, saved or not
+     * @return the rules it matches, ordered by id
+     */
+    public List<RuleMatch> matches(Bid bid) {
+        return compiled().bids().matches(bid);
+    }
+
+    /**
+     * Replaces the compiled predicate of a saved rule, if the rules are compiled.
+     * A rule whose predicate no longer parses is dropped.
+     *
+     * @param rule the saved rule, with its id
+     */
+    public synchronized void ruleSaved(Rule rule) {
+        if (compiled == null) {
+            return;
+        }
+        rules.remove(rule.getId());
+        put(rule);
+        compile();
+    }
+
+    /**
+     * Drops the compiled predicate of a deleted rule, if the rules are compiled.
+     *
+     * @param id the ID of the deleted rule
+     */
+    public synchronized void ruleDeleted(int id) {
+        if (compiled != null && rules.remove(id) != null) {
+            compile();
+        }
+    }
+
+    private Compiled compiled() {
+        Compiled current = compiled;
+        return current != null ? current : load();
+    }
+
+    private synchronized Compiled load() {
+        if (compiled == null) {
+            List<Rule> all = ruleRepository.findAll();
+            all.forEach(this::put);
+            compile();
+            logger.debug("Loaded {} rules, {} with a valid predicate", all.size(), rules.size());
+        }
+        return compiled;
+    }
+
+    private void put(Rule rule) {
+        try {
+            RuleCondition condition = RuleParser.parse(rule);
+            rules.put(rule.getId(), new ParsedRule(new RuleMatch(rule.getId(), rule.getName()), condition));
+        } catch (IllegalArgumentException e) {
+            logger.debug("Rule {} is not active: {}", rule.getId(), e.getMessage());
+        }
+    }
+
+    private void compile() {
+        CompiledRules.Builder<Trade> trades = CompiledRules.builder(RuleFields.TRADE);
+        CompiledRules.Builder<Bid> bids = CompiledRules.builder(RuleFields.BID);
+        rules.values().stream()
+                .sorted((a, b) -> Integer.compare(a.rule().id(), b.rule().id()))
+                .forEach(parsed -> {
+                    addIfApplicable(trades, parsed);
+                    addIfApplicable(bids, parsed);
+                });
+        compiled = new Compiled(trades.build(), bids.build());
+    }
+
+    private static <T> void addIfApplicable(CompiledRules.Builder<T> builder, ParsedRule parsed) {
+        try {
+            builder.add(parsed.rule(), parsed.condition());
+        } catch (IllegalArgumentException e) {
+            // tests a field of the other kind of row, or compares a field to a value of another type
+        }
+    }
+}
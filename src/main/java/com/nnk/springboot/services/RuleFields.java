@@ -0,0 +1,86 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.domain.Bid;
+import com.nnk.springboot.domain.Trade;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * The fields of a trade or a bid that rules can test, by lower case name: the quantities and prices as
+ * numbers, and the text columns. A rule testing another field does not apply to this kind of row.
+ *
+ * @param <T> Trade or Bid
+ */
+public final class RuleFields<T> {
+
+    public static final RuleFields<Trade> TRADE = new RuleFields<Trade>()
+            .text("account", Trade::getAccount)
+            .text("type", Trade::getType)
+            .number("buyQuantity", Trade::getBuyQuantity)
+            .number("sellQuantity", Trade::getSellQuantity)
+            .number("buyPrice", Trade::getBuyPrice)
+            .number("sellPrice", Trade::getSellPrice)
+            .text("security", Trade::getSecurity)
+            .text("status", Trade::getStatus)
+            .text("trader", Trade::getTrader)
+            .text("benchmark", Trade::getBenchmark)
+            .text("book", Trade::getBook)
+            .text("dealName", Trade::getDealName)
+            .text("dealType", Trade::getDealType)
+            .text("sourceListId", Trade::getSourceListId)
+            .text("side", Trade::getSide);
+
+    public static final RuleFields<Bid> BID = new RuleFields<Bid>()
+            .text("account", Bid::getAccount)
+            .text("type", Bid::getType)
+            .number("bidQuantity", Bid::getBidQuantity)
+            .number("askQuantity", Bid::getAskQuantity)
+            .number("bid", Bid::getBid)
+            .number("ask", Bid::getAsk)
+            .text("benchmark", Bid::getBenchmark)
+            .text("commentary", Bid::getCommentary)
+            .text("security", Bid::getSecurity)
+            .text("status", Bid::getStatus)
+            .text("trader", Bid::getTrader)
+            .text("book", Bid::getBook)
+            .text("dealName", Bid::getDealName)
+            .text("dealType", Bid::getDealType)
+            .text("sourceListId", Bid::getSourceListId)
+            .text("side", Bid::getSide);
+
+    private final Map<String, ToDoubleFunction<T>> numbers = new HashMap<>();
+    private final Map<String, Function<T, String>> texts = new HashMap<>();
+
+    private RuleFields() {
+    }
+
+    /**
+     * @param field lower case name
+     * @return the getter of the number field, or null if it is not one
+     */
+    ToDoubleFunction<T> number(String field) {
+        return numbers.get(field);
+    }
+
+    /**
+     * @param field lower case name
+     * @return the getter of the text field, or null if it is not one
+     */
+    Function<T, String> text(String field) {
+        return texts.get(field);
+    }
+
+    private RuleFields<T> number(String field, ToDoubleFunction<T> getter) {
+        numbers.put(field.toLowerCase(Locale.ROOT), getter);
+        return this;
+    }
+
+    private RuleFields<T> text(String field, Function<T, String> getter) {
+        texts.put(field.toLowerCase(Locale.ROOT), getter);
+        return this;
+    }
+}
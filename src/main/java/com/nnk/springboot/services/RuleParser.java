@@ -0,0 +1,342 @@
+package com.nnk.springboot.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nnk.springboot.domain.Rule;
+import com.nnk.springboot.services.RuleCondition.And;
+import com.nnk.springboot.services.RuleCondition.Compare;
+import com.nnk.springboot.services.RuleCondition.Not;
+import com.nnk.springboot.services.RuleCondition.Operator;
+import com.nnk.springboot.services.RuleCondition.Or;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parses the predicate of a rule into a {@link RuleCondition}.
+ * <p>
+ * The json of a rule holds the predicate when it is an object with an and, or, not or field member:
+ * <pre>
+ * {"and": [{"field": "buyQuantity", "op": "&gt;=", "value": 1000},
+ *          {"not": {"field": "account", "op": "in", "value": ["A", "B"]}}]}
+ * </pre>
+ * The operators are =, &lt;&gt;, !=, &lt;, &lt;=, &gt;, &gt;=, in, like, is null and is not null.
+ * Otherwise the predicate is its sqlPart, a WHERE clause over the same fields:
+ * <pre>
+ * buyQuantity &gt;= 1000 AND NOT account IN ('A', 'B') OR status IS NULL
+ * </pre>
+ * which also accepts BETWEEN, NOT LIKE, NOT IN and parentheses. Column names may be qualified.
+ */
+public final class RuleParser {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private RuleParser() {
+    }
+
+    /**
+     * Parses the predicate of a rule, from its json if it holds one or else from its sqlPart.
+     *
+     * @param rule the rule
+     * @return its predicate
+     * @throws IllegalArgumentException if the predicate is invalid
+     */
+    public static RuleCondition parse(Rule rule) {
+        JsonNode json = readPredicate(rule.getJson());
+        return json != null ? parseJson(json) : parseSql(rule.getSqlPart());
+    }
+
+    /**
+     * Parses a predicate written in JSON.
+     *
+     * @param json the predicate
+     * @return the parsed predicate
+     * @throws IllegalArgumentException if the predicate is invalid
+     */
+    public static RuleCondition parseJson(String json) {
+        JsonNode node = readPredicate(json);
+        if (node == null) {
+            throw new IllegalArgumentException("Not a JSON predicate: " + json);
+        }
+        return parseJson(node);
+    }
+
+    /**
+     * Parses a predicate written as a SQL WHERE clause.
+     *
+     * @param sql the predicate
+     * @return the parsed predicate
+     * @throws IllegalArgumentException if the predicate is invalid
+     */
+    public static RuleCondition parseSql(String sql) {
+        if (sql == null || sql.isBlank()) {
+            throw new IllegalArgumentException("No SQL predicate");
+        }
+        SqlParser parser = new SqlParser(sql);
+        RuleCondition condition = parser.or();
+        if (parser.peek() != null) {
+            throw parser.error("Unexpected " + parser.peek());
+        }
+        return condition;
+    }
+
+    private static JsonNode readPredicate(String json) {
+        if (json == null || !json.stripLeading().startsWith("{")) {
+            return null;
+        }
+        JsonNode node;
+        try {
+            node = MAPPER.readTree(json);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+        return node.has("and") || node.has("or") || node.has("not") || node.has("field") ? node : null;
+    }
+
+    private static RuleCondition parseJson(JsonNode node) {
+        if (node.has("and")) {
+            return new And(parseJsonList(node.get("and")));
+        }
+        if (node.has("or")) {
+            return new Or(parseJsonList(node.get("or")));
+        }
+        if (node.has("not")) {
+            return new Not(parseJson(node.get("not")));
+        }
+        String field = node.path("field").asText(null);
+        String op = node.path("op").asText("=").trim().toLowerCase(Locale.ROOT);
+        if (field == null || field.isBlank()) {
+            throw new IllegalArgumentException("No field in " + node);
+        }
+        Operator operator = switch (op) {
+            case "=", "==" -> Operator.EQ;
+            case "<>", "!=" -> Operator.NE;
+            case "<" -> Operator.LT;
+            case "<=" -> Operator.LE;
+            case ">" -> Operator.GT;
+            case ">=" -> Operator.GE;
+            case "in" -> Operator.IN;
+            case "like" -> Operator.LIKE;
+            case "is null" -> Operator.IS_NULL;
+            case "is not null" -> Operator.IS_NOT_NULL;
+            default -> throw new IllegalArgumentException("Unknown operator " + op);
+        };
+        JsonNode value = node.get("value");
+        return switch (operator) {
+            case IS_NULL, IS_NOT_NULL -> compare(field, operator, null);
+            case IN -> {
+                if (value == null || !value.isArray() || value.isEmpty()) {
+                    throw new IllegalArgumentException("in needs a list of values in " + node);
+                }
+                List<Object> values = new ArrayList<>();
+                value.forEach(item -> values.add(jsonValue(item)));
+                yield compare(field, operator, List.copyOf(values));
+            }
+            case LIKE -> {
+                if (value == null || !value.isTextual()) {
+                    throw new IllegalArgumentException("like needs a text pattern in " + node);
+                }
+                yield compare(field, operator, value.asText());
+            }
+            default -> compare(field, operator, jsonValue(value));
+        };
+    }
+
+    private static List<RuleCondition> parseJsonList(JsonNode nodes) {
+        if (!nodes.isArray() || nodes.isEmpty()) {
+            throw new IllegalArgumentException("Expected a list of conditions: " + nodes);
+        }
+        List<RuleCondition> conditions = new ArrayList<>();
+        nodes.forEach(node -> conditions.add(parseJson(node)));
+        return conditions;
+    }
+
+    private static Object jsonValue(JsonNode value) {
+        if (value != null && value.isNumber()) {
+            return value.asDouble();
+        }
+        if (value != null && value.isTextual()) {
+            return value.asText();
+        }
+        throw new IllegalArgumentException("Expected a number or a text: " + value);
+    }
+
+    private static Compare compare(String field, Operator operator, Object value) {
+        int dot = field.lastIndexOf('.');
+        return new Compare(field.substring(dot + 1).trim().toLowerCase(Locale.ROOT), operator, value);
+    }
+
+    /**
+     * Recursive descent parser of a WHERE clause, AND binding tighter than OR.
+     */
+    private static final class SqlParser {
+
+        private final String sql;
+        private final List<String> tokens = new ArrayList<>();
+        private int position;
+
+        SqlParser(String sql) {
+            this.sql = sql;
+            tokenize();
+        }
+
+        RuleCondition or() {
+            List<RuleCondition> conditions = new ArrayList<>(List.of(and()));
+            while (accept("OR")) {
+                conditions.add(and());
+            }
+            return conditions.size() == 1 ? conditions.get(0) : new Or(conditions);
+        }
+
+        private RuleCondition and() {
+            List<RuleCondition> conditions = new ArrayList<>(List.of(not()));
+            while (accept("AND")) {
+                conditions.add(not());
+            }
+            return conditions.size() == 1 ? conditions.get(0) : new And(conditions);
+        }
+
+        private RuleCondition not() {
+            if (accept("NOT")) {
+                return new Not(not());
+            }
+            if (accept("(")) {
+                RuleCondition condition = or();
+                expect(")");
+                return condition;
+            }
+            return predicate();
+        }
+
+        private RuleCondition predicate() {
+            String field = next();
+            if (!Character.isLetter(field.charAt(0)) && field.charAt(0) != '_' && field.charAt(0) != '`') {
+                throw error("Expected a column instead of " + field);
+            }
+            field = field.replace("`", "");
+            if (accept("IS")) {
+                boolean not = accept("NOT");
+                expect("NULL");
+                return compare(field, not ? Operator.IS_NOT_NULL : Operator.IS_NULL, null);
+            }
+            boolean not = accept("NOT");
+            RuleCondition condition;
+            if (accept("IN")) {
+                expect("(");
+                List<Object> values = new ArrayList<>(List.of(literal()));
+                while (accept(",")) {
+                    values.add(literal());
+                }
+                expect(")");
+                condition = compare(field, Operator.IN, List.copyOf(values));
+            } else if (accept("LIKE")) {
+                if (!(literal() instanceof String pattern)) {
+                    throw error("LIKE needs a text pattern");
+                }
+                condition = compare(field, Operator.LIKE, pattern);
+            } else if (accept("BETWEEN")) {
+                Object low = literal();
+                expect("AND");
+                condition = new And(List.of(compare(field, Operator.GE, low), compare(field, Operator.LE, literal())));
+            } else if (not) {
+                throw error("Expected IN, LIKE or BETWEEN after NOT");
+            } else {
+                String op = next();
+                Operator operator = switch (op) {
+                    case "=" -> Operator.EQ;
+                    case "<>", "!=" -> Operator.NE;
+                    case "<" -> Operator.LT;
+                    case "<=" -> Operator.LE;
+                    case ">" -> Operator.GT;
+                    case ">=" -> Operator.GE;
+                    default -> throw error("Unknown operator " + op);
+                };
+                condition = compare(field, operator, literal());
+            }
+            return not ? new Not(condition) : condition;
+        }
+
+        private Object literal() {
+            String token = next();
+            if (token.startsWith("'")) {
+                return token.substring(1, token.length() - 1).replace("''", "'");
+            }
+            try {
+                return Double.parseDouble(token);
+            } catch (NumberFormatException e) {
+                throw error("Expected a number or a quoted text instead of " + token);
+            }
+        }
+
+        String peek() {
+            return position < tokens.size() ? tokens.get(position) : null;
+        }
+
+        private String next() {
+            String token = peek();
+            if (token == null) {
+                throw error("Unexpected end");
+            }
+            position++;
+            return token;
+        }
+
+        private boolean accept(String keyword) {
+            String token = peek();
+            if (token != null && token.equalsIgnoreCase(keyword)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String keyword) {
+            if (!accept(keyword)) {
+                throw error("Expected " + keyword + " instead of " + peek());
+            }
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " in SQL predicate: " + sql);
+        }
+
+        private void tokenize() {
+            int i = 0;
+            while (i < sql.length()) {
+                char c = sql.charAt(i);
+                int start = i;
+                if (Character.isWhitespace(c)) {
+                    i++;
+                    continue;
+                }
+                if (c == '\'') {
+                    i++;
+                    while (i < sql.length() && (sql.charAt(i) != '\'' || sql.startsWith("''", i))) {
+                        i += sql.charAt(i) == '\'' ? 2 : 1;
+                    }
+                    if (i == sql.length()) {
+                        throw error("Unterminated text");
+                    }
+                    i++;
+                } else if (Character.isLetterOrDigit(c) || c == '_' || c == '`' || c == '.'
+                        || (c == '-' && i + 1 < sql.length() && Character.isDigit(sql.charAt(i + 1)))) {
+                    i++;
+                    while (i < sql.length() && (Character.isLetterOrDigit(sql.charAt(i))
+                            || "_`.".indexOf(sql.charAt(i)) >= 0)) {
+                        i++;
+                    }
+                } else if (sql.startsWith("<=", i) || sql.startsWith(">=", i) || sql.startsWith("<>", i)
+                        || sql.startsWith("!=", i)) {
+                    i += 2;
+                } else if ("=<>(),".indexOf(c) >= 0) {
+                    i++;
+                } else {
+                    throw error("Unexpected character " + c);
+                }
+                tokens.add(sql.substring(start, i));
+            }
+        }
+    }
+}
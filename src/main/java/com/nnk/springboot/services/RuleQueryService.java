@@ -0,0 +1,295 @@
+package com.nnk.springboot.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nnk.springboot.config.RuleQueryDataSourceConfig;
+import com.nnk.springboot.domain.Rule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
+import org.springframework.jdbc.support.JdbcTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs the SQL of a rule, its sqlStr, and writes its rows as a JSON array of objects keyed by column label.
+ * <p>
+ * The SQL must be a single SELECT, with :name parameters bound from the request as prepared statement
+ * arguments. A parameter given several values is expanded for IN lists. The query runs on its own data source,
+ * as a MySQL user only allowed to SELECT the business tables (see {@link RuleQueryDataSourceConfig}), in a
+ * read-only transaction, with a statement timeout and a cap on the returned rows. Rows are fetched from
+ * a server-side cursor and written as they are read.
+ * <p>
+ * Results of at most cache-rows rows are kept for a short time, keyed by rule id, SQL and arguments.
+ * The rule table has no version column: the SQL stands for the version of the rule, and the results of a
+ * rule are evicted when it is saved or deleted. Changes of the queried tables are only seen once the
+ * results expire. Hit and miss counts are published as cache metrics under the name "ruleResults".
+ */
+@Service
+public class RuleQueryService implements MeterBinder {
+
+    private static final Set<String> FORBIDDEN_WORDS = Set.of("INTO", "UPDATE", "DELETE", "INSERT", "LOCK",
+            "LOAD_FILE", "GET_LOCK", "SLEEP", "BENCHMARK");
+
+    /**
+     * The SQL of a rule with its parameters replaced by JDBC placeholders, and their values in order.
+     * Also the key of the cached results.
+     */
+    public record PreparedQuery(int ruleId, String sql, List<Object> arguments) {
+
+        public PreparedQuery {
+            arguments = List.copyOf(arguments);
+        }
+    }
+
+    private record Result(List<String> columns, List<Object[]> rows) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int cacheRows;
+    private final Cache<PreparedQuery, Result> results;
+
+    /**
+     * @param dataSource   the database, as the restricted user of the rule queries
+     * @param objectMapper to write the rows
+     * @param timeout      time a query may run
+     * @param maxRows      rows returned at most, the others are dropped
+     * @param fetchSize    rows fetched from the cursor at a time
+     * @param cacheTtl     time results are cached
+     * @param cacheSize    results cached at most
+     * @param cacheRows    rows of the largest result cached
+     */
+    public RuleQueryService(@Qualifier(RuleQueryDataSourceConfig.QUALIFIER) DataSource dataSource,
+                            ObjectMapper objectMapper,
+                            @Value("${rule.query.timeout:10s}") Duration timeout,
+                            @Value("${rule.query.max-rows:100000}") int maxRows,
+                            @Value("${rule.query.fetch-size:500}") int fetchSize,
+                            @Value("${rule.query.cache-ttl:1m}") Duration cacheTtl,
+                            @Value("${rule.query.cache-size:100}") long cacheSize,
+                            @Value("${rule.query.cache-rows:1000}") int cacheRows) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setQueryTimeout((int) Math.max(1, timeout.toSeconds()));
+        this.jdbcTemplate.setMaxRows(maxRows);
+        // the MySQL driver rejects a fetch size above the row cap
+        this.jdbcTemplate.setFetchSize(Math.min(fetchSize, maxRows));
+        JdbcTransactionManager transactionManager = new JdbcTransactionManager(dataSource);
+        transactionManager.setEnforceReadOnly(true);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.cacheRows = cacheRows;
+        this.results = Caffeine.newBuilder()
+                .expireAfterWrite(cacheTtl)
+                .maximumSize(cacheSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Checks the SQL of a rule and binds its parameters, before anything is written to the response.
+     *
+     * @param rule       the rule, with its id
+     * @param parameters values of the named parameters of the SQL, others are ignored
+     * @return the query to execute
+     * @throws IllegalArgumentException if the SQL is not a single SELECT or a parameter has no value
+     */
+    public PreparedQuery prepare(Rule rule, Map<String, List<String>> parameters) {
+        String sql = rule.getSqlStr();
+        checkReadOnly(sql);
+        MapSqlParameterSource source = new MapSqlParameterSource();
+        parameters.forEach((name, values) -> source.addValue(name, values.size() == 1 ? values.get(0) : values));
+        ParsedSql parsedSql = NamedParameterUtils.parseSqlStatement(sql);
+        List<Object> arguments = new ArrayList<>();
+        try {
+            for (Object value : NamedParameterUtils.buildValueArray(parsedSql, source, null)) {
+                if (value instanceof Collection<?> values) {
+                    arguments.addAll(values);
+                } else {
+                    arguments.add(value);
+                }
+            }
+        } catch (InvalidDataAccessApiUsageException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+        return new PreparedQuery(rule.getId(), NamedParameterUtils.substituteNamedParameters(parsedSql, source),
+                arguments);
+    }
+
+    /**
+     * Writes the rows of a query, from the cache or from the database.
+     *
+     * @param query the prepared query
+     * @param out   where to write the JSON array, left open
+     * @throws IOException if the rows cannot be written
+     */
+    public void execute(PreparedQuery query, OutputStream out) throws IOException {
+        try (JsonGenerator json = objectMapper.createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Result cached = results.getIfPresent(query);
+            if (cached != null) {
+                json.writeStartArray();
+                for (Object[] row : cached.rows()) {
+                    writeRow(json, cached.columns(), row);
+                }
+                json.writeEndArray();
+                return;
+            }
+            Result result = query(query, json);
+            if (result != null) {
+                results.put(query, result);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Evicts the cached results of a saved or deleted rule.
+     *
+     * @param ruleId the ID of the rule
+     */
+    public void ruleChanged(int ruleId) {
+        results.asMap().keySet().removeIf(query -> query.ruleId() == ruleId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, results, "ruleResults");
+    }
+
+    /**
+     * Streams the rows of the query, keeping them only while they fit in the cache.
+     *
+     * @return the rows to cache, or null if there are too many
+     */
+    private Result query(PreparedQuery query, JsonGenerator json) {
+        return transactionTemplate.execute(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(query.sql(), ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            for (int i = 0; i < query.arguments().size(); i++) {
+                statement.setObject(i + 1, query.arguments().get(i));
+            }
+            return statement;
+        }, resultSet -> {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            List<String> columns = new ArrayList<>(metaData.getColumnCount());
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                columns.add(metaData.getColumnLabel(i));
+            }
+            List<Object[]> rows = new ArrayList<>();
+            try {
+                json.writeStartArray();
+                while (resultSet.next()) {
+                    Object[] row = new Object[columns.size()];
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] = resultSet.getObject(i + 1);
+                    }
+                    writeRow(json, columns, row);
+                    if (rows != null && rows.size() < cacheRows) {
+                        rows.add(row);
+                    } else {
+                        rows = null;
+                    }
+                }
+                json.writeEndArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return rows == null ? null : new Result(columns, rows);
+        }));
+    }
+
+    private static void writeRow(JsonGenerator json, List<String> columns, Object[] row) throws IOException {
+        json.writeStartObject();
+        for (int i = 0; i < row.length; i++) {
+            json.writeFieldName(columns.get(i));
+            json.writeObject(row[i]);
+        }
+        json.writeEndObject();
+    }
+
+    /**
+     * Accepts a single SELECT or WITH statement, without JDBC placeholders, words that write or lock,
+     * or functions that read files or hold the server. Quoted texts and comments are skipped.
+     * The privileges of the user and the read-only transaction are the actual guards, this check rejects
+     * what they would not catch, such as GET_LOCK or SLEEP, and reports the others early.
+     */
+    private static void checkReadOnly(String sql) {
+        if (sql == null || sql.isBlank()) {
+            throw new IllegalArgumentException("The rule has no SQL");
+        }
+        List<String> words = new ArrayList<>();
+        int i = 0;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                int end = sql.indexOf(c, i + 1);
+                while (end >= 0 && end + 1 < sql.length() && sql.charAt(end + 1) == c) {
+                    end = sql.indexOf(c, end + 2);
+                }
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated quote in the SQL of the rule");
+                }
+                i = end + 1;
+            } else if (sql.startsWith("--", i) || c == '#') {
+                int end = sql.indexOf('\n', i);
+                i = end < 0 ? sql.length() : end + 1;
+            } else if (sql.startsWith("/*", i)) {
+                int end = sql.indexOf("*/", i + 2);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated comment in the SQL of the rule");
+                }
+                i = end + 2;
+            } else if (c == ';') {
+                if (!sql.substring(i + 1).isBlank()) {
+                    throw new IllegalArgumentException("The SQL of the rule must be a single statement");
+                }
+                i = sql.length();
+            } else if (c == '?') {
+                throw new IllegalArgumentException("The SQL of the rule must use :name parameters instead of ?");
+            } else if (Character.isLetter(c)) {
+                int start = i;
+                while (i < sql.length() && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_')) {
+                    i++;
+                }
+                words.add(sql.substring(start, i).toUpperCase(Locale.ROOT));
+            } else {
+                i++;
+            }
+        }
+        if (words.isEmpty() || !(words.get(0).equals("SELECT") || words.get(0).equals("WITH"))) {
+            throw new IllegalArgumentException("The SQL of the rule must be a SELECT");
+        }
+        for (String word : words) {
+            if (FORBIDDEN_WORDS.contains(word)) {
+                throw new IllegalArgumentException("The SQL of the rule must not use " + word);
+            }
+        }
+    }
+}
@@ -1,26 +1,67 @@
 package com.nnk.springboot.services;
 
 import com.nnk.springboot.domain.Rule;
+import com.nnk.springboot.dto.RuleSummary;
 import com.nnk.springboot.repositories.RuleRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
 @Service
+@Timed("service.calls")
 public class RuleService {
 
     private final RuleRepository ruleRepository;
+    private final RuleEngine ruleEngine;
+    private final RuleQueryService ruleQueryService;
+    private final TableVersions tableVersions;
 
-    public RuleService(RuleRepository ruleRepository) {
+    public RuleService(RuleRepository ruleRepository, RuleEngine ruleEngine, RuleQueryService ruleQueryService,
+                       TableVersions tableVersions) {
         this.ruleRepository = ruleRepository;
+        this.ruleEngine = ruleEngine;
+        this.ruleQueryService = ruleQueryService;
+        this.tableVersions = tableVersions;
     }
 
     public List<Rule> findAll() {
         return ruleRepository.findAll();
     }
 
+    /**
+     * Fetches one page of rules.
+     *
+     * @param pageable the page number, size and sort order
+     * @return the requested page with the total number of rules
+     */
+    public Page<Rule> findAll(Pageable pageable) {
+        return ruleRepository.findAll(pageable);
+    }
+
+    /**
+     * Fetches the rules for the list view, with only the displayed columns.
+     *
+     * @return the summaries of all rules, ordered by id
+     */
+    public List<RuleSummary> findSummaries() {
+        return ruleRepository.findAllSummaries();
+    }
+
+    /**
+     * Saves a rule, compiles its predicate again for the rule engine and evicts the cached results of its SQL.
+     *
+     * @param rule the rule to save
+     * @return the saved rule
+     */
     public Rule save(Rule rule) {
-        return ruleRepository.save(rule);
+        Rule saved = ruleRepository.save(rule);
+        tableVersions.bump(Rule.class);
+        ruleEngine.ruleSaved(saved);
+        ruleQueryService.ruleChanged(saved.getId());
+        return saved;
     }
 
     public Rule findById(Integer id) {
@@ -30,5 +71,26 @@ public class RuleService {
 
     public void delete(Rule rule) {
         ruleRepository.delete(rule);
+        tableVersions.bump(Rule.class);
+        if (rule.getId() != null) {
+            ruleEngine.ruleDeleted(rule.getId());
+            ruleQueryService.ruleChanged(rule.getId());
+        }
+    }
+
+    /**
+     * Deletes a rule by id with a single statement, and drops it from the rule engine and the cached results.
+     *
+     * @param id of the rule to delete
+     * @return true if a rule was deleted, false if none had this id
+     */
+    public boolean deleteById(Integer id) {
+        boolean deleted = ruleRepository.removeById(id) > 0;
+        if (deleted) {
+            tableVersions.bump(Rule.class);
+            ruleEngine.ruleDeleted(id);
+            ruleQueryService.ruleChanged(id);
+        }
+        return deleted;
     }
 }
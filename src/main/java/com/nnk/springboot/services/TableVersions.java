@@ -0,0 +1,102 @@
+package com.nnk.springboot.services;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks a version and a last modification time per table, bumped by the services on every write,
+ * so that the list pages can answer a conditional GET with 304 Not Modified without reading the table.
+ * <p>
+ * Versions start from the startup time, so that the ETags of a previous run never match.
+ * They are kept in memory: with several instances, each one has its own versions and a browser
+ * switching instance gets the full page again. Writes made outside of the services, directly in
+ * the database, are not seen.
+ */
+@Service
+public class TableVersions {
+
+    private static final CacheControl LIST_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    /**
+     * The version of a table and the time it was last bumped.
+     */
+    public record Version(long number, Instant lastModified) {
+    }
+
+    private final Clock clock;
+    private final Version initial;
+    private final Map<Class<?>, Version> versions = new ConcurrentHashMap<>();
+
+    public TableVersions() {
+        this(Clock.systemUTC());
+    }
+
+    TableVersions(Clock clock) {
+        this.clock = clock;
+        Instant now = clock.instant();
+        this.initial = new Version(now.toEpochMilli(), now);
+    }
+
+    /**
+     * @param entity the entity class of the table
+     * @return the current version of the table
+     */
+    public Version current(Class<?> entity) {
+        return versions.getOrDefault(entity, initial);
+    }
+
+    /**
+     * Records a write to a table, once the transaction it is part of completes,
+     * or right away outside of a transaction.
+     *
+     * @param entity the entity class of the table
+     */
+    public void bump(Class<?> entity) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    increment(entity);
+                }
+            });
+        } else {
+            increment(entity);
+        }
+    }
+
+    /**
+     * Checks a list page request against the version of its table, and sets the ETag, Last-Modified and
+     * Cache-Control headers of the response. The page also shows the user and their CSRF token,
+     * so the ETag depends on the session as well as on the version, and the page is only cached privately.
+     *
+     * @param entity  the entity class of the listed table
+     * @param request the request, with its If-None-Match and If-Modified-Since headers
+     * @return true if the page is unchanged and the response was set to 304 Not Modified
+     */
+    public boolean checkNotModified(Class<?> entity, ServletWebRequest request) {
+        Version version = current(entity);
+        String etag = "\"" + Long.toHexString(version.number()) + "-"
+                + Integer.toHexString(request.getSessionId().hashCode()) + "\"";
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, LIST_CACHE_CONTROL.getHeaderValue());
+        }
+        return request.checkNotModified(etag, version.lastModified().toEpochMilli());
+    }
+
+    private void increment(Class<?> entity) {
+        Instant now = clock.instant();
+        versions.compute(entity, (key, version) ->
+                new Version((version == null ? initial : version).number() + 1, now));
+    }
+}
@@ -0,0 +1,110 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.repositories.TradeRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the trade blotter as CSV for downstream systems.
+ * Trades are streamed from the database and detached once written,
+ * so memory use does not depend on the number of exported rows.
+ */
+@Service
+public class TradeExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TradeExportService.class);
+
+    static final String HEADER = "tradeId,account,type,buyQuantity,sellQuantity,buyPrice,sellPrice,tradeDate,"
+            + "security,status,trader,benchmark,book,creationName,creationDate,revisionName,revisionDate,"
+            + "dealName,dealType,sourceListId,side";
+
+    private final TradeRepository tradeRepository;
+    private final EntityManager entityManager;
+
+    public TradeExportService(TradeRepository tradeRepository, EntityManager entityManager) {
+        this.tradeRepository = tradeRepository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Writes the matching trades to the output, one CSV line per trade, after a header line.
+     * The header uses the property names accepted by the trade import.
+     *
+     * @param account   only trades of this account, or null for all
+     * @param book      only trades of this book, or null for all
+     * @param tradeDate only trades of this day (UTC), or null for all
+     * @param output    where the CSV is written; flushed but not closed
+     * @return the number of exported trades
+     * @throws IOException if the output cannot be written
+     */
+    @Transactional(readOnly = true)
+    public long exportCsv(String account, String book, LocalDate tradeDate, OutputStream output) throws IOException {
+        Timestamp from = tradeDate == null ? null : Timestamp.from(tradeDate.atStartOfDay(ZoneOffset.UTC).toInstant());
+        Timestamp to = tradeDate == null ? null
+                : Timestamp.from(tradeDate.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write(HEADER);
+        writer.write('\n');
+        long count = 0;
+        try (Stream<Trade> trades = tradeRepository.streamAll(account, book, from, to)) {
+            Iterator<Trade> iterator = trades.iterator();
+            while (iterator.hasNext()) {
+                Trade trade = iterator.next();
+                writeLine(writer, trade);
+                entityManager.detach(trade);
+                count++;
+            }
+        }
+        writer.flush();
+        logger.info("Exported {} trades", count);
+        return count;
+    }
+
+    private static void writeLine(Writer writer, Trade trade) throws IOException {
+        Object[] values = {
+                trade.getTradeId(), trade.getAccount(), trade.getType(),
+                trade.getBuyQuantity(), trade.getSellQuantity(), trade.getBuyPrice(), trade.getSellPrice(),
+                trade.getTradeDate(), trade.getSecurity(), trade.getStatus(), trade.getTrader(),
+                trade.getBenchmark(), trade.getBook(), trade.getCreationName(), trade.getCreationDate(),
+                trade.getRevisionName(), trade.getRevisionDate(), trade.getDealName(), trade.getDealType(),
+                trade.getSourceListId(), trade.getSide()};
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(values[i]));
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * Formats a value as a CSV field: empty for null, ISO-8601 for timestamps,
+     * quoted when it contains a separator, a quote or a line break.
+     */
+    static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof Timestamp timestamp ? timestamp.toInstant().toString() : value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,26 +1,107 @@
 package com.nnk.springboot.services;
 
 import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.dto.ListChange;
+import com.nnk.springboot.dto.TradeSummary;
 import com.nnk.springboot.repositories.TradeRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
 @Service
+@Timed("service.calls")
 public class TradeService {
 
     private final TradeRepository tradeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PositionService positionService;
+    private final TableVersions tableVersions;
 
-    public TradeService(TradeRepository tradeRepository) {
+    public TradeService(TradeRepository tradeRepository, ApplicationEventPublisher eventPublisher,
+                        PositionService positionService, TableVersions tableVersions) {
         this.tradeRepository = tradeRepository;
+        this.eventPublisher = eventPublisher;
+        this.positionService = positionService;
+        this.tableVersions = tableVersions;
     }
 
     public List<Trade> findAll() {
         return tradeRepository.findAll();
     }
 
+    /**
+     * Fetches one page of trades.
+     *
+     * @param pageable the page number, size and sort order
+     * @return the requested page with the total number of trades
+     */
+    public Page<Trade> findAll(Pageable pageable) {
+        return tradeRepository.findAll(pageable);
+    }
+
+    /**
+     * Fetches the trades for the list view, with only the displayed columns.
+     *
+     * @return the summaries of all trades, ordered by id
+     */
+    public List<TradeSummary> findSummaries() {
+        return tradeRepository.findAllSummaries();
+    }
+
     public Trade save(Trade trade) {
-        return tradeRepository.save(trade);
+        Trade saved = tradeRepository.save(trade);
+        positionService.tradeSaved(saved);
+        return published(saved);
+    }
+
+    /**
+     * Saves the account, type and quantity of a trade edited in the form, in a single conditional statement.
+     *
+     * @param trade the edited trade, with the version it was read with
+     * @return the trade, with its new version
+     * @throws ObjectOptimisticLockingFailureException if the trade was changed since it was read
+     * @throws IllegalArgumentException if no trade has this id
+     */
+    public Trade update(Trade trade) {
+        checkUpdated(tradeRepository.updateIfUnchanged(trade), trade);
+        positionService.tradeEdited(trade);
+        return published(trade);
+    }
+
+    /**
+     * Replaces all the fields of a trade, in a single conditional statement.
+     *
+     * @param trade the new state of the trade, with the version it replaces
+     * @return the trade, with its new version
+     * @throws ObjectOptimisticLockingFailureException if the trade was changed since it was read
+     * @throws IllegalArgumentException if no trade has this id
+     */
+    public Trade replace(Trade trade) {
+        checkUpdated(tradeRepository.replaceIfUnchanged(trade), trade);
+        positionService.tradeSaved(trade);
+        return published(trade);
+    }
+
+    private void checkUpdated(int updated, Trade trade) {
+        if (updated == 0) {
+            if (!tradeRepository.existsById(trade.getTradeId())) {
+                throw new IllegalArgumentException("Invalid Trade Id: " + trade.getTradeId());
+            }
+            throw new ObjectOptimisticLockingFailureException(Trade.class, trade.getTradeId());
+        }
+        trade.setVersion(trade.getVersion() + 1);
+    }
+
+    private Trade published(Trade trade) {
+        tableVersions.bump(Trade.class);
+        eventPublisher.publishEvent(ListChange.saved("trade", trade.getTradeId(),
+                new TradeSummary(trade.getTradeId(), trade.getAccount(), trade.getType(), trade.getBuyQuantity())));
+        return trade;
     }
 
     public Trade findById(Integer id) {
@@ -30,5 +111,26 @@ public class TradeService {
 
     public void delete(Trade trade) {
         tradeRepository.delete(trade);
+        tableVersions.bump(Trade.class);
+        if (trade.getTradeId() != null) {
+            positionService.tradeDeleted(trade.getTradeId());
+            eventPublisher.publishEvent(ListChange.deleted("trade", trade.getTradeId()));
+        }
+    }
+
+    /**
+     * Deletes a trade by id with a single statement.
+     *
+     * @param id of the trade to delete
+     * @return true if a trade was deleted, false if none had this id
+     */
+    public boolean deleteById(Integer id) {
+        if (tradeRepository.removeById(id) == 0) {
+            return false;
+        }
+        tableVersions.bump(Trade.class);
+        positionService.tradeDeleted(id);
+        eventPublisher.publishEvent(ListChange.deleted("trade", id));
+        return true;
     }
 }
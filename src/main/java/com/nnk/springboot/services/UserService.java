@@ -1,30 +1,62 @@
 package com.nnk.springboot.services;
 
+import com.nnk.springboot.config.CaffeineUserCache;
 import com.nnk.springboot.domain.User;
 import com.nnk.springboot.repositories.UserRepository;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
 @Service
+@Timed("service.calls")
 public class UserService {
 
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordEncoder passwordEncoder;
+    private final CaffeineUserCache userCache;
 
-    public UserService(UserRepository userRepository, BCryptPasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       CaffeineUserCache userCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userCache = userCache;
     }
 
     public List<User> findAll() {
         return userRepository.findAll();
     }
 
+    /**
+     * Fetches one page of users.
+     *
+     * @param pageable the page number, size and sort order
+     * @return the requested page with the total number of users
+     */
+    public Page<User> findAll(Pageable pageable) {
+        return userRepository.findAll(pageable);
+    }
+
+    /**
+     * Saves a user with an encoded password and evicts it from the login cache.
+     * An updated user may have changed its username, so the whole cache is evicted then.
+     *
+     * @param user the user to save, with a raw password
+     * @return the saved user
+     */
     public User save(User user) {
+        boolean created = user.getId() == null;
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        if (created) {
+            userCache.removeUserFromCache(saved.getUsername());
+        } else {
+            userCache.removeAllUsersFromCache();
+        }
+        return saved;
     }
 
     public User findById(Integer id) {
@@ -34,5 +66,20 @@ public class UserService {
 
     public void delete(User user) {
         userRepository.delete(user);
+        userCache.removeUserFromCache(user.getUsername());
+    }
+
+    /**
+     * Deletes a user by id with a single statement.
+     *
+     * @param id of the user to delete
+     * @return true if a user was deleted, false if none had this id
+     */
+    public boolean deleteById(Integer id) {
+        boolean deleted = userRepository.removeById(id) > 0;
+        if (deleted) {
+            userCache.removeAllUsersFromCache();
+        }
+        return deleted;
     }
 }
@@ -0,0 +1,278 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.dto.CurvePointSummary;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable yield curve: the points of one curve id and as-of date, sorted by term.
+ * Terms are in years and values are continuously compounded zero rates in percent.
+ * Points are held in primitive arrays and the cubic spline coefficients are computed once,
+ * so that a lookup is a binary search followed by a few arithmetic operations, without allocation.
+ * Terms outside of the curve take the value of the nearest point.
+ */
+public final class YieldCurve {
+
+    /**
+     * How values between two points are computed.
+     */
+    public enum Interpolation {
+        LINEAR, CUBIC_SPLINE
+    }
+
+    private final int[] ids;
+    private final double[] terms;
+    private final double[] values;
+    private final double[] secondDerivatives;
+
+    private YieldCurve(int[] ids, double[] terms, double[] values) {
+        this.ids = ids;
+        this.terms = terms;
+        this.values = values;
+        this.secondDerivatives = naturalSplineSecondDerivatives(terms, values);
+    }
+
+    /**
+     * Builds a curve from its points.
+     * When several points have the same term, the last one is kept.
+     *
+     * @param points the points of the curve, sorted by term
+     * @return the curve
+     */
+    public static YieldCurve of(List<CurvePointSummary> points) {
+        int[] ids = new int[points.size()];
+        double[] terms = new double[points.size()];
+        double[] values = new double[points.size()];
+        int size = 0;
+        for (CurvePointSummary point : points) {
+            if (size > 0 && terms[size - 1] == point.term()) {
+                size--;
+            } else if (size > 0 && terms[size - 1] > point.term()) {
+                throw new IllegalArgumentException("Curve points must be sorted by term");
+            }
+            ids[size] = point.id();
+            terms[size] = point.term();
+            values[size] = point.value();
+            size++;
+        }
+        return new YieldCurve(Arrays.copyOf(ids, size), Arrays.copyOf(terms, size), Arrays.copyOf(values, size));
+    }
+
+    public int size() {
+        return terms.length;
+    }
+
+    public boolean isEmpty() {
+        return terms.length == 0;
+    }
+
+    /**
+     * Tells whether the curve holds the given point.
+     *
+     * @param id the ID of the curve point
+     * @return true if the point is part of the curve
+     */
+    public boolean contains(int id) {
+        return indexOf(id) >= 0;
+    }
+
+    /**
+     * Returns the ID of the point at the given index, 0 being the shortest term.
+     */
+    public int idAt(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Returns the term of the point at the given index, 0 being the shortest term.
+     */
+    public double termAt(int index) {
+        return terms[index];
+    }
+
+    /**
+     * Returns the value of the point at the given index, 0 being the shortest term.
+     */
+    public double valueAt(int index) {
+        return values[index];
+    }
+
+    /**
+     * Computes the zero rate at the given term.
+     *
+     * @param term          in years
+     * @param interpolation how to compute values between two points
+     * @return the zero rate in percent
+     * @throws IllegalStateException if the curve has no point
+     */
+    public double value(double term, Interpolation interpolation) {
+        return interpolation == Interpolation.LINEAR ? linear(term) : cubicSpline(term);
+    }
+
+    /**
+     * Computes the zero rate at the given term, linearly interpolated between the two nearest points.
+     *
+     * @param term in years
+     * @return the zero rate in percent
+     * @throws IllegalStateException if the curve has no point
+     */
+    public double linear(double term) {
+        int i = lowerIndex(term);
+        if (i < 0) {
+            return values[0];
+        }
+        if (i == terms.length - 1) {
+            return values[i];
+        }
+        double weight = (term - terms[i]) / (terms[i + 1] - terms[i]);
+        return values[i] + weight * (values[i + 1] - values[i]);
+    }
+
+    /**
+     * Computes the zero rate at the given term on the natural cubic spline going through all points.
+     *
+     * @param term in years
+     * @return the zero rate in percent
+     * @throws IllegalStateException if the curve has no point
+     */
+    public double cubicSpline(double term) {
+        int i = lowerIndex(term);
+        if (i < 0) {
+            return values[0];
+        }
+        if (i == terms.length - 1) {
+            return values[i];
+        }
+        double h = terms[i + 1] - terms[i];
+        double a = (terms[i + 1] - term) / h;
+        double b = (term - terms[i]) / h;
+        return a * values[i] + b * values[i + 1]
+                + ((a * a * a - a) * secondDerivatives[i] + (b * b * b - b) * secondDerivatives[i + 1]) * h * h / 6;
+    }
+
+    /**
+     * Computes the discount factor at the given term, exp(-rate * term).
+     *
+     * @param term          in years
+     * @param interpolation how to compute the zero rate between two points
+     * @return the present value of 1 paid at the term
+     * @throws IllegalStateException if the curve has no point
+     */
+    public double discountFactor(double term, Interpolation interpolation) {
+        return Math.exp(-value(term, interpolation) / 100 * term);
+    }
+
+    /**
+     * Returns a curve where the given point is added, or replaces the point with the same id.
+     * A point already at the same term is replaced as well.
+     *
+     * @param id    the ID of the curve point
+     * @param term  in years
+     * @param value the zero rate in percent
+     * @return the updated curve, this one if the point is already there
+     */
+    public YieldCurve withPoint(int id, double term, double value) {
+        int existing = indexOf(id);
+        if (existing >= 0 && terms[existing] == term && values[existing] == value) {
+            return this;
+        }
+        YieldCurve curve = existing >= 0 ? without(existing) : this;
+        int index = Arrays.binarySearch(curve.terms, term);
+        if (index >= 0) {
+            curve = curve.without(index);
+        } else {
+            index = -index - 1;
+        }
+        return curve.with(index, id, term, value);
+    }
+
+    /**
+     * Returns a curve without the given point.
+     *
+     * @param id the ID of the curve point
+     * @return the updated curve, this one if the point is not there
+     */
+    public YieldCurve withoutPoint(int id) {
+        int index = indexOf(id);
+        return index < 0 ? this : without(index);
+    }
+
+    private YieldCurve with(int index, int id, double term, double value) {
+        int size = terms.length + 1;
+        int[] newIds = new int[size];
+        double[] newTerms = new double[size];
+        double[] newValues = new double[size];
+        System.arraycopy(ids, 0, newIds, 0, index);
+        System.arraycopy(terms, 0, newTerms, 0, index);
+        System.arraycopy(values, 0, newValues, 0, index);
+        newIds[index] = id;
+        newTerms[index] = term;
+        newValues[index] = value;
+        System.arraycopy(ids, index, newIds, index + 1, size - index - 1);
+        System.arraycopy(terms, index, newTerms, index + 1, size - index - 1);
+        System.arraycopy(values, index, newValues, index + 1, size - index - 1);
+        return new YieldCurve(newIds, newTerms, newValues);
+    }
+
+    private YieldCurve without(int index) {
+        int size = terms.length - 1;
+        int[] newIds = new int[size];
+        double[] newTerms = new double[size];
+        double[] newValues = new double[size];
+        System.arraycopy(ids, 0, newIds, 0, index);
+        System.arraycopy(terms, 0, newTerms, 0, index);
+        System.arraycopy(values, 0, newValues, 0, index);
+        System.arraycopy(ids, index + 1, newIds, index, size - index);
+        System.arraycopy(terms, index + 1, newTerms, index, size - index);
+        System.arraycopy(values, index + 1, newValues, index, size - index);
+        return new YieldCurve(newIds, newTerms, newValues);
+    }
+
+    private int indexOf(int id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the last point whose term is not after the given one.
+     *
+     * @return its index, or -1 if the term is before the first point
+     */
+    private int lowerIndex(double term) {
+        if (terms.length == 0) {
+            throw new IllegalStateException("The curve has no point");
+        }
+        int index = Arrays.binarySearch(terms, term);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Solves the tridiagonal system of the natural cubic spline,
+     * whose second derivative is zero at both ends.
+     */
+    private static double[] naturalSplineSecondDerivatives(double[] terms, double[] values) {
+        int n = terms.length;
+        double[] secondDerivatives = new double[n];
+        if (n < 3) {
+            return secondDerivatives;
+        }
+        double[] c = new double[n];
+        for (int i = 1; i < n - 1; i++) {
+            double hPrevious = terms[i] - terms[i - 1];
+            double hNext = terms[i + 1] - terms[i];
+            double diagonal = 2 * (hPrevious + hNext) - hPrevious * c[i - 1];
+            c[i] = hNext / diagonal;
+            double rightHandSide = 6 * ((values[i + 1] - values[i]) / hNext - (values[i] - values[i - 1]) / hPrevious);
+            secondDerivatives[i] = (rightHandSide - hPrevious * secondDerivatives[i - 1]) / diagonal;
+        }
+        for (int i = n - 2; i > 0; i--) {
+            secondDerivatives[i] -= c[i] * secondDerivatives[i + 1];
+        }
+        return secondDerivatives;
+    }
+}
@@ -0,0 +1,125 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.domain.CurvePoint;
+import com.nnk.springboot.repositories.CurvePointRepository;
+import com.nnk.springboot.services.YieldCurve.Interpolation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps the yield curves built from the curve points in memory.
+ * A curve is loaded from the database the first time it is used. Afterwards it is
+ * updated point by point when a curve point is saved or deleted, instead of being reloaded.
+ */
+@Service
+public class YieldCurveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(YieldCurveService.class);
+
+    /**
+     * Identifies a curve: its curve id and as-of date, which may be null.
+     */
+    record CurveKey(int curveId, Instant asOfDate) {
+
+        static CurveKey of(int curveId, Timestamp asOfDate) {
+            return new CurveKey(curveId, asOfDate == null ? null : asOfDate.toInstant());
+        }
+    }
+
+    private final CurvePointRepository curvePointRepository;
+    private final ConcurrentMap<CurveKey, YieldCurve> curves = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, CurveKey> pointCurves = new ConcurrentHashMap<>();
+
+    public YieldCurveService(CurvePointRepository curvePointRepository) {
+        this.curvePointRepository = curvePointRepository;
+    }
+
+    /**
+     * Fetches a curve, loading it from the database the first time.
+     *
+     * @param curveId  the curve id
+     * @param asOfDate the as-of date, or null for the points without one
+     * @return the curve, empty if it has no point
+     */
+    public YieldCurve getCurve(int curveId, Timestamp asOfDate) {
+        CurveKey key = CurveKey.of(curveId, asOfDate);
+        YieldCurve curve = curves.get(key);
+        return curve != null ? curve : curves.computeIfAbsent(key, this::load);
+    }
+
+    /**
+     * Computes the zero rate of a curve at the given term.
+     *
+     * @param curveId       the curve id
+     * @param asOfDate      the as-of date, or null for the points without one
+     * @param term          in years
+     * @param interpolation how to compute values between two points
+     * @return the zero rate in percent
+     * @throws IllegalStateException if the curve has no point
+     */
+    public double value(int curveId, Timestamp asOfDate, double term, Interpolation interpolation) {
+        return getCurve(curveId, asOfDate).value(term, interpolation);
+    }
+
+    /**
+     * Computes the discount factor of a curve at the given term.
+     *
+     * @param curveId       the curve id
+     * @param asOfDate      the as-of date, or null for the points without one
+     * @param term          in years
+     * @param interpolation how to compute the zero rate between two points
+     * @return the present value of 1 paid at the term
+     * @throws IllegalStateException if the curve has no point
+     */
+    public double discountFactor(int curveId, Timestamp asOfDate, double term, Interpolation interpolation) {
+        return getCurve(curveId, asOfDate).discountFactor(term, interpolation);
+    }
+
+    /**
+     * Applies a saved curve point to the loaded curves.
+     * It is removed from its previous curve if its curve id or as-of date changed.
+     *
+     * @param curvePoint the saved curve point, with its id
+     */
+    public void pointSaved(CurvePoint curvePoint) {
+        int id = curvePoint.getId();
+        CurveKey key = CurveKey.of(curvePoint.getCurveId(), curvePoint.getAsOfDate());
+        CurveKey previous = pointCurves.remove(id);
+        if (previous != null && !previous.equals(key)) {
+            curves.computeIfPresent(previous, (k, curve) -> curve.withoutPoint(id));
+        }
+        curves.computeIfPresent(key, (k, curve) -> {
+            pointCurves.put(id, key);
+            return curve.withPoint(id, curvePoint.getTerm(), curvePoint.getValue());
+        });
+    }
+
+    /**
+     * Removes a deleted curve point from the loaded curves.
+     *
+     * @param id the ID of the deleted curve point
+     */
+    public void pointDeleted(int id) {
+        CurveKey previous = pointCurves.remove(id);
+        if (previous != null) {
+            curves.computeIfPresent(previous, (k, curve) -> curve.withoutPoint(id));
+        }
+    }
+
+    private YieldCurve load(CurveKey key) {
+        YieldCurve curve = YieldCurve.of(key.asOfDate() == null
+                ? curvePointRepository.findCurveWithoutDate(key.curveId())
+                : curvePointRepository.findCurve(key.curveId(), Timestamp.from(key.asOfDate())));
+        for (int i = 0; i < curve.size(); i++) {
+            pointCurves.put(curve.idAt(i), key);
+        }
+        logger.debug("Loaded curve {} as of {} with {} points", key.curveId(), key.asOfDate(), curve.size());
+        return curve;
+    }
+}
@@ -0,0 +1,27 @@
+-- tinyint ids stopped every table at 127 rows.
+-- CurveId and orderNumber are Java ints, status and the rule texts were shorter than the values they hold.
+
+ALTER TABLE bidlist
+  MODIFY BidListId BIGINT NOT NULL AUTO_INCREMENT,
+  MODIFY status VARCHAR(125);
+
+ALTER TABLE trade
+  MODIFY TradeId BIGINT NOT NULL AUTO_INCREMENT,
+  MODIFY status VARCHAR(125);
+
+ALTER TABLE curvepoint
+  MODIFY Id BIGINT NOT NULL AUTO_INCREMENT,
+  MODIFY CurveId INT;
+
+ALTER TABLE rating
+  MODIFY Id BIGINT NOT NULL AUTO_INCREMENT,
+  MODIFY orderNumber INT;
+
+ALTER TABLE rulename
+  MODIFY Id BIGINT NOT NULL AUTO_INCREMENT,
+  MODIFY json VARCHAR(1024),
+  MODIFY sqlStr VARCHAR(1024),
+  MODIFY sqlPart VARCHAR(1024);
+
+ALTER TABLE users
+  MODIFY Id BIGINT NOT NULL AUTO_INCREMENT;
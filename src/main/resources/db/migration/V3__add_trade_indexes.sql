@@ -0,0 +1,5 @@
+-- Filters of the trade blotter export: by account, by book, by trade date range.
+
+CREATE INDEX idx_trade_account_trade_date ON trade (account, tradeDate);
+CREATE INDEX idx_trade_book_trade_date ON trade (book, tradeDate);
+CREATE INDEX idx_trade_trade_date ON trade (tradeDate);
@@ -0,0 +1,4 @@
+-- Optimistic locking of bids and trades: every update checks and increments the version.
+
+ALTER TABLE bidlist ADD COLUMN version INT NOT NULL DEFAULT 0;
+ALTER TABLE trade ADD COLUMN version INT NOT NULL DEFAULT 0;
@@ -0,0 +1,13 @@
+-- Ids of bids and trades are allocated by Hibernate in blocks of 50 from this table, so that inserts can be batched.
+-- Hibernate reads next_val as the last id of its first block, which starts 49 ids below it:
+-- the seed is the highest existing id plus 50, so that the first new id follows the existing rows.
+
+CREATE TABLE id_generator (
+  name VARCHAR(64) NOT NULL,
+  next_val BIGINT,
+
+  PRIMARY KEY (name)
+);
+
+INSERT INTO id_generator(name, next_val) SELECT 'bidlist', COALESCE(MAX(BidListId) + 50, 1) FROM bidlist;
+INSERT INTO id_generator(name, next_val) SELECT 'trade', COALESCE(MAX(TradeId) + 50, 1) FROM trade;
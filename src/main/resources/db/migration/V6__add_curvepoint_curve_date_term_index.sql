@@ -0,0 +1,3 @@
+-- Reads of one curve: all points of curve X as of date D, ordered by term.
+
+CREATE INDEX idx_curvepoint_curve_date_term ON curvepoint (CurveId, asOfDate, term);
@@ -0,0 +1,4 @@
+-- Logins look users up by username, which must identify a single user.
+-- Fails on a database holding duplicate usernames: they must be renamed or removed first.
+
+ALTER TABLE users ADD CONSTRAINT uk_users_username UNIQUE (username);
@@ -0,0 +1,79 @@
+/*
+ * Applies the changes pushed by the server to a list table, instead of reloading the page.
+ * The table body names the stream in data-stream, the displayed fields in data-fields
+ * and the base of the row links in data-href. Rows saved meanwhile are appended only if
+ * data-append is true, on the last page of a paged list.
+ * When the stream is closed, the browser reconnects and the page is reloaded to catch up.
+ */
+(function () {
+    var body = document.querySelector('tbody[data-stream]');
+    if (!body || !window.EventSource) {
+        return;
+    }
+    var fields = body.dataset.fields.split(',');
+    var href = body.dataset.href;
+    var append = body.dataset.append === 'true';
+    var opened = false;
+
+    var source = new EventSource(body.dataset.stream);
+    source.onopen = function () {
+        if (opened) {
+            window.location.reload();
+        }
+        opened = true;
+    };
+    source.addEventListener('changes', function (event) {
+        JSON.parse(event.data).forEach(apply);
+    });
+
+    function apply(change) {
+        var row = body.querySelector('tr[data-id="' + change.id + '"]');
+        if (change.row === null) {
+            if (row) {
+                row.remove();
+            }
+            return;
+        }
+        if (!row) {
+            if (!append) {
+                return;
+            }
+            row = createRow(change.id);
+            body.appendChild(row);
+        }
+        fields.forEach(function (field, i) {
+            row.cells[i].textContent = format(change.row[field]);
+        });
+    }
+
+    function createRow(id) {
+        var row = document.createElement('tr');
+        row.dataset.id = id;
+        fields.forEach(function () {
+            row.insertCell();
+        });
+        row.cells[0].style.width = '10%';
+        var actions = row.insertCell();
+        actions.style.width = '15%';
+        actions.className = 'text-center';
+        actions.appendChild(link(href + 'update/' + id, 'Edit'));
+        actions.appendChild(document.createTextNode(' | '));
+        actions.appendChild(link(href + 'delete/' + id, 'Delete'));
+        return row;
+    }
+
+    function link(url, text) {
+        var a = document.createElement('a');
+        a.href = url;
+        a.textContent = text;
+        return a;
+    }
+
+    // numbers as Java prints the doubles of the server-rendered rows
+    function format(value) {
+        if (typeof value === 'number' && Number.isInteger(value)) {
+            return value.toFixed(1);
+        }
+        return value === null ? '' : String(value);
+    }
+})();
@@ -0,0 +1,81 @@
+package com.nnk.springboot;
+
+import com.nnk.springboot.domain.Bid;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.repositories.BidRepository;
+import com.nnk.springboot.repositories.TradeRepository;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts on a MySQL container holding a database created from the former doc/data.sql, with rows.
+ * At startup the database is baselined at V1 and gets the later migrations, then the entities validate against it.
+ * Skipped when no Docker daemon is available.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+public class FlywayBaselineTest {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.4").withInitScript("db/legacy/data.sql");
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Test
+    public void legacyDatabase_isBaselinedThenMigrated() {
+        MigrationInfo[] applied = flyway.info().applied();
+
+        assertEquals("1", applied[0].getVersion().getVersion());
+        assertTrue(applied[0].getType().isBaseline());
+        assertEquals(List.of("2", "3", "4", "5", "6", "7"), Arrays.stream(applied).skip(1)
+                .map(migration -> migration.getVersion().getVersion()).toList());
+        assertEquals(0, flyway.info().pending().length);
+    }
+
+    @Test
+    public void idGenerator_continuesAfterExistingRows() {
+        assertEquals(170, jdbcTemplate.queryForObject(
+                "SELECT next_val FROM id_generator WHERE name = 'bidlist'", Long.class));
+
+        assertEquals(121, bidRepository.save(new Bid("account", "type", 10d)).getBidListId());
+        assertEquals(43, tradeRepository.save(new Trade("account", "type", 10d)).getTradeId());
+    }
+
+    @Test
+    public void addedIndexes_exist() {
+        List<String> indexes = jdbcTemplate.queryForList("SELECT DISTINCT INDEX_NAME FROM information_schema.STATISTICS"
+                + " WHERE TABLE_SCHEMA = DATABASE()", String.class);
+
+        assertTrue(indexes.containsAll(List.of("idx_curvepoint_curve_date_term", "uk_users_username")));
+    }
+
+    @Test
+    public void existingRows_areKept() {
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM curvepoint", Integer.class));
+    }
+}
@@ -0,0 +1,97 @@
+package com.nnk.springboot;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the migrations on an empty MySQL container at startup, then checks the resulting schema.
+ * The application context loading also means that the entities validate against it.
+ * Skipped when no Docker daemon is available.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+public class FlywayMigrationTest {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.4");
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void migrations_areAllApplied() {
+        MigrationInfoService info = flyway.info();
+
+        assertEquals(0, info.pending().length);
+        assertEquals("7", info.current().getVersion().getVersion());
+    }
+
+    @Test
+    public void ids_areBigint() {
+        List<String> types = jdbcTemplate.queryForList("SELECT DATA_TYPE FROM information_schema.COLUMNS"
+                + " WHERE TABLE_SCHEMA = DATABASE() AND COLUMN_KEY = 'PRI' AND EXTRA LIKE '%auto_increment%'",
+                String.class);
+
+        assertEquals(6, types.size());
+        assertTrue(types.stream().allMatch("bigint"::equals));
+    }
+
+    @Test
+    public void columns_holdValuesBeyondFormerLimits() {
+        jdbcTemplate.update("INSERT INTO rating (Id, moodysRating, sandPRating, fitchRating, orderNumber)"
+                + " VALUES (1000, 'Aaa', 'AAA', 'AAA', 300)");
+        jdbcTemplate.update("INSERT INTO trade (TradeId, account, type, status) VALUES (1000, 'account', 'type', ?)",
+                "PARTIALLY_FILLED_PENDING");
+
+        assertEquals(300, jdbcTemplate.queryForObject("SELECT orderNumber FROM rating WHERE Id = 1000", Integer.class));
+        assertEquals("PARTIALLY_FILLED_PENDING",
+                jdbcTemplate.queryForObject("SELECT status FROM trade WHERE TradeId = 1000", String.class));
+    }
+
+    @Test
+    public void queryIndexes_exist() {
+        List<String> indexes = jdbcTemplate.queryForList("SELECT DISTINCT INDEX_NAME FROM information_schema.STATISTICS"
+                + " WHERE TABLE_SCHEMA = DATABASE()", String.class);
+
+        assertTrue(indexes.containsAll(List.of("idx_curvepoint_curve_date_term", "idx_trade_account_trade_date",
+                "idx_trade_book_trade_date", "idx_trade_trade_date", "uk_users_username")));
+    }
+
+    @Test
+    public void versions_startAtZero() {
+        jdbcTemplate.update("INSERT INTO bidlist (BidListId, account, type) VALUES (1000, 'account', 'type')");
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT version FROM bidlist WHERE BidListId = 1000", Integer.class));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.COLUMNS"
+                + " WHERE TABLE_SCHEMA = DATABASE() AND COLUMN_NAME = 'version'"
+                + " AND TABLE_NAME IN ('bidlist', 'trade')", Integer.class));
+    }
+
+    @Test
+    public void idGenerator_startsAtOneOnEmptyTables() {
+        assertEquals(List.of(1L, 1L), jdbcTemplate.queryForList(
+                "SELECT next_val FROM id_generator WHERE name IN ('bidlist', 'trade')", Long.class));
+    }
+
+    @Test
+    public void users_areSeeded() {
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class));
+    }
+}
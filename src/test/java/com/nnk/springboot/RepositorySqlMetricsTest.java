@@ -0,0 +1,58 @@
+package com.nnk.springboot;
+
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.repositories.TradeRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the statements run by the repositories are measured and attributed to their calls.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class RepositorySqlMetricsTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Test
+    public void dataSource_isMeasured() {
+        assertInstanceOf(ProxyDataSource.class, dataSource);
+    }
+
+    @Test
+    public void repositoryCalls_areMeasured() {
+        Trade trade = tradeRepository.save(new Trade("Account Metrics", "Type Metrics", 10d));
+        double statementsBefore = summary("sql.repository.statements", "findById").totalAmount();
+        double rowsBefore = summary("sql.repository.rows", "findById").totalAmount();
+
+        tradeRepository.findById(trade.getTradeId());
+        tradeRepository.removeById(trade.getTradeId());
+
+        assertEquals(1, summary("sql.repository.statements", "findById").totalAmount() - statementsBefore);
+        assertEquals(1, summary("sql.repository.rows", "findById").totalAmount() - rowsBefore);
+        assertTrue(summary("sql.repository.rows", "removeById").totalAmount() >= 1);
+        assertTrue(meterRegistry.get("sql.statements").tag("type", "select").timer().count() > 0);
+    }
+
+    private DistributionSummary summary(String name, String method) {
+        return meterRegistry.summary(name, "repository", "TradeRepository", "method", method);
+    }
+}
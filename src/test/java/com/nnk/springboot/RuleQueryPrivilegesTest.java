@@ -0,0 +1,122 @@
+package com.nnk.springboot;
+
+import com.nnk.springboot.config.RuleQueryDataSourceConfig;
+import com.nnk.springboot.domain.Rule;
+import com.nnk.springboot.repositories.RuleRepository;
+import com.nnk.springboot.services.RuleQueryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts on a MySQL container where doc/rule_query_user.sql is run as root once the tables are migrated,
+ * and checks that the rule queries run as that user: the business tables are readable, the users
+ * and the files of the server are not, whatever gets past the check of the SQL.
+ * Skipped when no Docker daemon is available.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+public class RuleQueryPrivilegesTest {
+
+    private static final String RULE_QUERY_USER = "rule_query";
+    private static final String RULE_QUERY_PASSWORD = "change-me";
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.4");
+
+    @DynamicPropertySource
+    static void ruleQueryDataSource(DynamicPropertyRegistry registry) {
+        registry.add("rule.query.datasource.url", () -> mysql.getJdbcUrl() + "?useCursorFetch=true");
+        registry.add("rule.query.datasource.username", () -> RULE_QUERY_USER);
+        registry.add("rule.query.datasource.password", () -> RULE_QUERY_PASSWORD);
+    }
+
+    @Autowired
+    private RuleQueryService ruleQueryService;
+
+    @Autowired
+    private RuleRepository ruleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier(RuleQueryDataSourceConfig.QUALIFIER)
+    private DataSource ruleQueryDataSource;
+
+    @BeforeEach
+    public void createRuleQueryUser() throws Exception {
+        String script = Files.readString(Path.of("doc/rule_query_user.sql"));
+        try (Connection connection = DriverManager.getConnection(mysql.getJdbcUrl(), "root", mysql.getPassword());
+             Statement statement = connection.createStatement()) {
+            for (String sql : script.replaceAll("(?m)^--.*$", "").split(";")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+
+    @AfterEach
+    public void cleanup() {
+        ruleRepository.deleteAll();
+    }
+
+    @Test
+    public void ruleQuery_readsBusinessTables() throws Exception {
+        Rule rule = ruleRepository.save(new Rule("name", "description", "json", "template",
+                "select name from rulename", "sqlPart"));
+
+        assertEquals("[{\"name\":\"name\"}]", execute(rule));
+    }
+
+    @Test
+    public void ruleQuery_cannotReadUsers() {
+        Rule rule = ruleRepository.save(new Rule("name", "description", "json", "template",
+                "select username, password from users", "sqlPart"));
+
+        assertThrows(DataAccessException.class, () -> execute(rule));
+        assertNotNull(jdbcTemplate.queryForObject("select count(*) from users", Integer.class));
+    }
+
+    @Test
+    public void ruleQueryUser_hasNoGlobalPrivilegeNorWrite() {
+        JdbcTemplate ruleQueries = new JdbcTemplate(ruleQueryDataSource);
+
+        assertEquals(List.of("USAGE"), ruleQueries.queryForList(
+                "select privilege_type from information_schema.user_privileges", String.class));
+        assertNull(ruleQueries.queryForObject("select load_file('/etc/passwd')", String.class));
+        assertThrows(DataAccessException.class, () -> ruleQueries.update("delete from rulename"));
+    }
+
+    private String execute(Rule rule) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ruleQueryService.execute(ruleQueryService.prepare(rule, Map.of()), out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,90 @@
+package com.nnk.springboot;
+
+import com.nnk.springboot.domain.Rating;
+import com.nnk.springboot.dto.RatingSummary;
+import com.nnk.springboot.services.RatingService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Checks that reference data is served from the second-level and query caches,
+ * and that writes through the services are visible right away.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RatingService ratingService;
+
+    private Statistics statistics;
+    private Rating rating;
+
+    @BeforeEach
+    public void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        rating = ratingService.save(new Rating("Moodys Cache", "SandP Cache", "Fitch Cache", 10));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ratingService.deleteById(rating.getId());
+    }
+
+    @Test
+    public void findSummaries_twice_shouldHitQueryCache() {
+        ratingService.findSummaries();
+        statistics.clear();
+
+        ratingService.findSummaries();
+
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findSummaries_afterUpdate_shouldReturnUpdatedRating() {
+        ratingService.findSummaries();
+        rating.setOrderNumber(20);
+        ratingService.save(rating);
+
+        assertEquals(20, ratingService.findSummaries().stream()
+                .filter(summary -> summary.id().equals(rating.getId()))
+                .mapToInt(RatingSummary::orderNumber)
+                .findFirst().orElseThrow());
+    }
+
+    @Test
+    public void findById_shouldHitSecondLevelCache() {
+        ratingService.findById(rating.getId());
+        statistics.clear();
+
+        ratingService.findById(rating.getId());
+
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findById_afterDelete_shouldNotFindRating() {
+        Integer id = rating.getId();
+        ratingService.findById(id);
+
+        ratingService.deleteById(id);
+
+        assertFalse(entityManagerFactory.getCache().contains(Rating.class, id));
+    }
+}
@@ -8,14 +8,18 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.ArrayList;
+
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
 import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
@@ -30,7 +34,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 public class SecurityTest {
 
     @Autowired
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordEncoder passwordEncoder;
 
     @Autowired
     private MockMvc mockMvc;
@@ -83,6 +87,18 @@ public class SecurityTest {
                 .andExpect(redirectedUrl("http://localhost/login"));
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/api/v1/bids", "/api/v1/curvePoints", "/api/v1/ratings",
+            "/api/v1/rules", "/api/v1/trades", "/api/v1/users" })
+    @WithAnonymousUser
+    public void anonymousUser_isUnauthorizedOnApiTest(String url) throws Exception {
+        mockMvc.perform(get(url))
+                .andDo(print())
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().exists("WWW-Authenticate"));
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {
             "/bid/add", "/bid/list", "/bid/update/1",
@@ -94,6 +110,7 @@ public class SecurityTest {
     public void userOrAdmin_isOkTest(String url) throws Exception {
 
         when(bidService.findById(1)).thenReturn((new Bid()));
+        when(bidService.findPage(any())).thenReturn(new SliceImpl<>(new ArrayList<>()));
         when(curvePointService.findById(1)).thenReturn((new CurvePoint()));
         when(ratingService.findById(1)).thenReturn((new Rating()));
         when(ruleService.findById(1)).thenReturn((new Rule()));
@@ -0,0 +1,347 @@
+package com.nnk.springboot;
+
+import com.nnk.springboot.domain.Bid;
+import com.nnk.springboot.domain.CurvePoint;
+import com.nnk.springboot.domain.Rating;
+import com.nnk.springboot.domain.Rule;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.domain.User;
+import com.nnk.springboot.repositories.BidRepository;
+import com.nnk.springboot.repositories.CurvePointRepository;
+import com.nnk.springboot.repositories.RatingRepository;
+import com.nnk.springboot.repositories.RuleRepository;
+import com.nnk.springboot.repositories.TradeRepository;
+import com.nnk.springboot.repositories.UserRepository;
+import com.nnk.springboot.services.TradeService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the number of SQL statements issued by the write endpoints of the six controllers,
+ * so that no write path goes back to re-reading whole tables.
+ * The forms that save through the repository merge a detached entity: one select by id, then one update.
+ * The second-level cache is emptied first, so that the select does not depend on what it holds.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class WriteStatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private TradeService tradeService;
+
+    @Autowired
+    private CurvePointRepository curvePointRepository;
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private RuleRepository ruleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private void clearStatisticsAndCache() {
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void bidValidate_shouldOnlyInsert() throws Exception {
+        // ids come from a pooled table generator, take one now so the block is already fetched
+        bidRepository.deleteById(bidRepository.save(new Bid("Account Test", "Type Test", 10d)).getBidListId());
+        statistics.clear();
+        Bid bid = new Bid("Account Test", "Type Test", 10d);
+
+        mockMvc.perform(post("/bid/validate")
+                        .flashAttr("bid", bid)
+                        .with(csrf().asHeader()))
+                .andExpect(status().is3xxRedirection());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        bidRepository.deleteById(bid.getBidListId());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void bidUpdate_shouldOnlyUpdateRowIfUnchanged() throws Exception {
+        Bid bid = bidRepository.save(new Bid("Account Test", "Type Test", 10d));
+        statistics.clear();
+        bid.setBidQuantity(20d);
+
+        mockMvc.perform(post("/bid/update/{id}", bid.getBidListId())
+                        .flashAttr("bid", bid)
+                        .with(csrf().asHeader()))
+                .andExpect(status().is3xxRedirection());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(20d, bidRepository.findById(bid.getBidListId()).orElseThrow().getBidQuantity());
+        bidRepository.deleteById(bid.getBidListId());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void bidDelete_shouldOnlyDeleteRow() throws Exception {
+        Bid bid = bidRepository.save(new Bid("Account Test", "Type Test", 10d));
+        statistics.clear();
+
+        mockMvc.perform(get("/bid/delete/{id}", bid.getBidListId()))
+                .andExpect(status().is3xxRedirection());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void tradeValidate_shouldOnlyInsert() throws Exception {
+        // ids come from a pooled table generator, take one now so the block is already fetched
+        tradeRepository.deleteById(tradeRepository.save(new Trade("Account Test", "Type Test", 10d)).getTradeId());
+        statistics.clear();
+        Trade trade = new Trade("Account Test", "Type Test", 10d);
+
+        mockMvc.perform(post("/trade/validate")
+                        .flashAttr("trade", trade)
+                        .with(csrf().asHeader()))
+                .andExpect(status().is3xxRedirection());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        tradeRepository.deleteById(trade.getTradeId());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void tradeDelete_shouldOnlyDeleteRow() throws Exception {
+        Trade trade = tradeRepository.save(new Trade("Account Test", "Type Test", 10d));
+        statistics.clear();
+
+        mockMvc.perform(get("/trade/delete/{id}", trade.getTradeId()))
+                .andExpect(status().is3xxRedirection());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void tradeUpdate_shouldOnlyUpdateRowIfUnchanged() throws Exception {
+        // saved through the service, so that built positions already hold the trade and are not reloaded
+        Trade trade = tradeService.save(new Trade("Account Test", "Type Test", 10d));
+        statistics.clear();
+        trade.setBuyQuantity(20d);
+
+        mockMvc.perform(post("/trade/update/{id}", trade.getTradeId())
+                        .flashAttr("trade", trade)
+                        .with(csrf().asHeader()))
+                .andExpect(status().is3xxRedirection());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(20d, tradeRepository.findById(trade.getTradeId()).orElseThrow().getBuyQuantity());
+        tradeService.deleteById(trade.getTradeId());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void curvePointValidate_shouldOnlyInsert() throws Exception {
+        CurvePoint curvePoint = new CurvePoint(10, 1d, 2d);
+
+        mockMvc.perform(post("/curvePoint/validate")
+                        .flashAttr("curvePoint", curvePoint)
+                        .with(csrf().asHeader()))
+                .andExpect(status().is3xxRedirection());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        curvePointRepository.deleteById(curvePoint.getId());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void curvePointUpdate_shouldOnlyReadAndUpdateRow() throws Exception {
+        CurvePoint curvePoint = curvePointRepository.save(new CurvePoint(10, 1d, 2d));
+        clearStatisticsAndCache();
+        curvePoint.setValue(3d);
+
+        mockMvc.perform(post("/curvePoint/update/{id}", curvePoint.getId())
+                        .flashAttr("curvePoint", curvePoint)
+                        .with(csrf().asHeader()))
+                .andExpect(status().is3xxRedirection());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        curvePointRepository.deleteById(curvePoint.getId());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void curvePointDelete_shouldOnlyDeleteRow() throws Exception {
+        CurvePoint curvePoint = curvePointRepository.save(new CurvePoint(10, 1d, 2d));
+        statistics.clear();
+
+        mockMvc.perform(get("/curvePoint/delete/{id}", curvePoint.getId()))
+                .andExpect(status().is3xxRedirection());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void ratingValidate_shouldOnlyInsert() throws Exception {
+        Rating rating = new Rating("Moodys", "SandP", "Fitch", 10);
+
+        mockMvc.perform(post("/rating/validate")
+                        .flashAttr("rating", rating)
+                        .with(csrf().asHeader()))
+                .andExpect(status().is3xxRedirection());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        ratingRepository.deleteById(rating.getId());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void ratingUpdate_shouldOnlyReadAndUpdateRow() throws Exception {
+        Rating rating = ratingRepository.save(new Rating("Moodys", "SandP", "Fitch", 10));
+        clearStatisticsAndCache();
+        rating.setOrderNumber(20);
+
+        mockMvc.perform(post("/rating/update/{id}", rating.getId())
+                        .flashAttr("rating", rating)
+                        .with(csrf().asHeader()))
+                .andExpect(status().is3xxRedirection());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        ratingRepository.deleteById(rating.getId());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void ratingDelete_shouldOnlyDeleteRow() throws Exception {
+        Rating rating = ratingRepository.save(new Rating("Moodys", "SandP", "Fitch", 10));
+        statistics.clear();
+
+        mockMvc.perform(get("/rating/delete/{id}", rating.getId()))
+                .andExpect(status().is3xxRedirection());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void ruleValidate_shouldOnlyInsert() throws Exception {
+        Rule rule = new Rule("Name", "Description", "Json", "Template", "SqlStr", "SqlPart");
+
+        mockMvc.perform(post("/rule/validate")
+                        .flashAttr("rule", rule)
+                        .with(csrf().asHeader()))
+                .andExpect(status().is3xxRedirection());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        ruleRepository.deleteById(rule.getId());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void ruleUpdate_shouldOnlyReadAndUpdateRow() throws Exception {
+        Rule rule = ruleRepository.save(new Rule("Name", "Description", "Json", "Template", "SqlStr", "SqlPart"));
+        clearStatisticsAndCache();
+        rule.setDescription("Updated");
+
+        mockMvc.perform(post("/rule/update/{id}", rule.getId())
+                        .flashAttr("rule", rule)
+                        .with(csrf().asHeader()))
+                .andExpect(status().is3xxRedirection());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        ruleRepository.deleteById(rule.getId());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void ruleDelete_shouldOnlyDeleteRow() throws Exception {
+        Rule rule = ruleRepository.save(new Rule("Name", "Description", "Json", "Template", "SqlStr", "SqlPart"));
+        statistics.clear();
+
+        mockMvc.perform(get("/rule/delete/{id}", rule.getId()))
+                .andExpect(status().is3xxRedirection());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void userValidate_shouldOnlyInsert() throws Exception {
+        User user = new User("statements-" + System.nanoTime(), "Password123&", "Full Name", "USER");
+
+        mockMvc.perform(post("/user/validate")
+                        .flashAttr("user", user)
+                        .with(csrf().asHeader()))
+                .andExpect(status().is3xxRedirection());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void userUpdate_shouldOnlyReadAndUpdateRow() throws Exception {
+        User user = userRepository.save(
+                new User("statements-" + System.nanoTime(), "Password123&", "Full Name", "USER"));
+        clearStatisticsAndCache();
+        user.setFullname("Updated Name");
+
+        mockMvc.perform(post("/user/update/{id}", user.getId())
+                        .flashAttr("user", user)
+                        .with(csrf().asHeader()))
+                .andExpect(status().is3xxRedirection());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void userDelete_shouldOnlyDeleteRow() throws Exception {
+        User user = userRepository.save(
+                new User("statements-" + System.nanoTime(), "Password123&", "Full Name", "USER"));
+        statistics.clear();
+
+        mockMvc.perform(get("/user/delete/{id}", user.getId()))
+                .andExpect(status().is3xxRedirection());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,98 @@
+package com.nnk.springboot.benchmarks;
+
+import com.nnk.springboot.Application;
+import com.nnk.springboot.domain.Bid;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.dto.BidSummary;
+import com.nnk.springboot.dto.TradeSummary;
+import com.nnk.springboot.services.BidService;
+import com.nnk.springboot.services.TradeService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Slice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the connection pool: list views and writes run concurrently from 16 threads,
+ * more than the pool has connections, and the sampled latencies give the p99 of each at a pool size.
+ * "configured" runs with the size of the prod profile, derived from the cores unless set.
+ * The application runs with the prod pool settings on the test database, seeded with 500 trades and bids.
+ * Run with the DB_user and DB_password of the test database: mvn test-compile exec:java
+ * -Dexec.classpathScope=test -Dexec.mainClass=com.nnk.springboot.benchmarks.ConnectionPoolLoadBenchmark
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConnectionPoolLoadBenchmark {
+
+    private static final int SEEDED_ROWS = 500;
+
+    @Param({"configured", "8", "32"})
+    public String poolSize;
+
+    private ConfigurableApplicationContext context;
+    private TradeService tradeService;
+    private BidService bidService;
+    private final List<Integer> seededTrades = new ArrayList<>();
+    private final List<Integer> seededBids = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<String> args = new ArrayList<>(List.of("--spring.profiles.active=prod,test", "--server.port=0"));
+        if (!"configured".equals(poolSize)) {
+            args.add("--spring.datasource.hikari.maximum-pool-size=" + poolSize);
+        }
+        context = new SpringApplicationBuilder(Application.class).run(args.toArray(String[]::new));
+        tradeService = context.getBean(TradeService.class);
+        bidService = context.getBean(BidService.class);
+        for (int i = 0; i < SEEDED_ROWS; i++) {
+            seededTrades.add(tradeService.save(new Trade("Load Account " + i, "Load Type", 10d)).getTradeId());
+            seededBids.add(bidService.save(new Bid("Load Account " + i, "Load Type", 10d)).getBidListId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        seededTrades.forEach(tradeService::deleteById);
+        seededBids.forEach(bidService::deleteById);
+        context.close();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(6)
+    public List<TradeSummary> listTrades() {
+        return tradeService.findSummaries();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(6)
+    public Slice<BidSummary> listBids() {
+        return bidService.findPage(null);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(4)
+    public boolean writeTrade() {
+        Trade trade = tradeService.save(new Trade("Load Account", "Load Type", 10d));
+        return tradeService.deleteById(trade.getTradeId());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ConnectionPoolLoadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
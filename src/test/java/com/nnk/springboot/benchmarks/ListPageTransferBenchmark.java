@@ -0,0 +1,143 @@
+package com.nnk.springboot.benchmarks;
+
+import com.nnk.springboot.Application;
+import com.nnk.springboot.domain.Bid;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.domain.User;
+import com.nnk.springboot.services.BidService;
+import com.nnk.springboot.services.TradeService;
+import com.nnk.springboot.services.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Transfer of the trade and bid list pages at 10,000 rows: each operation downloads one page, so that the
+ * sampled time is the time to last byte. The body bytes received, compressed or not, are averaged and
+ * reported at the end of the trial. The bid list is run with a page size of 10,000 to hold all the rows.
+ * "identity" asks for the page uncompressed, "gzip" lets Tomcat compress it. "HTTP_2" runs over h2c.
+ * The application runs with the prod settings on the test database, seeded with 10,000 trades and bids.
+ * Run with the DB_user and DB_password of the test database: mvn test-compile exec:java
+ * -Dexec.classpathScope=test -Dexec.mainClass=com.nnk.springboot.benchmarks.ListPageTransferBenchmark
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListPageTransferBenchmark {
+
+    private static final int SEEDED_ROWS = 10_000;
+    private static final String USERNAME = "transfertest-";
+    private static final String PASSWORD = "Transfer-test1";
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\" type=\"hidden\" value=\"([^\"]+)\"");
+
+    @Param({"trade", "bid"})
+    public String list;
+
+    @Param({"identity", "gzip"})
+    public String encoding;
+
+    @Param({"HTTP_1_1", "HTTP_2"})
+    public HttpClient.Version protocol;
+
+    private ConfigurableApplicationContext context;
+    private TradeService tradeService;
+    private BidService bidService;
+    private UserService userService;
+    private Integer userId;
+    private final List<Integer> seededTrades = new ArrayList<>();
+    private final List<Integer> seededBids = new ArrayList<>();
+    private HttpClient client;
+    private HttpRequest listRequest;
+    private final AtomicLong responses = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        context = new SpringApplicationBuilder(Application.class).run("--spring.profiles.active=prod,test",
+                "--server.port=0", "--bid.list.page-size=" + SEEDED_ROWS);
+        tradeService = context.getBean(TradeService.class);
+        bidService = context.getBean(BidService.class);
+        userService = context.getBean(UserService.class);
+        String username = USERNAME + System.currentTimeMillis();
+        userId = userService.save(new User(username, PASSWORD, "Transfer Test", "USER")).getId();
+        for (int i = 0; i < SEEDED_ROWS; i++) {
+            seededTrades.add(tradeService.save(new Trade("Transfer Account " + i, "Transfer Type", 10d)).getTradeId());
+            seededBids.add(bidService.save(new Bid("Transfer Account " + i, "Transfer Type", 10d)).getBidListId());
+        }
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        URI login = URI.create("http://localhost:" + port + "/login");
+        client = HttpClient.newBuilder()
+                .version(protocol)
+                .cookieHandler(new CookieManager())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        String loginPage = client.send(HttpRequest.newBuilder(login).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        Matcher csrf = CSRF.matcher(loginPage);
+        if (!csrf.find()) {
+            throw new IllegalStateException("No CSRF token in the login page");
+        }
+        String form = "username=" + username + "&password=" + URLEncoder.encode(PASSWORD, StandardCharsets.UTF_8)
+                + "&_csrf=" + URLEncoder.encode(csrf.group(1), StandardCharsets.UTF_8);
+        client.send(HttpRequest.newBuilder(login)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build(), HttpResponse.BodyHandlers.discarding());
+
+        // The HTTP client does not decompress: the body length is what went over the wire
+        listRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/" + list + "/list"))
+                .header("Accept-Encoding", encoding)
+                .timeout(Duration.ofSeconds(60))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println("\n" + list + " list, " + encoding + ", " + protocol + ": "
+                + bytes.get() / Math.max(responses.get(), 1) + " bytes per page");
+        seededTrades.forEach(tradeService::deleteById);
+        seededBids.forEach(bidService::deleteById);
+        userService.deleteById(userId);
+        context.close();
+    }
+
+    @Benchmark
+    public int downloadList() throws Exception {
+        HttpResponse<byte[]> response = client.send(listRequest, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("The " + list + " list answered " + response.statusCode());
+        }
+        responses.incrementAndGet();
+        bytes.addAndGet(response.body().length);
+        return response.body().length;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ListPageTransferBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,60 @@
+package com.nnk.springboot.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the CPU time of one login password check for each supported encoder and cost,
+ * to choose security.password.* settings against the login latency budget.
+ * Run from the IDE or with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.nnk.springboot.benchmarks.PasswordEncoderBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordEncoderBenchmark {
+
+    private static final String PASSWORD = "Passw0rd!";
+
+    @Param({"bcrypt-10", "bcrypt-12", "pbkdf2-310000", "argon2-16384-2"})
+    public String encoder;
+
+    private PasswordEncoder passwordEncoder;
+    private String encodedPassword;
+
+    @Setup
+    public void setup() {
+        String[] settings = encoder.split("-");
+        passwordEncoder = switch (settings[0]) {
+            case "bcrypt" -> new BCryptPasswordEncoder(Integer.parseInt(settings[1]));
+            case "pbkdf2" -> new Pbkdf2PasswordEncoder("", 16, Integer.parseInt(settings[1]),
+                    Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+            case "argon2" -> new Argon2PasswordEncoder(16, 32, 1,
+                    Integer.parseInt(settings[1]), Integer.parseInt(settings[2]));
+            default -> throw new IllegalArgumentException("Unknown encoder: " + encoder);
+        };
+        encodedPassword = passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches(PASSWORD, encodedPassword);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PasswordEncoderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
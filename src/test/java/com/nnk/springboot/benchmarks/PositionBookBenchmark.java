@@ -0,0 +1,58 @@
+package com.nnk.springboot.benchmarks;
+
+import com.nnk.springboot.services.PositionBook;
+import com.nnk.springboot.services.PositionBook.Key;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of position updates from 8 threads, over few positions where every update
+ * contends with the others, and over many, as the number of stripes grows.
+ * Run from the IDE or with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.nnk.springboot.benchmarks.PositionBookBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PositionBookBenchmark {
+
+    @Param({"1", "16", "64"})
+    public int stripes;
+
+    @Param({"4", "1024"})
+    public int positions;
+
+    private PositionBook book;
+    private Key[] keys;
+
+    @Setup
+    public void setup() {
+        book = new PositionBook(stripes);
+        keys = new Key[positions];
+        for (int i = 0; i < positions; i++) {
+            keys[i] = new Key("Book " + i % 8, "Account " + i, "Security " + i % 16);
+        }
+    }
+
+    @Benchmark
+    public void addTrade() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double quantity = 1 + random.nextInt(100);
+        book.add(keys[random.nextInt(positions)], quantity, quantity * 10, 0, 0, 1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PositionBookBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
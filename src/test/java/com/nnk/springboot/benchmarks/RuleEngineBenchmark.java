@@ -0,0 +1,83 @@
+package com.nnk.springboot.benchmarks;
+
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.dto.RuleMatch;
+import com.nnk.springboot.services.CompiledRules;
+import com.nnk.springboot.services.RuleFields;
+import com.nnk.springboot.services.RuleParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the evaluation of a trade against all the compiled rules, and their compilation.
+ * The rules either share most of their conditions, as rules written from a few templates do,
+ * or each have their own constants. The throughput of match, times the number of rules,
+ * gives the rules evaluated per second.
+ * Run from the IDE or with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.nnk.springboot.benchmarks.RuleEngineBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RuleEngineBenchmark {
+
+    private static final String[] ACCOUNTS = {"A", "B", "C", "D"};
+
+    @Param({"100", "1000"})
+    public int rules;
+
+    @Param({"true", "false"})
+    public boolean shared;
+
+    private String[] predicates;
+    private CompiledRules<Trade> compiled;
+    private Trade[] trades;
+    private int next;
+
+    @Setup
+    public void setup() {
+        predicates = new String[rules];
+        for (int i = 0; i < rules; i++) {
+            int variant = shared ? i % 10 : i;
+            predicates[i] = "buyQuantity > " + variant * 100 + " AND account IN ('A', 'B')"
+                    + " OR book LIKE 'FX" + variant % (shared ? 5 : rules) + "%' AND NOT status = 'CANCELLED'";
+        }
+        compiled = compile();
+        trades = new Trade[64];
+        for (int i = 0; i < trades.length; i++) {
+            Trade trade = new Trade(ACCOUNTS[i % ACCOUNTS.length], "type", i * 37 % 1200);
+            trade.setBook("FX" + i % 7 + "-SPOT");
+            trade.setStatus(i % 9 == 0 ? "CANCELLED" : "OPEN");
+            trades[i] = trade;
+        }
+    }
+
+    @Benchmark
+    public List<RuleMatch> match() {
+        next = (next + 1) & (trades.length - 1);
+        return compiled.matches(trades[next]);
+    }
+
+    @Benchmark
+    public CompiledRules<Trade> compile() {
+        CompiledRules.Builder<Trade> builder = CompiledRules.builder(RuleFields.TRADE);
+        for (int i = 0; i < predicates.length; i++) {
+            builder.add(new RuleMatch(i, "rule " + i), RuleParser.parseSql(predicates[i]));
+        }
+        return builder.build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RuleEngineBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,134 @@
+package com.nnk.springboot.benchmarks;
+
+import com.nnk.springboot.Application;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.domain.User;
+import com.nnk.springboot.services.TradeService;
+import com.nnk.springboot.services.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Load test of the request threads: each operation sends 1000 concurrent requests for the trade list,
+ * five times the Tomcat threads of the platform mode, and waits for all of them.
+ * The requests that failed, on a connection or permit timeout, are counted and reported at the end of the trial.
+ * "virtual" runs the application with spring.threads.virtual.enabled and needs Java 21 or later.
+ * The application runs with the prod pool settings on the test database, seeded with 100 trades.
+ * Run on Java 21 with the DB_user and DB_password of the test database: mvn test-compile exec:java
+ * -Dexec.classpathScope=test -Dexec.mainClass=com.nnk.springboot.benchmarks.VirtualThreadLoadBenchmark
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VirtualThreadLoadBenchmark {
+
+    private static final int CONCURRENT_REQUESTS = 1000;
+    private static final int SEEDED_ROWS = 100;
+    private static final String USERNAME = "loadtest-";
+    private static final String PASSWORD = "Load-test1";
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\" type=\"hidden\" value=\"([^\"]+)\"");
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    private ConfigurableApplicationContext context;
+    private TradeService tradeService;
+    private UserService userService;
+    private Integer userId;
+    private final List<Integer> seededTrades = new ArrayList<>();
+    private HttpClient client;
+    private URI tradeList;
+    private final AtomicInteger failures = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        if ("virtual".equals(threads) && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21 or later");
+        }
+        context = new SpringApplicationBuilder(Application.class).run("--spring.profiles.active=prod,test",
+                "--server.port=0", "--spring.threads.virtual.enabled=" + "virtual".equals(threads));
+        tradeService = context.getBean(TradeService.class);
+        userService = context.getBean(UserService.class);
+        String username = USERNAME + System.currentTimeMillis();
+        userId = userService.save(new User(username, PASSWORD, "Load Test", "USER")).getId();
+        for (int i = 0; i < SEEDED_ROWS; i++) {
+            seededTrades.add(tradeService.save(new Trade("Load Account " + i, "Load Type", 10d)).getTradeId());
+        }
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        URI login = URI.create("http://localhost:" + port + "/login");
+        tradeList = URI.create("http://localhost:" + port + "/trade/list");
+        client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        String loginPage = client.send(HttpRequest.newBuilder(login).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        Matcher csrf = CSRF.matcher(loginPage);
+        if (!csrf.find()) {
+            throw new IllegalStateException("No CSRF token in the login page");
+        }
+        String form = "username=" + username + "&password=" + URLEncoder.encode(PASSWORD, StandardCharsets.UTF_8)
+                + "&_csrf=" + URLEncoder.encode(csrf.group(1), StandardCharsets.UTF_8);
+        client.send(HttpRequest.newBuilder(login)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build(), HttpResponse.BodyHandlers.discarding());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println(failures.get() + " requests failed with " + threads + " threads");
+        seededTrades.forEach(tradeService::deleteById);
+        userService.deleteById(userId);
+        context.close();
+    }
+
+    @Benchmark
+    public int listTrades() {
+        HttpRequest request = HttpRequest.newBuilder(tradeList).timeout(Duration.ofSeconds(60)).build();
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(CONCURRENT_REQUESTS);
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        int ok = 0;
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            if (response.join().statusCode() == 200) {
+                ok++;
+            } else {
+                failures.incrementAndGet();
+            }
+        }
+        return ok;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(VirtualThreadLoadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
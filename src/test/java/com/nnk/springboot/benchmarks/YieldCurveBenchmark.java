@@ -0,0 +1,86 @@
+package com.nnk.springboot.benchmarks;
+
+import com.nnk.springboot.dto.CurvePointSummary;
+import com.nnk.springboot.services.YieldCurve;
+import com.nnk.springboot.services.YieldCurve.Interpolation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures point lookups on a yield curve, and its rebuilds:
+ * from all of its points as when it is loaded, and after a single point is saved.
+ * Run from the IDE or with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.nnk.springboot.benchmarks.YieldCurveBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class YieldCurveBenchmark {
+
+    @Param({"20", "200", "2000"})
+    public int points;
+
+    private List<CurvePointSummary> summaries;
+    private YieldCurve curve;
+    private double[] lookupTerms;
+    private int next;
+
+    @Setup
+    public void setup() {
+        summaries = new ArrayList<>(points);
+        for (int i = 0; i < points; i++) {
+            double term = 0.25 * (i + 1);
+            summaries.add(new CurvePointSummary(i, 1, term, 2 + Math.log1p(term)));
+        }
+        curve = YieldCurve.of(summaries);
+        lookupTerms = new double[1024];
+        for (int i = 0; i < lookupTerms.length; i++) {
+            lookupTerms[i] = 0.25 * points * ((i * 0.618034) % 1);
+        }
+    }
+
+    private double nextTerm() {
+        next = (next + 1) & (lookupTerms.length - 1);
+        return lookupTerms[next];
+    }
+
+    @Benchmark
+    public double linear() {
+        return curve.value(nextTerm(), Interpolation.LINEAR);
+    }
+
+    @Benchmark
+    public double cubicSpline() {
+        return curve.value(nextTerm(), Interpolation.CUBIC_SPLINE);
+    }
+
+    @Benchmark
+    public double discountFactor() {
+        return curve.discountFactor(nextTerm(), Interpolation.CUBIC_SPLINE);
+    }
+
+    @Benchmark
+    public YieldCurve fullRebuild() {
+        return YieldCurve.of(summaries);
+    }
+
+    @Benchmark
+    public YieldCurve incrementalRebuild() {
+        return curve.withPoint(points / 2, nextTerm() + 0.1, 3);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(YieldCurveBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,80 @@
+package com.nnk.springboot.configTests;
+
+import com.nnk.springboot.config.CaffeineUserCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CaffeineUserCacheTest {
+
+    private CaffeineUserCache userCache;
+
+    @BeforeEach
+    public void setup() {
+        userCache = new CaffeineUserCache(Duration.ofMinutes(1), 10);
+    }
+
+    private static User user(String username) {
+        return new User(username, "encodedPassword", List.of());
+    }
+
+    @Test
+    public void getUserFromCache_shouldReturnCachedUser() {
+        userCache.putUserInCache(user("user"));
+
+        UserDetails cached = userCache.getUserFromCache("user");
+
+        assertNotNull(cached);
+        assertEquals("encodedPassword", cached.getPassword());
+        assertNull(userCache.getUserFromCache("unknown"));
+    }
+
+    @Test
+    public void getUserFromCache_shouldSurviveErasedCredentials() {
+        User user = user("user");
+        userCache.putUserInCache(user);
+        user.eraseCredentials();
+
+        User cached = (User) userCache.getUserFromCache("user");
+        cached.eraseCredentials();
+
+        assertEquals("encodedPassword", userCache.getUserFromCache("user").getPassword());
+    }
+
+    @Test
+    public void removeUserFromCache_shouldEvictUser() {
+        userCache.putUserInCache(user("user"));
+        userCache.putUserInCache(user("admin"));
+
+        userCache.removeUserFromCache("user");
+
+        assertNull(userCache.getUserFromCache("user"));
+        assertNotNull(userCache.getUserFromCache("admin"));
+
+        userCache.removeAllUsersFromCache();
+
+        assertNull(userCache.getUserFromCache("admin"));
+    }
+
+    @Test
+    public void bindTo_shouldPublishHitsAndMisses() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        userCache.bindTo(registry);
+        userCache.putUserInCache(user("user"));
+
+        userCache.getUserFromCache("user");
+        userCache.getUserFromCache("unknown");
+
+        assertEquals(1, registry.get("cache.gets").tag("cache", "userDetails").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tag("cache", "userDetails").tag("result", "miss")
+                .functionCounter().count());
+    }
+}
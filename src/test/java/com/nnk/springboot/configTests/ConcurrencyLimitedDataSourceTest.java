@@ -0,0 +1,98 @@
+package com.nnk.springboot.configTests;
+
+import com.nnk.springboot.config.ConcurrencyLimitedDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ConcurrencyLimitedDataSourceTest {
+
+    private DataSource pool;
+    private ConcurrencyLimitedDataSource dataSource;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        pool = mock(DataSource.class);
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        dataSource = new ConcurrencyLimitedDataSource(pool, 1, Duration.ofMillis(100));
+        registry = new SimpleMeterRegistry();
+        dataSource.bindTo(registry);
+    }
+
+    @Test
+    public void getConnection_whenNoPermitLeft_shouldFailAfterTimeout() throws Exception {
+        Connection connection = dataSource.getConnection();
+
+        CompletableFuture<Connection> other = CompletableFuture.supplyAsync(this::connect);
+
+        Exception e = assertThrows(Exception.class, () -> other.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(SQLTransientConnectionException.class, e.getCause().getCause());
+        verify(pool, times(1)).getConnection();
+        connection.close();
+    }
+
+    @Test
+    public void getConnection_shouldWaitForPermitReleasedOnClose() throws Exception {
+        dataSource = new ConcurrencyLimitedDataSource(pool, 1, Duration.ofSeconds(5));
+        Connection connection = dataSource.getConnection();
+
+        CompletableFuture<Connection> other = CompletableFuture.supplyAsync(this::connect);
+        connection.close();
+
+        assertNotNull(other.get(5, TimeUnit.SECONDS));
+        verify(pool, times(2)).getConnection();
+    }
+
+    @Test
+    public void getConnection_whenThreadHoldsConnection_shouldNotTakeAnotherPermit() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        Connection isolated = dataSource.getConnection();
+        isolated.close();
+
+        assertEquals(0, registry.get("db.limiter.permits.available").gauge().value());
+        connection.close();
+        assertEquals(1, registry.get("db.limiter.permits.available").gauge().value());
+    }
+
+    @Test
+    public void close_whenCalledTwice_shouldReleasePermitOnce() throws SQLException {
+        Connection target = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(target);
+
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        assertTrue(connection.isClosed());
+        verify(target, times(1)).close();
+        assertEquals(1, registry.get("db.limiter.permits.available").gauge().value());
+    }
+
+    @Test
+    public void getConnection_whenPoolFails_shouldReleasePermit() throws SQLException {
+        when(pool.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+        assertEquals(1, registry.get("db.limiter.permits.available").gauge().value());
+    }
+
+    private Connection connect() {
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.nnk.springboot.configTests;
+
+import com.nnk.springboot.config.DataSourcePoolConfig;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+public class DataSourcePoolConfigTest {
+
+    @Test
+    public void poolSize_shouldBeDerivedFromCores() {
+        BeanPostProcessor postProcessor = DataSourcePoolConfig.poolSizePostProcessor(new MockEnvironment());
+        HikariDataSource dataSource = new HikariDataSource();
+
+        postProcessor.postProcessBeforeInitialization(dataSource, "dataSource");
+
+        assertEquals(Math.max(Runtime.getRuntime().availableProcessors() * 2 + 1, 10), dataSource.getMaximumPoolSize());
+    }
+
+    @Test
+    public void poolSize_shouldKeepConfiguredSize() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "4");
+        BeanPostProcessor postProcessor = DataSourcePoolConfig.poolSizePostProcessor(environment);
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(4);
+
+        postProcessor.postProcessBeforeInitialization(dataSource, "dataSource");
+
+        assertEquals(4, dataSource.getMaximumPoolSize());
+    }
+
+    @Test
+    public void poolSize_shouldKeepSizeOfRuleQueryPool() {
+        BeanPostProcessor postProcessor = DataSourcePoolConfig.poolSizePostProcessor(new MockEnvironment());
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(4);
+
+        postProcessor.postProcessBeforeInitialization(dataSource, "ruleQueryDataSource");
+
+        assertEquals(4, dataSource.getMaximumPoolSize());
+    }
+
+    @Test
+    public void warmUp_whenDisabled_shouldNotOpenConnections() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+
+        new DataSourcePoolConfig().connectionPoolWarmUp(dataSource, false).run(new DefaultApplicationArguments());
+
+        verifyNoInteractions(dataSource);
+    }
+
+    @Test
+    public void warmUp_whenEnabled_shouldOpenAndReturnConnectionsOfWrappedPool() throws Exception {
+        HikariDataSource pool = mock(HikariDataSource.class);
+        Connection connection = mock(Connection.class);
+        when(pool.getMinimumIdle()).thenReturn(3);
+        when(pool.getConnection()).thenReturn(connection);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.isWrapperFor(HikariConfigMXBean.class)).thenReturn(true);
+        when(dataSource.unwrap(HikariConfigMXBean.class)).thenReturn(pool);
+
+        new DataSourcePoolConfig().connectionPoolWarmUp(dataSource, true).run(new DefaultApplicationArguments());
+
+        verify(pool, times(3)).getConnection();
+        verify(connection, times(3)).close();
+    }
+}
@@ -0,0 +1,57 @@
+package com.nnk.springboot.configTests;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HibernateCacheConfigTest {
+
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    public void setup() {
+        cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cacheManager.close();
+    }
+
+    @ParameterizedTest(name = "{0} should be configured")
+    @ValueSource(strings = {"rating", "rule", "curvePoint", "rating-list", "rule-list", "curvePoint-list",
+            "default-query-results-region"})
+    public void region_shouldBeBoundedAndExpire(String region) {
+        CaffeineConfiguration<?, ?> configuration = configuration(region);
+
+        assertTrue(configuration.getMaximumSize().isPresent());
+        assertTrue(configuration.getExpireAfterWrite().isPresent());
+        assertTrue(configuration.isStatisticsEnabled());
+    }
+
+    @Test
+    public void updateTimestampsRegion_shouldNotEvict() {
+        CaffeineConfiguration<?, ?> configuration = configuration("default-update-timestamps-region");
+
+        assertEquals(OptionalLong.empty(), configuration.getMaximumSize());
+        assertEquals(OptionalLong.empty(), configuration.getExpireAfterWrite());
+    }
+
+    @SuppressWarnings("unchecked")
+    private CaffeineConfiguration<?, ?> configuration(String region) {
+        Cache<Object, Object> cache = cacheManager.getCache(region);
+        assertNotNull(cache, region);
+        return cache.getConfiguration(CaffeineConfiguration.class);
+    }
+}
@@ -0,0 +1,58 @@
+package com.nnk.springboot.configTests;
+
+import com.nnk.springboot.config.SpringSecurityConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordEncoderConfigTest {
+
+    private final SpringSecurityConfig config = new SpringSecurityConfig(null);
+
+    @Test
+    public void passwordEncoder_shouldMatchLegacyUnprefixedBcryptHashAndUpgradeIt() {
+        PasswordEncoder passwordEncoder = config.passwordEncoder("bcrypt", 4, 1000, 1024, 1);
+        String legacyHash = new BCryptPasswordEncoder(4).encode("password");
+
+        assertTrue(passwordEncoder.matches("password", legacyHash));
+        assertTrue(passwordEncoder.upgradeEncoding(legacyHash));
+    }
+
+    @Test
+    public void passwordEncoder_shouldUpgradeHashesOfAnotherAlgorithm() {
+        PasswordEncoder bcrypt = config.passwordEncoder("bcrypt", 4, 1000, 1024, 1);
+        PasswordEncoder pbkdf2 = config.passwordEncoder("pbkdf2", 4, 1000, 1024, 1);
+        String bcryptHash = bcrypt.encode("password");
+
+        assertTrue(bcryptHash.startsWith("{bcrypt}"));
+        assertFalse(bcrypt.upgradeEncoding(bcryptHash));
+        assertTrue(pbkdf2.matches("password", bcryptHash));
+        assertTrue(pbkdf2.upgradeEncoding(bcryptHash));
+        assertTrue(pbkdf2.encode("password").startsWith("{pbkdf2}"));
+    }
+
+    @Test
+    public void passwordEncoder_shouldUpgradeLowerBcryptStrength() {
+        String weakHash = config.passwordEncoder("bcrypt", 4, 1000, 1024, 1).encode("password");
+
+        assertTrue(config.passwordEncoder("bcrypt", 5, 1000, 1024, 1).upgradeEncoding(weakHash));
+    }
+
+    @Test
+    public void passwordEncoder_withArgon2_shouldEncodeAndMatch() {
+        PasswordEncoder argon2 = config.passwordEncoder("argon2", 4, 1000, 1024, 1);
+
+        String hash = argon2.encode("password");
+
+        assertTrue(hash.startsWith("{argon2}"));
+        assertTrue(argon2.matches("password", hash));
+    }
+
+    @Test
+    public void passwordEncoder_withUnknownAlgorithm_shouldFail() {
+        assertThrows(IllegalArgumentException.class,
+                () -> config.passwordEncoder("md5", 4, 1000, 1024, 1));
+    }
+}
@@ -0,0 +1,162 @@
+package com.nnk.springboot.configTests;
+
+import com.nnk.springboot.config.SqlMetrics;
+import com.nnk.springboot.domain.Bid;
+import com.nnk.springboot.repositories.BidRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SqlMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private SqlMetrics sqlMetrics;
+    private DataSource dataSource;
+    private PreparedStatement statement;
+    private ResultSet resultSet;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        registry = new SimpleMeterRegistry();
+        sqlMetrics = new SqlMetrics(Duration.ZERO, 1.0);
+        sqlMetrics.bindTo(registry);
+
+        DataSource actualDataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        resultSet = mock(ResultSet.class);
+        when(actualDataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(statement.executeUpdate()).thenReturn(3);
+        when(statement.executeBatch()).thenReturn(new int[]{Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO});
+        dataSource = sqlMetrics.proxy(actualDataSource);
+    }
+
+    private Object callRepository(String method, MethodInvocationBody body) throws Throwable {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(BidRepository.class.getMethod(method, Integer.class));
+        when(invocation.proceed()).thenAnswer(i -> body.run());
+        MethodInterceptor interceptor = sqlMetrics.repositoryInterceptor(BidRepository.class);
+        return interceptor.invoke(invocation);
+    }
+
+    private void select() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement select = connection.prepareStatement("select * from bidlist where BidListId = ?");
+             ResultSet rows = select.executeQuery()) {
+            while (rows.next()) {
+                rows.getInt(1);
+            }
+        }
+    }
+
+    private void delete() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement delete = connection.prepareStatement("delete from bidlist where BidListId = ?")) {
+            delete.executeUpdate();
+        }
+    }
+
+    @Test
+    public void repositoryCall_shouldRecordStatementsRowsAndTime() throws Throwable {
+        callRepository("removeById", () -> {
+            select();
+            delete();
+            return List.of(new Bid(), new Bid());
+        });
+
+        assertEquals(1, registry.get("sql.repository.time")
+                .tags("repository", "BidRepository", "method", "removeById").timer().count());
+        assertEquals(2, registry.get("sql.repository.statements")
+                .tags("repository", "BidRepository", "method", "removeById").summary().totalAmount());
+        assertEquals(5, registry.get("sql.repository.rows")
+                .tags("repository", "BidRepository", "method", "removeById").summary().totalAmount());
+        assertEquals(1, registry.get("sql.statements").tag("type", "select").timer().count());
+        assertEquals(1, registry.get("sql.statements").tag("type", "delete").timer().count());
+    }
+
+    @Test
+    public void batch_shouldCountEachStatementAndRow() throws Throwable {
+        callRepository("removeById", () -> {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement insert = connection.prepareStatement("insert into bidlist (account) values (?)")) {
+                insert.setString(1, "a");
+                insert.addBatch();
+                insert.setString(1, "b");
+                insert.addBatch();
+                insert.executeBatch();
+            }
+            return null;
+        });
+
+        assertEquals(2, registry.get("sql.repository.statements").summary().totalAmount());
+        assertEquals(2, registry.get("sql.repository.rows").summary().totalAmount());
+        assertEquals(1, registry.get("sql.statements").tag("type", "insert").timer().count());
+    }
+
+    @Test
+    public void repositoryCall_shouldCountReturnedEntitiesNotResultSetReads() throws Throwable {
+        callRepository("removeById", () -> {
+            select();
+            return Optional.empty();
+        });
+        callRepository("removeById", () -> {
+            select();
+            return new PageImpl<>(List.of(new Bid()));
+        });
+        callRepository("removeById", () -> 4L);
+
+        assertEquals(1, registry.get("sql.repository.rows").summary().totalAmount());
+    }
+
+    @Test
+    public void statementOutsideRepositoryCall_shouldOnlyRecordStatementTimer() throws Exception {
+        select();
+
+        assertEquals(1, registry.get("sql.statements").tag("type", "select").timer().count());
+        assertNull(registry.find("sql.repository.time").timer());
+    }
+
+    @Test
+    public void repositoryCall_shouldReturnResultAndEndScope() throws Throwable {
+        Object result = callRepository("removeById", () -> 1);
+        select();
+
+        assertEquals(1, result);
+        assertEquals(0, registry.get("sql.repository.statements").summary().totalAmount());
+    }
+
+    @Test
+    public void unboundMetrics_shouldStillRunStatements() throws Throwable {
+        SqlMetrics unbound = new SqlMetrics(Duration.ofNanos(1), 1.0);
+        dataSource = unbound.proxy(dataSource);
+
+        delete();
+
+        assertNull(registry.find("sql.repository.time").timer());
+    }
+
+    @FunctionalInterface
+    private interface MethodInvocationBody {
+        Object run() throws Exception;
+    }
+}
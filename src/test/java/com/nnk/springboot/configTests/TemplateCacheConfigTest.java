@@ -0,0 +1,29 @@
+package com.nnk.springboot.configTests;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafAutoConfiguration;
+import org.springframework.boot.test.context.ConfigDataApplicationContextInitializer;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.spring6.templateresolver.SpringResourceTemplateResolver;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the prod profile keeps the parsed templates and fragments cached.
+ */
+public class TemplateCacheConfigTest {
+
+    private final WebApplicationContextRunner contextRunner = new WebApplicationContextRunner()
+            .withInitializer(new ConfigDataApplicationContextInitializer())
+            .withConfiguration(AutoConfigurations.of(ThymeleafAutoConfiguration.class));
+
+    @Test
+    public void prodProfile_shouldCacheTemplates() {
+        contextRunner.withPropertyValues("spring.profiles.active=prod").run(context -> {
+            assertTrue(context.getBean(SpringResourceTemplateResolver.class).isCacheable());
+            assertNotNull(context.getBean(SpringTemplateEngine.class).getCacheManager().getTemplateCache());
+        });
+    }
+}
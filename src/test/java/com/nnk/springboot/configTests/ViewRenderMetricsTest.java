@@ -0,0 +1,55 @@
+package com.nnk.springboot.configTests;
+
+import com.nnk.springboot.config.ViewRenderMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.ModelAndView;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ViewRenderMetricsTest {
+
+    private MeterRegistry registry;
+    private ViewRenderMetrics viewRenderMetrics;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    public void setup() {
+        registry = new SimpleMeterRegistry();
+        viewRenderMetrics = new ViewRenderMetrics(registry);
+        request = new MockHttpServletRequest();
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    public void view_shouldBeTimedByName() {
+        viewRenderMetrics.postHandle(request, response, null, new ModelAndView("bid/list"));
+        viewRenderMetrics.afterCompletion(request, response, null, null);
+
+        Timer timer = registry.find("view.render").tag("view", "bid/list").tag("outcome", "success").timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    public void redirect_shouldNotBeTimed() {
+        viewRenderMetrics.postHandle(request, response, null, new ModelAndView("redirect:/bid/list"));
+        viewRenderMetrics.afterCompletion(request, response, null, null);
+
+        assertNull(registry.find("view.render").timer());
+    }
+
+    @Test
+    public void responseWithoutView_shouldNotBeTimed() {
+        viewRenderMetrics.postHandle(request, response, null, null);
+        viewRenderMetrics.afterCompletion(request, response, null, null);
+
+        assertNull(registry.find("view.render").timer());
+    }
+}
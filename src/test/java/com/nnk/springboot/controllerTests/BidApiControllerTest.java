@@ -0,0 +1,251 @@
+package com.nnk.springboot.controllerTests;
+
+import com.nnk.springboot.config.ApiConfig;
+import com.nnk.springboot.config.SpringSecurityConfig;
+import com.nnk.springboot.controllers.api.BidApiController;
+import com.nnk.springboot.controllers.api.SparseFields;
+import com.nnk.springboot.domain.Bid;
+import com.nnk.springboot.services.CustomUserDetailsService;
+import com.nnk.springboot.services.BidService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(BidApiController.class)
+@Import({SpringSecurityConfig.class, ApiConfig.class, SparseFields.class})
+public class BidApiControllerTest {
+
+    private static final String VALID_BID = "{\"account\":\"account\",\"type\":\"type\",\"bidQuantity\":10}";
+    private static final String VERSIONED_BID = "{\"account\":\"account\",\"type\":\"type\",\"bidQuantity\":10,\"version\":3}";
+    private static final String INVALID_BID = "{\"account\":\"\",\"type\":\"type\",\"bidQuantity\":0}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @MockitoBean
+    private BidService bidService;
+
+    private Bid validBid;
+
+    @BeforeEach
+    public void setup() {
+        validBid = new Bid("account", "type", 10);
+        validBid.setBidListId(1);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void getList_withFields_shouldReturnPageOfSelectedFields() throws Exception {
+
+        when(bidService.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(validBid), PageRequest.of(0, 20), 21));
+
+        this.mockMvc.perform(get("/api/v1/bids").param("fields", "bidListId,account"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].bidListId").value(1))
+                .andExpect(jsonPath("$.content[0].account").exists())
+                .andExpect(jsonPath("$.content[0].bidQuantity").doesNotExist())
+                .andExpect(jsonPath("$.totalElements").value(21))
+                .andExpect(jsonPath("$.totalPages").value(2));
+
+        verify(bidService).findAll(any(Pageable.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void get_withUnknownId_shouldReturnNotFound() throws Exception {
+
+        when(bidService.findById(2)).thenThrow(new IllegalArgumentException("Invalid Bid Id: 2"));
+
+        this.mockMvc.perform(get("/api/v1/bids/2"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void post_shouldCreateBid() throws Exception {
+
+        when(bidService.save(any(Bid.class))).thenReturn(validBid);
+
+        this.mockMvc.perform(post("/api/v1/bids")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(VALID_BID))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "http://localhost/api/v1/bids/1"))
+                .andExpect(jsonPath("$.bidListId").value(1));
+
+        verify(bidService).save(any(Bid.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void post_withInvalidBid_shouldReturnBadRequest() throws Exception {
+
+        this.mockMvc.perform(post("/api/v1/bids")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INVALID_BID))
+                .andExpect(status().isBadRequest());
+
+        verify(bidService, never()).save(any(Bid.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void put_shouldReplaceBid() throws Exception {
+
+        when(bidService.replace(any(Bid.class))).thenAnswer(i -> {
+            Bid bid = i.getArgument(0);
+            bid.setVersion(bid.getVersion() + 1);
+            return bid;
+        });
+
+        this.mockMvc.perform(put("/api/v1/bids/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(VERSIONED_BID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bidListId").value(1))
+                .andExpect(jsonPath("$.version").value(4));
+
+        verify(bidService).replace(any(Bid.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void put_withoutVersion_shouldReturnBadRequest() throws Exception {
+
+        this.mockMvc.perform(put("/api/v1/bids/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(VALID_BID))
+                .andExpect(status().isBadRequest());
+
+        verify(bidService, never()).replace(any(Bid.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void put_whenChangedMeanwhile_shouldReturnConflict() throws Exception {
+
+        when(bidService.replace(any(Bid.class))).thenThrow(new ObjectOptimisticLockingFailureException(Bid.class, 1));
+
+        this.mockMvc.perform(put("/api/v1/bids/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(VERSIONED_BID))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void put_withUnknownId_shouldReturnNotFound() throws Exception {
+
+        when(bidService.replace(any(Bid.class))).thenThrow(new IllegalArgumentException("Invalid Bid Id: 2"));
+
+        this.mockMvc.perform(put("/api/v1/bids/2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(VERSIONED_BID))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void delete_shouldReturnNoContent() throws Exception {
+
+        when(bidService.deleteById(1)).thenReturn(true);
+
+        this.mockMvc.perform(delete("/api/v1/bids/1"))
+                .andExpect(status().isNoContent());
+
+        verify(bidService).deleteById(1);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void delete_withUnknownId_shouldReturnNotFound() throws Exception {
+
+        when(bidService.deleteById(2)).thenReturn(false);
+
+        this.mockMvc.perform(delete("/api/v1/bids/2"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void get_withMatchingEtag_shouldReturnNotModified() throws Exception {
+
+        when(bidService.findById(1)).thenReturn(validBid);
+
+        String etag = this.mockMvc.perform(get("/api/v1/bids/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        this.mockMvc.perform(get("/api/v1/bids/1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void get_withUnknownField_shouldReturnBadRequest() throws Exception {
+
+        when(bidService.findById(1)).thenReturn(validBid);
+
+        this.mockMvc.perform(get("/api/v1/bids/1").param("fields", "account,unknown"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void getList_withUnknownFieldAndNoRows_shouldReturnBadRequest() throws Exception {
+
+        when(bidService.findAll(any(Pageable.class))).thenReturn(Page.empty());
+
+        this.mockMvc.perform(get("/api/v1/bids").param("fields", "account,unknown"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void getList_withUnknownSortProperty_shouldReturnBadRequest() throws Exception {
+
+        when(bidService.findAll(any(Pageable.class)))
+                .thenThrow(new PropertyReferenceException("unknown", TypeInformation.of(Bid.class), List.of()));
+
+        this.mockMvc.perform(get("/api/v1/bids").param("sort", "unknown"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void get_withoutAuthentication_shouldReturnUnauthorized() throws Exception {
+
+        this.mockMvc.perform(get("/api/v1/bids/1"))
+                .andExpect(status().isUnauthorized());
+
+        verify(bidService, never()).findById(any());
+    }
+}
@@ -3,8 +3,11 @@ package com.nnk.springboot.controllerTests;
 import com.nnk.springboot.config.SpringSecurityConfig;
 import com.nnk.springboot.controllers.BidController;
 import com.nnk.springboot.domain.Bid;
+import com.nnk.springboot.dto.BidSummary;
 import com.nnk.springboot.services.BidService;
 import com.nnk.springboot.services.CustomUserDetailsService;
+import com.nnk.springboot.services.ListChangeFeed;
+import com.nnk.springboot.services.TableVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -13,11 +16,18 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.mock.web.MockHttpSession;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Stream;
 
 import static org.hamcrest.Matchers.containsString;
@@ -31,7 +41,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(BidController.class)
-@Import({SpringSecurityConfig.class})
+@Import({SpringSecurityConfig.class, TableVersions.class})
 public class BidControllerTest {
 
     @Autowired
@@ -43,6 +53,12 @@ public class BidControllerTest {
     @MockitoBean
     private BidService bidService;
 
+    @MockitoBean
+    private ListChangeFeed listChangeFeed;
+
+    @Autowired
+    private TableVersions tableVersions;
+
     private Bid validBid;
 
     @BeforeEach
@@ -64,15 +80,88 @@ public class BidControllerTest {
     @WithMockUser(roles = "USER")
     public void getHome_shouldReturnList() throws Exception {
 
-        when(bidService.findAll()).thenReturn(new ArrayList<>());
+        when(bidService.findPage(any())).thenReturn(new SliceImpl<>(new ArrayList<>()));
 
         this.mockMvc.perform(get("/bid/list"))
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(view().name("bid/list"))
-                .andExpect(content().string(containsString("Bid List")));
+                .andExpect(content().string(containsString("Bid List")))
+                .andExpect(model().attributeDoesNotExist("nextCursor"))
+                .andExpect(content().string(containsString("data-append=\"true\"")));
+
+        verify(bidService).findPage(null);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void getHome_withCurrentEtag_shouldReturnNotModifiedWithoutReadingBids() throws Exception {
+
+        when(bidService.findPage(any())).thenReturn(new SliceImpl<>(new ArrayList<>()));
+        MvcResult first = this.mockMvc.perform(get("/bid/list"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(content().string(containsString("/css/bootstrap.min-")))
+                .andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+        MockHttpSession session = (MockHttpSession) first.getRequest().getSession();
+
+        this.mockMvc.perform(get("/bid/list").session(session).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+
+        verify(bidService, times(1)).findPage(null);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void getHome_afterBidsChanged_shouldReturnList() throws Exception {
+
+        when(bidService.findPage(any())).thenReturn(new SliceImpl<>(new ArrayList<>()));
+        MvcResult first = this.mockMvc.perform(get("/bid/list")).andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+        MockHttpSession session = (MockHttpSession) first.getRequest().getSession();
+
+        tableVersions.bump(Bid.class);
+
+        this.mockMvc.perform(get("/bid/list").session(session).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(view().name("bid/list"));
+
+        verify(bidService, times(2)).findPage(null);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void getStream_shouldStartEventStream() throws Exception {
+
+        when(listChangeFeed.subscribe("bid")).thenReturn(new SseEmitter());
+
+        this.mockMvc.perform(get("/bid/stream"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        verify(listChangeFeed).subscribe("bid");
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void getHome_withMorePages_shouldReturnNextCursor() throws Exception {
+
+        when(bidService.findPage(any())).thenReturn(
+                new SliceImpl<>(List.of(new BidSummary(42, "account", "type", 10)), PageRequest.ofSize(1), true));
+
+        this.mockMvc.perform(get("/bid/list").param("after", "41"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(view().name("bid/list"))
+                .andExpect(model().attribute("nextCursor", 42))
+                .andExpect(content().string(containsString("/bid/update/42")))
+                .andExpect(content().string(containsString("/bid/list?after=42")))
+                .andExpect(content().string(containsString("data-append=\"false\"")));
 
-        verify(bidService).findAll();
+        verify(bidService).findPage(41);
     }
 
     @Test
@@ -91,7 +180,6 @@ public class BidControllerTest {
     public void postValidate_shouldSaveBid() throws Exception {
 
         when(bidService.save(any())).thenReturn(validBid);
-        when(bidService.findAll()).thenReturn(new ArrayList<>());
 
         this.mockMvc.perform(post("/bid/validate")
                         .flashAttr("bid", validBid)
@@ -101,7 +189,7 @@ public class BidControllerTest {
                 .andExpect(redirectedUrl("/bid/list"));
 
         verify(bidService).save(any());
-        verify(bidService).findAll();
+        verify(bidService, never()).findPage(any());
     }
 
     @ParameterizedTest(name = "{0} should return {2} error")
@@ -138,8 +226,7 @@ public class BidControllerTest {
     @WithMockUser(roles = "USER")
     public void postUpdateBid_shouldSaveBid() throws Exception {
 
-        when(bidService.save(any())).thenReturn(validBid);
-        when(bidService.findAll()).thenReturn(new ArrayList<>());
+        when(bidService.update(any())).thenReturn(validBid);
 
         this.mockMvc.perform(post("/bid/update/{id}", 1)
                         .flashAttr("bid", validBid)
@@ -148,8 +235,40 @@ public class BidControllerTest {
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/bid/list"));
 
-        verify(bidService).save(any());
-        verify(bidService).findAll();
+        verify(bidService).update(argThat(bid -> bid.getBidListId() == 1));
+        verify(bidService, never()).findPage(any());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void postUpdateBid_whenChangedMeanwhile_shouldShowCurrentBidWithConflict() throws Exception {
+
+        Bid current = new Bid("other account", "type", 20d);
+        when(bidService.update(any())).thenThrow(new ObjectOptimisticLockingFailureException(Bid.class, 1));
+        when(bidService.findById(1)).thenReturn(current);
+
+        this.mockMvc.perform(post("/bid/update/{id}", 1)
+                        .flashAttr("bid", validBid)
+                        .with(csrf().asHeader()))
+                .andDo(print())
+                .andExpect(status().isConflict())
+                .andExpect(view().name("bid/update"))
+                .andExpect(model().attribute("bid", current))
+                .andExpect(model().attribute("conflict", true))
+                .andExpect(content().string(containsString("changed by someone else")));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void postUpdateBid_withUnknownId_shouldReturnNotFound() throws Exception {
+
+        when(bidService.update(any())).thenThrow(new IllegalArgumentException("Invalid Bid Id: 2"));
+
+        this.mockMvc.perform(post("/bid/update/{id}", 2)
+                        .flashAttr("bid", validBid)
+                        .with(csrf().asHeader()))
+                .andDo(print())
+                .andExpect(status().isNotFound());
     }
 
     @ParameterizedTest(name = "{0} should return {2} error")
@@ -171,17 +290,28 @@ public class BidControllerTest {
     @WithMockUser(roles = "USER")
     public void getDeleteBid_shouldDeleteBid() throws Exception {
 
-        when(bidService.findById(anyInt())).thenReturn(validBid);
-        doNothing().when(bidService).delete(any());
-        when(bidService.findAll()).thenReturn(new ArrayList<>());
+        when(bidService.deleteById(anyInt())).thenReturn(true);
 
         this.mockMvc.perform(get("/bid/delete/{id}", 1))
                 .andDo(print())
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/bid/list"));
 
-        verify(bidService).findById(1);
-        verify(bidService).delete(any());
-        verify(bidService).findAll();
+        verify(bidService).deleteById(1);
+        verify(bidService, never()).findById(anyInt());
+        verify(bidService, never()).findPage(any());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void getDeleteBid_withUnknownId_shouldReturnNotFound() throws Exception {
+
+        when(bidService.deleteById(anyInt())).thenReturn(false);
+
+        this.mockMvc.perform(get("/bid/delete/{id}", 1))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+
+        verify(bidService).deleteById(1);
     }
 }
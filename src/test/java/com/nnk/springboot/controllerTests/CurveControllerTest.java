@@ -3,8 +3,10 @@ package com.nnk.springboot.controllerTests;
 import com.nnk.springboot.config.SpringSecurityConfig;
 import com.nnk.springboot.controllers.CurveController;
 import com.nnk.springboot.domain.CurvePoint;
+import com.nnk.springboot.dto.CurvePointSummary;
 import com.nnk.springboot.services.CurvePointService;
 import com.nnk.springboot.services.CustomUserDetailsService;
+import com.nnk.springboot.services.TableVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -17,7 +19,7 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
-import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Stream;
 
 import static org.hamcrest.Matchers.containsString;
@@ -31,7 +33,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(CurveController.class)
-@Import({SpringSecurityConfig.class})
+@Import({SpringSecurityConfig.class, TableVersions.class})
 public class CurveControllerTest {
 
     @Autowired
@@ -62,15 +64,16 @@ public class CurveControllerTest {
     @WithMockUser(roles = "USER")
     public void getHome_shouldReturnList() throws Exception {
 
-        when(curvePointService.findAll()).thenReturn(new ArrayList<>());
+        when(curvePointService.findSummaries()).thenReturn(List.of(new CurvePointSummary(7, 1, 10, 10)));
 
         this.mockMvc.perform(get("/curvePoint/list"))
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(view().name("curvePoint/list"))
-                .andExpect(content().string(containsString("Curve Point List")));
+                .andExpect(content().string(containsString("Curve Point List")))
+                .andExpect(content().string(containsString("/curvePoint/update/7")));
 
-        verify(curvePointService).findAll();
+        verify(curvePointService).findSummaries();
     }
 
     @Test
@@ -89,7 +92,6 @@ public class CurveControllerTest {
     public void postValidate_shouldSaveCurvePoint() throws Exception {
 
         when(curvePointService.save(any())).thenReturn(validCurvePoint);
-        when(curvePointService.findAll()).thenReturn(new ArrayList<>());
 
         this.mockMvc.perform(post("/curvePoint/validate")
                         .flashAttr("curvePoint", validCurvePoint)
@@ -99,7 +101,7 @@ public class CurveControllerTest {
                 .andExpect(redirectedUrl("/curvePoint/list"));
 
         verify(curvePointService).save(any());
-        verify(curvePointService).findAll();
+        verify(curvePointService, never()).findSummaries();
     }
 
     @ParameterizedTest(name = "{0} should return {2} error")
@@ -137,7 +139,6 @@ public class CurveControllerTest {
     public void postUpdateCurve_shouldSaveCurvePoint() throws Exception {
 
         when(curvePointService.save(any())).thenReturn(validCurvePoint);
-        when(curvePointService.findAll()).thenReturn(new ArrayList<>());
 
         this.mockMvc.perform(post("/curvePoint/update/{id}", 1)
                         .flashAttr("curvePoint", validCurvePoint)
@@ -147,7 +148,7 @@ public class CurveControllerTest {
                 .andExpect(redirectedUrl("/curvePoint/list"));
 
         verify(curvePointService).save(any());
-        verify(curvePointService).findAll();
+        verify(curvePointService, never()).findSummaries();
     }
 
     @ParameterizedTest(name = "{0} should return {2} error")
@@ -169,18 +170,28 @@ public class CurveControllerTest {
     @WithMockUser(roles = "USER")
     public void getDeleteCurve_shouldDeleteCurvePoint() throws Exception {
 
-        when(curvePointService.findById(anyInt())).thenReturn(validCurvePoint);
-        doNothing().when(curvePointService).delete(any());
-        when(curvePointService.findAll()).thenReturn(new ArrayList<>());
+        when(curvePointService.deleteById(anyInt())).thenReturn(true);
 
         this.mockMvc.perform(get("/curvePoint/delete/{id}", 1))
                 .andDo(print())
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/curvePoint/list"));
 
-        verify(curvePointService).findById(1);
-        verify(curvePointService).delete(any());
-        verify(curvePointService).findAll();
+        verify(curvePointService).deleteById(1);
+        verify(curvePointService, never()).findById(anyInt());
+        verify(curvePointService, never()).findSummaries();
     }
 
+    @Test
+    @WithMockUser(roles = "USER")
+    public void getDeleteCurve_withUnknownId_shouldReturnNotFound() throws Exception {
+
+        when(curvePointService.deleteById(anyInt())).thenReturn(false);
+
+        this.mockMvc.perform(get("/curvePoint/delete/{id}", 1))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+
+        verify(curvePointService).deleteById(1);
+    }
 }
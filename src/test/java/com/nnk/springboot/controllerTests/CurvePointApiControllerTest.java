@@ -0,0 +1,164 @@
+package com.nnk.springboot.controllerTests;
+
+import com.nnk.springboot.config.ApiConfig;
+import com.nnk.springboot.config.SpringSecurityConfig;
+import com.nnk.springboot.controllers.api.CurvePointApiController;
+import com.nnk.springboot.controllers.api.SparseFields;
+import com.nnk.springboot.domain.CurvePoint;
+import com.nnk.springboot.services.CustomUserDetailsService;
+import com.nnk.springboot.services.CurvePointService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CurvePointApiController.class)
+@Import({SpringSecurityConfig.class, ApiConfig.class, SparseFields.class})
+public class CurvePointApiControllerTest {
+
+    private static final String VALID_CURVE_POINT = "{\"curveId\":1,\"term\":10,\"value\":10}";
+    private static final String INVALID_CURVE_POINT = "{\"curveId\":1,\"term\":0,\"value\":10}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @MockitoBean
+    private CurvePointService curvePointService;
+
+    private CurvePoint validCurvePoint;
+
+    @BeforeEach
+    public void setup() {
+        validCurvePoint = new CurvePoint(1, 10, 10);
+        validCurvePoint.setId(1);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void getList_withFields_shouldReturnPageOfSelectedFields() throws Exception {
+
+        when(curvePointService.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(validCurvePoint), PageRequest.of(0, 20), 21));
+
+        this.mockMvc.perform(get("/api/v1/curvePoints").param("fields", "id,term"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[0].term").exists())
+                .andExpect(jsonPath("$.content[0].value").doesNotExist())
+                .andExpect(jsonPath("$.totalElements").value(21))
+                .andExpect(jsonPath("$.totalPages").value(2));
+
+        verify(curvePointService).findAll(any(Pageable.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void get_withUnknownId_shouldReturnNotFound() throws Exception {
+
+        when(curvePointService.findById(2)).thenThrow(new IllegalArgumentException("Invalid CurvePoint Id: 2"));
+
+        this.mockMvc.perform(get("/api/v1/curvePoints/2"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void post_shouldCreateCurvePoint() throws Exception {
+
+        when(curvePointService.save(any(CurvePoint.class))).thenReturn(validCurvePoint);
+
+        this.mockMvc.perform(post("/api/v1/curvePoints")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(VALID_CURVE_POINT))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "http://localhost/api/v1/curvePoints/1"))
+                .andExpect(jsonPath("$.id").value(1));
+
+        verify(curvePointService).save(any(CurvePoint.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void post_withInvalidCurvePoint_shouldReturnBadRequest() throws Exception {
+
+        this.mockMvc.perform(post("/api/v1/curvePoints")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INVALID_CURVE_POINT))
+                .andExpect(status().isBadRequest());
+
+        verify(curvePointService, never()).save(any(CurvePoint.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void put_shouldUpdateCurvePoint() throws Exception {
+
+        when(curvePointService.findById(1)).thenReturn(validCurvePoint);
+        when(curvePointService.save(any(CurvePoint.class))).thenAnswer(i -> i.getArgument(0));
+
+        this.mockMvc.perform(put("/api/v1/curvePoints/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(VALID_CURVE_POINT))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+
+        verify(curvePointService).save(any(CurvePoint.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void put_withUnknownId_shouldReturnNotFound() throws Exception {
+
+        when(curvePointService.findById(2)).thenThrow(new IllegalArgumentException("Invalid CurvePoint Id: 2"));
+
+        this.mockMvc.perform(put("/api/v1/curvePoints/2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(VALID_CURVE_POINT))
+                .andExpect(status().isNotFound());
+
+        verify(curvePointService, never()).save(any(CurvePoint.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void delete_shouldReturnNoContent() throws Exception {
+
+        when(curvePointService.deleteById(1)).thenReturn(true);
+
+        this.mockMvc.perform(delete("/api/v1/curvePoints/1"))
+                .andExpect(status().isNoContent());
+
+        verify(curvePointService).deleteById(1);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void delete_withUnknownId_shouldReturnNotFound() throws Exception {
+
+        when(curvePointService.deleteById(2)).thenReturn(false);
+
+        this.mockMvc.perform(delete("/api/v1/curvePoints/2"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,51 @@
+package com.nnk.springboot.controllerTests;
+
+import com.nnk.springboot.config.SpringSecurityConfig;
+import com.nnk.springboot.controllers.ExportController;
+import com.nnk.springboot.services.CustomUserDetailsService;
+import com.nnk.springboot.services.TradeExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ExportController.class)
+@Import({SpringSecurityConfig.class})
+public class ExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @MockitoBean
+    private TradeExportService tradeExportService;
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void getTradeExport_shouldStreamCsv() throws Exception {
+
+        this.mockMvc.perform(get("/trade/export")
+                        .param("book", "book")
+                        .param("tradeDate", "2024-03-01"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"trades.csv\""));
+
+        verify(tradeExportService).exportCsv(isNull(), eq("book"), eq(LocalDate.of(2024, 3, 1)), any());
+    }
+}
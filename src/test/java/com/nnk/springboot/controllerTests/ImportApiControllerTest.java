@@ -0,0 +1,127 @@
+package com.nnk.springboot.controllerTests;
+
+import com.nnk.springboot.config.SpringSecurityConfig;
+import com.nnk.springboot.controllers.api.ImportApiController;
+import com.nnk.springboot.domain.Bid;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.services.BulkImportService;
+import com.nnk.springboot.services.BulkImportService.Format;
+import com.nnk.springboot.services.CustomUserDetailsService;
+import com.nnk.springboot.services.ImportReport;
+import com.nnk.springboot.services.PositionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ImportApiController.class)
+@Import({SpringSecurityConfig.class})
+public class ImportApiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @MockitoBean
+    private BulkImportService bulkImportService;
+
+    @MockitoBean
+    private PositionService positionService;
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void postBidImport_withCsv_shouldReturnReport() throws Exception {
+
+        when(bulkImportService.importRows(any(), eq(Format.CSV), eq(Bid.class), any()))
+                .thenReturn(new ImportReport(10));
+
+        this.mockMvc.perform(post("/api/v1/bids/import")
+                        .contentType("text/csv")
+                        .content("account,type,bidQuantity\na,t,10\n"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(0))
+                .andExpect(jsonPath("$.errors").isArray());
+
+        verify(bulkImportService).importRows(any(), eq(Format.CSV), eq(Bid.class), any());
+        verify(positionService, never()).invalidate();
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void postTradeImport_withNdjson_shouldReturnReport() throws Exception {
+
+        when(bulkImportService.importRows(any(), eq(Format.NDJSON), eq(Trade.class), any()))
+                .thenReturn(new ImportReport(10));
+
+        this.mockMvc.perform(post("/api/v1/trades/import")
+                        .contentType("application/x-ndjson")
+                        .content("{\"account\":\"a\",\"type\":\"t\",\"buyQuantity\":10}\n"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rejected").value(0));
+
+        verify(bulkImportService).importRows(any(), eq(Format.NDJSON), eq(Trade.class), any());
+        verify(positionService).invalidate();
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void postBidImport_withUnsupportedType_shouldBeRejected() throws Exception {
+
+        this.mockMvc.perform(post("/api/v1/bids/import")
+                        .contentType(MediaType.APPLICATION_XML)
+                        .content("<bids/>"))
+                .andDo(print())
+                .andExpect(status().isUnsupportedMediaType());
+
+        verifyNoInteractions(bulkImportService);
+    }
+
+    @Test
+    public void postBidImport_withoutCredentials_shouldReturnUnauthorized() throws Exception {
+
+        this.mockMvc.perform(post("/api/v1/bids/import")
+                        .contentType("text/csv")
+                        .content("account,type,bidQuantity\na,t,10\n"))
+                .andDo(print())
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(bulkImportService);
+    }
+
+    @Test
+    public void postTradeImport_withHttpBasicAndNoCsrfToken_shouldReturnReport() throws Exception {
+
+        when(customUserDetailsService.loadUserByUsername("batch")).thenReturn(User.withUsername("batch")
+                .password("{bcrypt}" + new BCryptPasswordEncoder(10).encode("secret")).roles("USER").build());
+        when(bulkImportService.importRows(any(), eq(Format.CSV), eq(Trade.class), any()))
+                .thenReturn(new ImportReport(10));
+
+        this.mockMvc.perform(post("/api/v1/trades/import")
+                        .contentType("text/csv")
+                        .content("account,type,buyQuantity\na,t,10\n")
+                        .with(httpBasic("batch", "secret")))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Set-Cookie"));
+
+        verify(bulkImportService).importRows(any(), eq(Format.CSV), eq(Trade.class), any());
+    }
+}
@@ -0,0 +1,71 @@
+package com.nnk.springboot.controllerTests;
+
+import com.nnk.springboot.config.ApiConfig;
+import com.nnk.springboot.config.SpringSecurityConfig;
+import com.nnk.springboot.controllers.api.PositionApiController;
+import com.nnk.springboot.dto.Position;
+import com.nnk.springboot.services.CustomUserDetailsService;
+import com.nnk.springboot.services.PositionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(PositionApiController.class)
+@Import({SpringSecurityConfig.class, ApiConfig.class})
+public class PositionApiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @MockitoBean
+    private PositionService positionService;
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void getList_withBook_shouldReturnPositionsOfBook() throws Exception {
+
+        when(positionService.findAll("book", null)).thenReturn(List.of(
+                new Position("book", "account", "security", 100, 40, 60, 10, 80, 2)));
+
+        this.mockMvc.perform(get("/api/v1/positions").param("book", "book"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].netQuantity").value(60))
+                .andExpect(jsonPath("$[0].realizedPnl").value(80));
+
+        verify(positionService).findAll("book", null);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void postRebuild_asAdmin_shouldRebuildPositions() throws Exception {
+
+        this.mockMvc.perform(post("/api/v1/positions/rebuild"))
+                .andExpect(status().isNoContent());
+
+        verify(positionService).rebuild(true);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void postRebuild_asUser_shouldBeForbidden() throws Exception {
+
+        this.mockMvc.perform(post("/api/v1/positions/rebuild"))
+                .andExpect(status().isForbidden());
+
+        verify(positionService, never()).rebuild(anyBoolean());
+    }
+}
@@ -0,0 +1,164 @@
+package com.nnk.springboot.controllerTests;
+
+import com.nnk.springboot.config.ApiConfig;
+import com.nnk.springboot.config.SpringSecurityConfig;
+import com.nnk.springboot.controllers.api.RatingApiController;
+import com.nnk.springboot.controllers.api.SparseFields;
+import com.nnk.springboot.domain.Rating;
+import com.nnk.springboot.services.CustomUserDetailsService;
+import com.nnk.springboot.services.RatingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(RatingApiController.class)
+@Import({SpringSecurityConfig.class, ApiConfig.class, SparseFields.class})
+public class RatingApiControllerTest {
+
+    private static final String VALID_RATING = "{\"moodysRating\":\"Moodys\",\"sandPRating\":\"SandP\",\"fitchRating\":\"Fitch\",\"orderNumber\":10}";
+    private static final String INVALID_RATING = "{\"moodysRating\":\"Moodys\",\"sandPRating\":\"SandP\",\"fitchRating\":\"Fitch\",\"orderNumber\":0}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @MockitoBean
+    private RatingService ratingService;
+
+    private Rating validRating;
+
+    @BeforeEach
+    public void setup() {
+        validRating = new Rating("Moodys", "SandP", "Fitch", 10);
+        validRating.setId(1);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void getList_withFields_shouldReturnPageOfSelectedFields() throws Exception {
+
+        when(ratingService.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(validRating), PageRequest.of(0, 20), 21));
+
+        this.mockMvc.perform(get("/api/v1/ratings").param("fields", "id,moodysRating"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[0].moodysRating").exists())
+                .andExpect(jsonPath("$.content[0].fitchRating").doesNotExist())
+                .andExpect(jsonPath("$.totalElements").value(21))
+                .andExpect(jsonPath("$.totalPages").value(2));
+
+        verify(ratingService).findAll(any(Pageable.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void get_withUnknownId_shouldReturnNotFound() throws Exception {
+
+        when(ratingService.findById(2)).thenThrow(new IllegalArgumentException("Invalid Rating Id: 2"));
+
+        this.mockMvc.perform(get("/api/v1/ratings/2"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void post_shouldCreateRating() throws Exception {
+
+        when(ratingService.save(any(Rating.class))).thenReturn(validRating);
+
+        this.mockMvc.perform(post("/api/v1/ratings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(VALID_RATING))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "http://localhost/api/v1/ratings/1"))
+                .andExpect(jsonPath("$.id").value(1));
+
+        verify(ratingService).save(any(Rating.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void post_withInvalidRating_shouldReturnBadRequest() throws Exception {
+
+        this.mockMvc.perform(post("/api/v1/ratings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INVALID_RATING))
+                .andExpect(status().isBadRequest());
+
+        verify(ratingService, never()).save(any(Rating.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void put_shouldUpdateRating() throws Exception {
+
+        when(ratingService.findById(1)).thenReturn(validRating);
+        when(ratingService.save(any(Rating.class))).thenAnswer(i -> i.getArgument(0));
+
+        this.mockMvc.perform(put("/api/v1/ratings/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(VALID_RATING))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+
+        verify(ratingService).save(any(Rating.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void put_withUnknownId_shouldReturnNotFound() throws Exception {
+
+        when(ratingService.findById(2)).thenThrow(new IllegalArgumentException("Invalid Rating Id: 2"));
+
+        this.mockMvc.perform(put("/api/v1/ratings/2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(VALID_RATING))
+                .andExpect(status().isNotFound());
+
+        verify(ratingService, never()).save(any(Rating.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void delete_shouldReturnNoContent() throws Exception {
+
+        when(ratingService.deleteById(1)).thenReturn(true);
+
+        this.mockMvc.perform(delete("/api/v1/ratings/1"))
+                .andExpect(status().isNoContent());
+
+        verify(ratingService).deleteById(1);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void delete_withUnknownId_shouldReturnNotFound() throws Exception {
+
+        when(ratingService.deleteById(2)).thenReturn(false);
+
+        this.mockMvc.perform(delete("/api/v1/ratings/2"))
+                .andExpect(status().isNotFound());
+    }
+}
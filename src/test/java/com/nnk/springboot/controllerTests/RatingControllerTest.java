@@ -3,8 +3,10 @@ package com.nnk.springboot.controllerTests;
 import com.nnk.springboot.config.SpringSecurityConfig;
 import com.nnk.springboot.controllers.RatingController;
 import com.nnk.springboot.domain.Rating;
+import com.nnk.springboot.dto.RatingSummary;
 import com.nnk.springboot.services.CustomUserDetailsService;
 import com.nnk.springboot.services.RatingService;
+import com.nnk.springboot.services.TableVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -17,7 +19,7 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
-import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -32,7 +34,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(RatingController.class)
-@Import({SpringSecurityConfig.class})
+@Import({SpringSecurityConfig.class, TableVersions.class})
 public class RatingControllerTest {
 
     @Autowired
@@ -67,15 +69,16 @@ public class RatingControllerTest {
     @WithMockUser(roles = "USER")
     public void getHome_shouldReturnList() throws Exception {
 
-        when(ratingService.findAll()).thenReturn(new ArrayList<>());
+        when(ratingService.findSummaries()).thenReturn(List.of(new RatingSummary(7, "Moodys", "SandP", "Fitch", 10)));
 
         this.mockMvc.perform(get("/rating/list"))
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(view().name("rating/list"))
-                .andExpect(content().string(containsString("Rating List")));
+                .andExpect(content().string(containsString("Rating List")))
+                .andExpect(content().string(containsString("/rating/update/7")));
 
-        verify(ratingService).findAll();
+        verify(ratingService).findSummaries();
     }
 
     @Test
@@ -94,7 +97,6 @@ public class RatingControllerTest {
     public void postValidate_shouldSaveRating() throws Exception {
 
         when(ratingService.save(any())).thenReturn(validRating);
-        when(ratingService.findAll()).thenReturn(new ArrayList<>());
 
         this.mockMvc.perform(post("/rating/validate")
                         .flashAttr("rating", validRating)
@@ -104,7 +106,7 @@ public class RatingControllerTest {
                 .andExpect(redirectedUrl("/rating/list"));
 
         verify(ratingService).save(any());
-        verify(ratingService).findAll();
+        verify(ratingService, never()).findSummaries();
     }
 
     @ParameterizedTest(name = "{0} should return {2} error")
@@ -142,7 +144,6 @@ public class RatingControllerTest {
     public void postUpdateRating_shouldSaveRating() throws Exception {
 
         when(ratingService.save(any())).thenReturn(validRating);
-        when(ratingService.findAll()).thenReturn(new ArrayList<>());
 
         this.mockMvc.perform(post("/rating/update/{id}", 1)
                         .flashAttr("rating", validRating)
@@ -152,7 +153,7 @@ public class RatingControllerTest {
                 .andExpect(redirectedUrl("/rating/list"));
 
         verify(ratingService).save(any());
-        verify(ratingService).findAll();
+        verify(ratingService, never()).findSummaries();
     }
 
     @ParameterizedTest(name = "{0} should return {2} error")
@@ -174,17 +175,28 @@ public class RatingControllerTest {
     @WithMockUser(roles = "USER")
     public void getDeleteRating_shouldDeleteRating() throws Exception {
 
-        when(ratingService.findById(anyInt())).thenReturn(validRating);
-        doNothing().when(ratingService).delete(any());
-        when(ratingService.findAll()).thenReturn(new ArrayList<>());
+        when(ratingService.deleteById(anyInt())).thenReturn(true);
 
         this.mockMvc.perform(get("/rating/delete/{id}", 1))
                 .andDo(print())
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/rating/list"));
 
-        verify(ratingService).findById(1);
-        verify(ratingService).delete(any());
-        verify(ratingService).findAll();
+        verify(ratingService).deleteById(1);
+        verify(ratingService, never()).findById(anyInt());
+        verify(ratingService, never()).findSummaries();
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void getDeleteRating_withUnknownId_shouldReturnNotFound() throws Exception {
+
+        when(ratingService.deleteById(anyInt())).thenReturn(false);
+
+        this.mockMvc.perform(get("/rating/delete/{id}", 1))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+
+        verify(ratingService).deleteById(1);
     }
 }
@@ -0,0 +1,236 @@
+package com.nnk.springboot.controllerTests;
+
+import com.nnk.springboot.config.ApiConfig;
+import com.nnk.springboot.config.SpringSecurityConfig;
+import com.nnk.springboot.controllers.api.RuleApiController;
+import com.nnk.springboot.controllers.api.SparseFields;
+import com.nnk.springboot.domain.Rule;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.dto.RuleMatch;
+import com.nnk.springboot.services.CustomUserDetailsService;
+import com.nnk.springboot.services.RuleEngine;
+import com.nnk.springboot.services.RuleQueryService;
+import com.nnk.springboot.services.RuleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(RuleApiController.class)
+@Import({SpringSecurityConfig.class, ApiConfig.class, SparseFields.class})
+public class RuleApiControllerTest {
+
+    private static final String VALID_RULE = "{\"name\":\"name\",\"description\":\"description\",\"json\":\"json\",\"template\":\"template\",\"sqlStr\":\"sqlStr\",\"sqlPart\":\"sqlPart\"}";
+    private static final String INVALID_RULE = "{\"name\":\"\",\"description\":\"description\",\"json\":\"json\",\"template\":\"template\",\"sqlStr\":\"sqlStr\",\"sqlPart\":\"sqlPart\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @MockitoBean
+    private RuleService ruleService;
+
+    @MockitoBean
+    private RuleEngine ruleEngine;
+
+    @MockitoBean
+    private RuleQueryService ruleQueryService;
+
+    private Rule validRule;
+
+    @BeforeEach
+    public void setup() {
+        validRule = new Rule("name", "description", "json", "template", "sqlStr", "sqlPart");
+        validRule.setId(1);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void getList_withFields_shouldReturnPageOfSelectedFields() throws Exception {
+
+        when(ruleService.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(validRule), PageRequest.of(0, 20), 21));
+
+        this.mockMvc.perform(get("/api/v1/rules").param("fields", "id,name"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[0].name").exists())
+                .andExpect(jsonPath("$.content[0].sqlStr").doesNotExist())
+                .andExpect(jsonPath("$.totalElements").value(21))
+                .andExpect(jsonPath("$.totalPages").value(2));
+
+        verify(ruleService).findAll(any(Pageable.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void get_withUnknownId_shouldReturnNotFound() throws Exception {
+
+        when(ruleService.findById(2)).thenThrow(new IllegalArgumentException("Invalid Rule Id: 2"));
+
+        this.mockMvc.perform(get("/api/v1/rules/2"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void post_shouldCreateRule() throws Exception {
+
+        when(ruleService.save(any(Rule.class))).thenReturn(validRule);
+
+        this.mockMvc.perform(post("/api/v1/rules")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(VALID_RULE))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "http://localhost/api/v1/rules/1"))
+                .andExpect(jsonPath("$.id").value(1));
+
+        verify(ruleService).save(any(Rule.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void post_withInvalidRule_shouldReturnBadRequest() throws Exception {
+
+        this.mockMvc.perform(post("/api/v1/rules")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INVALID_RULE))
+                .andExpect(status().isBadRequest());
+
+        verify(ruleService, never()).save(any(Rule.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void put_shouldUpdateRule() throws Exception {
+
+        when(ruleService.findById(1)).thenReturn(validRule);
+        when(ruleService.save(any(Rule.class))).thenAnswer(i -> i.getArgument(0));
+
+        this.mockMvc.perform(put("/api/v1/rules/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(VALID_RULE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+
+        verify(ruleService).save(any(Rule.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void put_withUnknownId_shouldReturnNotFound() throws Exception {
+
+        when(ruleService.findById(2)).thenThrow(new IllegalArgumentException("Invalid Rule Id: 2"));
+
+        this.mockMvc.perform(put("/api/v1/rules/2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(VALID_RULE))
+                .andExpect(status().isNotFound());
+
+        verify(ruleService, never()).save(any(Rule.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void delete_shouldReturnNoContent() throws Exception {
+
+        when(ruleService.deleteById(1)).thenReturn(true);
+
+        this.mockMvc.perform(delete("/api/v1/rules/1"))
+                .andExpect(status().isNoContent());
+
+        verify(ruleService).deleteById(1);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void delete_withUnknownId_shouldReturnNotFound() throws Exception {
+
+        when(ruleService.deleteById(2)).thenReturn(false);
+
+        this.mockMvc.perform(delete("/api/v1/rules/2"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void postMatchTrade_shouldReturnMatchedRules() throws Exception {
+
+        when(ruleEngine.matches(any(Trade.class))).thenReturn(List.of(new RuleMatch(1, "name")));
+
+        this.mockMvc.perform(post("/api/v1/rules/matches/trade")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"account\":\"account\",\"type\":\"type\",\"buyQuantity\":10}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].name").value("name"));
+
+        verify(ruleEngine).matches(argThat((Trade trade) -> trade.getBuyQuantity() == 10));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void getResults_shouldStreamRowsOfRuleSql() throws Exception {
+
+        RuleQueryService.PreparedQuery query = new RuleQueryService.PreparedQuery(1, "select ?", List.of("A"));
+        when(ruleService.findById(1)).thenReturn(validRule);
+        when(ruleQueryService.prepare(validRule, Map.of("account", List.of("A")))).thenReturn(query);
+        doAnswer(i -> {
+            i.getArgument(1, OutputStream.class).write("[{\"account\":\"A\"}]".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(ruleQueryService).execute(eq(query), any(OutputStream.class));
+
+        MvcResult result = this.mockMvc.perform(get("/api/v1/rules/1/results").param("account", "A"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].account").value("A"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void getResults_withInvalidSql_shouldReturnBadRequest() throws Exception {
+
+        when(ruleService.findById(1)).thenReturn(validRule);
+        when(ruleQueryService.prepare(eq(validRule), any())).thenThrow(new IllegalArgumentException("not a SELECT"));
+
+        this.mockMvc.perform(get("/api/v1/rules/1/results"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void getResults_asUser_shouldReturnForbidden() throws Exception {
+
+        this.mockMvc.perform(get("/api/v1/rules/1/results"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(ruleQueryService);
+    }
+}
@@ -3,8 +3,10 @@ package com.nnk.springboot.controllerTests;
 import com.nnk.springboot.config.SpringSecurityConfig;
 import com.nnk.springboot.controllers.RuleController;
 import com.nnk.springboot.domain.Rule;
+import com.nnk.springboot.dto.RuleSummary;
 import com.nnk.springboot.services.CustomUserDetailsService;
 import com.nnk.springboot.services.RuleService;
+import com.nnk.springboot.services.TableVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -17,7 +19,7 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
-import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Stream;
 
 import static org.hamcrest.Matchers.containsString;
@@ -31,7 +33,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(RuleController.class)
-@Import({SpringSecurityConfig.class})
+@Import({SpringSecurityConfig.class, TableVersions.class})
 public class RuleControllerTest {
 
     @Autowired
@@ -84,15 +86,17 @@ public class RuleControllerTest {
     @WithMockUser(roles = "USER")
     public void getHome_shouldReturnList() throws Exception {
 
-        when(ruleService.findAll()).thenReturn(new ArrayList<>());
+        when(ruleService.findSummaries()).thenReturn(
+                List.of(new RuleSummary(7, "name", "description", "json", "template", "sqlStr", "sqlPart")));
 
         this.mockMvc.perform(get("/rule/list"))
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(view().name("rule/list"))
-                .andExpect(content().string(containsString("Rule List")));
+                .andExpect(content().string(containsString("Rule List")))
+                .andExpect(content().string(containsString("/rule/update/7")));
 
-        verify(ruleService).findAll();
+        verify(ruleService).findSummaries();
     }
 
     @Test
@@ -111,7 +115,6 @@ public class RuleControllerTest {
     public void postValidate_shouldSaveRule() throws Exception {
 
         when(ruleService.save(any())).thenReturn(validRule);
-        when(ruleService.findAll()).thenReturn(new ArrayList<>());
 
         this.mockMvc.perform(post("/rule/validate")
                         .flashAttr("rule", validRule)
@@ -121,7 +124,7 @@ public class RuleControllerTest {
                 .andExpect(redirectedUrl("/rule/list"));
 
         verify(ruleService).save(any());
-        verify(ruleService).findAll();
+        verify(ruleService, never()).findSummaries();
     }
 
     @ParameterizedTest(name = "{0} should return {2} error")
@@ -159,7 +162,6 @@ public class RuleControllerTest {
     public void postUpdateRule_shouldSaveRule() throws Exception {
 
         when(ruleService.save(any())).thenReturn(validRule);
-        when(ruleService.findAll()).thenReturn(new ArrayList<>());
 
         this.mockMvc.perform(post("/rule/update/{id}", 1)
                         .flashAttr("rule", validRule)
@@ -169,7 +171,7 @@ public class RuleControllerTest {
                 .andExpect(redirectedUrl("/rule/list"));
 
         verify(ruleService).save(any());
-        verify(ruleService).findAll();
+        verify(ruleService, never()).findSummaries();
     }
 
     @ParameterizedTest(name = "{0} should return {2} error")
@@ -191,17 +193,28 @@ public class RuleControllerTest {
     @WithMockUser(roles = "USER")
     public void getDeleteRule_shouldDeleteRule() throws Exception {
 
-        when(ruleService.findById(anyInt())).thenReturn(validRule);
-        doNothing().when(ruleService).delete(any());
-        when(ruleService.findAll()).thenReturn(new ArrayList<>());
+        when(ruleService.deleteById(anyInt())).thenReturn(true);
 
         this.mockMvc.perform(get("/rule/delete/{id}", 1))
                 .andDo(print())
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/rule/list"));
 
-        verify(ruleService).findById(1);
-        verify(ruleService).delete(any());
-        verify(ruleService).findAll();
+        verify(ruleService).deleteById(1);
+        verify(ruleService, never()).findById(anyInt());
+        verify(ruleService, never()).findSummaries();
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void getDeleteRule_withUnknownId_shouldReturnNotFound() throws Exception {
+
+        when(ruleService.deleteById(anyInt())).thenReturn(false);
+
+        this.mockMvc.perform(get("/rule/delete/{id}", 1))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+
+        verify(ruleService).deleteById(1);
     }
 }
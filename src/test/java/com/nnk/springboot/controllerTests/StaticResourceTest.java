@@ -0,0 +1,55 @@
+package com.nnk.springboot.controllerTests;
+
+import com.nnk.springboot.config.SpringSecurityConfig;
+import com.nnk.springboot.controllers.HomeController;
+import com.nnk.springboot.services.CustomUserDetailsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Checks that the static resources are served at content-hashed URLs, cached for a year,
+ * and from their precompressed file to the browsers accepting gzip.
+ */
+@WebMvcTest(HomeController.class)
+@Import({SpringSecurityConfig.class})
+public class StaticResourceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ResourceUrlProvider resourceUrlProvider;
+
+    @MockitoBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Test
+    public void stylesheet_shouldBeVersionedAndCachedForAYear() throws Exception {
+        String url = resourceUrlProvider.getForLookupPath("/css/bootstrap.min.css");
+
+        assertNotEquals("/css/bootstrap.min.css", url);
+        this.mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public"));
+    }
+
+    @Test
+    public void stylesheet_withGzipAccepted_shouldBeServedPrecompressed() throws Exception {
+        this.mockMvc.perform(get(resourceUrlProvider.getForLookupPath("/css/bootstrap.min.css"))
+                        .header("Accept-Encoding", "gzip, deflate, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", containsString("Accept-Encoding")))
+                .andExpect(content().contentTypeCompatibleWith("text/css"));
+    }
+}
@@ -0,0 +1,192 @@
+package com.nnk.springboot.controllerTests;
+
+import com.nnk.springboot.config.ApiConfig;
+import com.nnk.springboot.config.SpringSecurityConfig;
+import com.nnk.springboot.controllers.api.TradeApiController;
+import com.nnk.springboot.controllers.api.SparseFields;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.services.CustomUserDetailsService;
+import com.nnk.springboot.services.TradeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(TradeApiController.class)
+@Import({SpringSecurityConfig.class, ApiConfig.class, SparseFields.class})
+public class TradeApiControllerTest {
+
+    private static final String VALID_TRADE = "{\"account\":\"account\",\"type\":\"type\",\"buyQuantity\":10}";
+    private static final String VERSIONED_TRADE = "{\"account\":\"account\",\"type\":\"type\",\"buyQuantity\":10,\"version\":3}";
+    private static final String INVALID_TRADE = "{\"account\":\"account\",\"type\":\"\",\"buyQuantity\":10}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @MockitoBean
+    private TradeService tradeService;
+
+    private Trade validTrade;
+
+    @BeforeEach
+    public void setup() {
+        validTrade = new Trade("account", "type", 10);
+        validTrade.setTradeId(1);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void getList_withFields_shouldReturnPageOfSelectedFields() throws Exception {
+
+        when(tradeService.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(validTrade), PageRequest.of(0, 20), 21));
+
+        this.mockMvc.perform(get("/api/v1/trades").param("fields", "tradeId,account"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].tradeId").value(1))
+                .andExpect(jsonPath("$.content[0].account").exists())
+                .andExpect(jsonPath("$.content[0].buyQuantity").doesNotExist())
+                .andExpect(jsonPath("$.totalElements").value(21))
+                .andExpect(jsonPath("$.totalPages").value(2));
+
+        verify(tradeService).findAll(any(Pageable.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void get_withUnknownId_shouldReturnNotFound() throws Exception {
+
+        when(tradeService.findById(2)).thenThrow(new IllegalArgumentException("Invalid Trade Id: 2"));
+
+        this.mockMvc.perform(get("/api/v1/trades/2"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void post_shouldCreateTrade() throws Exception {
+
+        when(tradeService.save(any(Trade.class))).thenReturn(validTrade);
+
+        this.mockMvc.perform(post("/api/v1/trades")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(VALID_TRADE))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "http://localhost/api/v1/trades/1"))
+                .andExpect(jsonPath("$.tradeId").value(1));
+
+        verify(tradeService).save(any(Trade.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void post_withInvalidTrade_shouldReturnBadRequest() throws Exception {
+
+        this.mockMvc.perform(post("/api/v1/trades")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INVALID_TRADE))
+                .andExpect(status().isBadRequest());
+
+        verify(tradeService, never()).save(any(Trade.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void put_shouldReplaceTrade() throws Exception {
+
+        when(tradeService.replace(any(Trade.class))).thenAnswer(i -> {
+            Trade trade = i.getArgument(0);
+            trade.setVersion(trade.getVersion() + 1);
+            return trade;
+        });
+
+        this.mockMvc.perform(put("/api/v1/trades/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(VERSIONED_TRADE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tradeId").value(1))
+                .andExpect(jsonPath("$.version").value(4));
+
+        verify(tradeService).replace(any(Trade.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void put_withoutVersion_shouldReturnBadRequest() throws Exception {
+
+        this.mockMvc.perform(put("/api/v1/trades/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(VALID_TRADE))
+                .andExpect(status().isBadRequest());
+
+        verify(tradeService, never()).replace(any(Trade.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void put_whenChangedMeanwhile_shouldReturnConflict() throws Exception {
+
+        when(tradeService.replace(any(Trade.class))).thenThrow(new ObjectOptimisticLockingFailureException(Trade.class, 1));
+
+        this.mockMvc.perform(put("/api/v1/trades/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(VERSIONED_TRADE))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void put_withUnknownId_shouldReturnNotFound() throws Exception {
+
+        when(tradeService.replace(any(Trade.class))).thenThrow(new IllegalArgumentException("Invalid Trade Id: 2"));
+
+        this.mockMvc.perform(put("/api/v1/trades/2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(VERSIONED_TRADE))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void delete_shouldReturnNoContent() throws Exception {
+
+        when(tradeService.deleteById(1)).thenReturn(true);
+
+        this.mockMvc.perform(delete("/api/v1/trades/1"))
+                .andExpect(status().isNoContent());
+
+        verify(tradeService).deleteById(1);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void delete_withUnknownId_shouldReturnNotFound() throws Exception {
+
+        when(tradeService.deleteById(2)).thenReturn(false);
+
+        this.mockMvc.perform(delete("/api/v1/trades/2"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -3,8 +3,11 @@ package com.nnk.springboot.controllerTests;
 import com.nnk.springboot.config.SpringSecurityConfig;
 import com.nnk.springboot.controllers.TradeController;
 import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.dto.TradeSummary;
 import com.nnk.springboot.services.CustomUserDetailsService;
+import com.nnk.springboot.services.ListChangeFeed;
 import com.nnk.springboot.services.TradeService;
+import com.nnk.springboot.services.TableVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -13,11 +16,13 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Stream;
 
 import static org.hamcrest.Matchers.containsString;
@@ -31,7 +36,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TradeController.class)
-@Import({SpringSecurityConfig.class})
+@Import({SpringSecurityConfig.class, TableVersions.class})
 public class TradeControllerTest {
 
     @Autowired
@@ -43,6 +48,9 @@ public class TradeControllerTest {
     @MockitoBean
     private TradeService tradeService;
 
+    @MockitoBean
+    private ListChangeFeed listChangeFeed;
+
     private Trade validTrade;
 
     @BeforeEach
@@ -64,15 +72,30 @@ public class TradeControllerTest {
     @WithMockUser(roles = "USER")
     public void getHome_shouldReturnList() throws Exception {
 
-        when(tradeService.findAll()).thenReturn(new ArrayList<>());
+        when(tradeService.findSummaries()).thenReturn(List.of(new TradeSummary(7, "account", "type", 10)));
 
         this.mockMvc.perform(get("/trade/list"))
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(view().name("trade/list"))
-                .andExpect(content().string(containsString("Trade List")));
+                .andExpect(content().string(containsString("Trade List")))
+                .andExpect(content().string(containsString("/trade/update/7")))
+                .andExpect(content().string(containsString("data-id=\"7\"")));
 
-        verify(tradeService).findAll();
+        verify(tradeService).findSummaries();
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void getStream_shouldStartEventStream() throws Exception {
+
+        when(listChangeFeed.subscribe("trade")).thenReturn(new SseEmitter());
+
+        this.mockMvc.perform(get("/trade/stream"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        verify(listChangeFeed).subscribe("trade");
     }
 
     @Test
@@ -91,7 +114,6 @@ public class TradeControllerTest {
     public void postValidate_shouldSaveTrade() throws Exception {
 
         when(tradeService.save(any())).thenReturn(validTrade);
-        when(tradeService.findAll()).thenReturn(new ArrayList<>());
 
         this.mockMvc.perform(post("/trade/validate")
                         .flashAttr("trade", validTrade)
@@ -101,7 +123,7 @@ public class TradeControllerTest {
                 .andExpect(redirectedUrl("/trade/list"));
 
         verify(tradeService).save(any());
-        verify(tradeService).findAll();
+        verify(tradeService, never()).findSummaries();
     }
 
     @ParameterizedTest(name = "{0} should return {2} error")
@@ -138,8 +160,7 @@ public class TradeControllerTest {
     @WithMockUser(roles = "USER")
     public void postUpdateTrade_shouldSaveBidList() throws Exception {
 
-        when(tradeService.save(any())).thenReturn(validTrade);
-        when(tradeService.findAll()).thenReturn(new ArrayList<>());
+        when(tradeService.update(any())).thenReturn(validTrade);
 
         this.mockMvc.perform(post("/trade/update/{id}", 1)
                         .flashAttr("trade", validTrade)
@@ -148,8 +169,40 @@ public class TradeControllerTest {
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/trade/list"));
 
-        verify(tradeService).save(any());
-        verify(tradeService).findAll();
+        verify(tradeService).update(argThat(trade -> trade.getTradeId() == 1));
+        verify(tradeService, never()).findSummaries();
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void postUpdateTrade_whenChangedMeanwhile_shouldShowCurrentTradeWithConflict() throws Exception {
+
+        Trade current = new Trade("other account", "type", 20d);
+        when(tradeService.update(any())).thenThrow(new ObjectOptimisticLockingFailureException(Trade.class, 1));
+        when(tradeService.findById(1)).thenReturn(current);
+
+        this.mockMvc.perform(post("/trade/update/{id}", 1)
+                        .flashAttr("trade", validTrade)
+                        .with(csrf().asHeader()))
+                .andDo(print())
+                .andExpect(status().isConflict())
+                .andExpect(view().name("trade/update"))
+                .andExpect(model().attribute("trade", current))
+                .andExpect(model().attribute("conflict", true))
+                .andExpect(content().string(containsString("changed by someone else")));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void postUpdateTrade_withUnknownId_shouldReturnNotFound() throws Exception {
+
+        when(tradeService.update(any())).thenThrow(new IllegalArgumentException("Invalid Trade Id: 2"));
+
+        this.mockMvc.perform(post("/trade/update/{id}", 2)
+                        .flashAttr("trade", validTrade)
+                        .with(csrf().asHeader()))
+                .andDo(print())
+                .andExpect(status().isNotFound());
     }
 
     @ParameterizedTest(name = "{0} should return {2} error")
@@ -171,17 +224,28 @@ public class TradeControllerTest {
     @WithMockUser(roles = "USER")
     public void getDeleteTrade_shouldDeleteTrade() throws Exception {
 
-        when(tradeService.findById(anyInt())).thenReturn(validTrade);
-        doNothing().when(tradeService).delete(any());
-        when(tradeService.findAll()).thenReturn(new ArrayList<>());
+        when(tradeService.deleteById(anyInt())).thenReturn(true);
 
         this.mockMvc.perform(get("/trade/delete/{id}", 1))
                 .andDo(print())
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/trade/list"));
 
-        verify(tradeService).findById(1);
-        verify(tradeService).delete(any());
-        verify(tradeService).findAll();
+        verify(tradeService).deleteById(1);
+        verify(tradeService, never()).findById(anyInt());
+        verify(tradeService, never()).findSummaries();
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void getDeleteTrade_withUnknownId_shouldReturnNotFound() throws Exception {
+
+        when(tradeService.deleteById(anyInt())).thenReturn(false);
+
+        this.mockMvc.perform(get("/trade/delete/{id}", 1))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+
+        verify(tradeService).deleteById(1);
     }
 }
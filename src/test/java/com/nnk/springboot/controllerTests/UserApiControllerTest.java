@@ -0,0 +1,197 @@
+package com.nnk.springboot.controllerTests;
+
+import com.nnk.springboot.config.ApiConfig;
+import com.nnk.springboot.config.SpringSecurityConfig;
+import com.nnk.springboot.controllers.api.UserApiController;
+import com.nnk.springboot.controllers.api.SparseFields;
+import com.nnk.springboot.domain.User;
+import com.nnk.springboot.services.CustomUserDetailsService;
+import com.nnk.springboot.services.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(UserApiController.class)
+@Import({SpringSecurityConfig.class, ApiConfig.class, SparseFields.class})
+public class UserApiControllerTest {
+
+    private static final String VALID_USER = "{\"username\":\"username\",\"password\":\"Password123&\",\"fullname\":\"fullname\",\"role\":\"USER\"}";
+    private static final String INVALID_USER = "{\"username\":\"username\",\"password\":\"short\",\"fullname\":\"fullname\",\"role\":\"USER\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @MockitoBean
+    private UserService userService;
+
+    private User validUser;
+
+    @BeforeEach
+    public void setup() {
+        validUser = new User("username", "Password123&", "fullname", "role");
+        validUser.setId(1);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void getList_withFields_shouldReturnPageOfSelectedFields() throws Exception {
+
+        when(userService.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(validUser), PageRequest.of(0, 20), 21));
+
+        this.mockMvc.perform(get("/api/v1/users").param("fields", "id,username"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[0].username").exists())
+                .andExpect(jsonPath("$.content[0].fullname").doesNotExist())
+                .andExpect(jsonPath("$.totalElements").value(21))
+                .andExpect(jsonPath("$.totalPages").value(2));
+
+        verify(userService).findAll(any(Pageable.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void get_withUnknownId_shouldReturnNotFound() throws Exception {
+
+        when(userService.findById(2)).thenThrow(new IllegalArgumentException("Invalid User Id: 2"));
+
+        this.mockMvc.perform(get("/api/v1/users/2"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void post_shouldCreateUser() throws Exception {
+
+        when(userService.save(any(User.class))).thenReturn(validUser);
+
+        this.mockMvc.perform(post("/api/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(VALID_USER))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "http://localhost/api/v1/users/1"))
+                .andExpect(jsonPath("$.id").value(1));
+
+        verify(userService).save(any(User.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void post_withInvalidUser_shouldReturnBadRequest() throws Exception {
+
+        this.mockMvc.perform(post("/api/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INVALID_USER))
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).save(any(User.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void put_shouldUpdateUser() throws Exception {
+
+        when(userService.findById(1)).thenReturn(validUser);
+        when(userService.save(any(User.class))).thenAnswer(i -> i.getArgument(0));
+
+        this.mockMvc.perform(put("/api/v1/users/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(VALID_USER))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+
+        verify(userService).save(any(User.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void put_withUnknownId_shouldReturnNotFound() throws Exception {
+
+        when(userService.findById(2)).thenThrow(new IllegalArgumentException("Invalid User Id: 2"));
+
+        this.mockMvc.perform(put("/api/v1/users/2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(VALID_USER))
+                .andExpect(status().isNotFound());
+
+        verify(userService, never()).save(any(User.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void delete_shouldReturnNoContent() throws Exception {
+
+        when(userService.deleteById(1)).thenReturn(true);
+
+        this.mockMvc.perform(delete("/api/v1/users/1"))
+                .andExpect(status().isNoContent());
+
+        verify(userService).deleteById(1);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void delete_withUnknownId_shouldReturnNotFound() throws Exception {
+
+        when(userService.deleteById(2)).thenReturn(false);
+
+        this.mockMvc.perform(delete("/api/v1/users/2"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void get_shouldNotReturnPassword() throws Exception {
+
+        when(userService.findById(1)).thenReturn(validUser);
+
+        this.mockMvc.perform(get("/api/v1/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("username"))
+                .andExpect(jsonPath("$.password").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void getList_withPasswordField_shouldReturnBadRequest() throws Exception {
+
+        when(userService.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(validUser), PageRequest.of(0, 20), 1));
+
+        this.mockMvc.perform(get("/api/v1/users").param("fields", "username,password"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void get_withUserRole_shouldReturnForbidden() throws Exception {
+
+        this.mockMvc.perform(get("/api/v1/users/1"))
+                .andExpect(status().isForbidden());
+
+        verify(userService, never()).findById(any());
+    }
+}
@@ -95,7 +95,6 @@ public class UserControllerTest {
     public void postValidate_shouldSaveUser() throws Exception {
 
         when(userService.save(any())).thenReturn(validUser);
-        when(userService.findAll()).thenReturn(new ArrayList<>());
 
         this.mockMvc.perform(post("/user/validate")
                         .flashAttr("user", validUser)
@@ -105,7 +104,7 @@ public class UserControllerTest {
                 .andExpect(redirectedUrl("/user/list"));
 
         verify(userService).save(any());
-        verify(userService).findAll();
+        verify(userService, never()).findAll();
     }
 
     @ParameterizedTest
@@ -169,7 +168,6 @@ public class UserControllerTest {
     public void postUpdateUser_shouldSaveUser() throws Exception {
 
         when(userService.save(any())).thenReturn(validUser);
-        when(userService.findAll()).thenReturn(new ArrayList<>());
 
         this.mockMvc.perform(post("/user/update/{id}", 1)
                         .flashAttr("user", validUser)
@@ -179,7 +177,7 @@ public class UserControllerTest {
                 .andExpect(redirectedUrl("/user/list"));
 
         verify(userService).save(any());
-        verify(userService).findAll();
+        verify(userService, never()).findAll();
     }
 
     @ParameterizedTest(name = "{0} should return {2} error")
@@ -201,17 +199,28 @@ public class UserControllerTest {
     @WithMockUser(roles = "ADMIN")
     public void getDeleteUser_shouldDeleteUser() throws Exception {
 
-        when(userService.findById(anyInt())).thenReturn(validUser);
-        doNothing().when(userService).delete(any(User.class));
-        when(userService.findAll()).thenReturn(new ArrayList<>());
+        when(userService.deleteById(anyInt())).thenReturn(true);
 
         this.mockMvc.perform(get("/user/delete/{id}", 1))
                 .andDo(print())
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/user/list"));
 
-        verify(userService).findById(1);
-        verify(userService).delete(any(User.class));
-        verify(userService).findAll();
+        verify(userService).deleteById(1);
+        verify(userService, never()).findById(anyInt());
+        verify(userService, never()).findAll();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void getDeleteUser_withUnknownId_shouldReturnNotFound() throws Exception {
+
+        when(userService.deleteById(anyInt())).thenReturn(false);
+
+        this.mockMvc.perform(get("/user/delete/{id}", 1))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+
+        verify(userService).deleteById(1);
     }
 }
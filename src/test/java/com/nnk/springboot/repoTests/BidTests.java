@@ -5,6 +5,7 @@ import com.nnk.springboot.repositories.BidRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
@@ -33,14 +34,31 @@ public class BidTests {
         bid = bidRepository.save(bid);
         assertEquals(20d, bid.getBidQuantity(), 20d);
 
+        // Conditional update
+        Integer version = bid.getVersion();
+        bid.setBidQuantity(30d);
+        assertEquals(1, bidRepository.updateIfUnchanged(bid));
+        assertEquals(0, bidRepository.updateIfUnchanged(bid));
+        bid.setVersion(version + 1);
+        assertEquals(1, bidRepository.replaceIfUnchanged(bid));
+        Bid stored = bidRepository.findById(bid.getBidListId()).orElseThrow();
+        assertEquals(version + 2, stored.getVersion());
+        assertEquals(30d, stored.getBidQuantity());
+
         // Find
         List<Bid> listResult = bidRepository.findAll();
         assertTrue(listResult.size() > 0);
 
+        // Find summaries
+        Integer savedId = bid.getBidListId();
+        assertEquals(savedId, bidRepository.findSummariesAfter(savedId - 1, PageRequest.ofSize(1))
+                .getContent().get(0).bidListId());
+
         // Delete
         Integer id = bid.getBidListId();
-        bidRepository.delete(bid);
+        assertEquals(1, bidRepository.removeById(id));
         Optional<Bid> optBid = bidRepository.findById(id);
         assertFalse(optBid.isPresent());
+        assertEquals(0, bidRepository.removeById(id));
     }
 }
@@ -0,0 +1,78 @@
+package com.nnk.springboot.repoTests;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks on one million curve points that reading one curve uses the (CurveId, asOfDate, term) index
+ * and needs no sort. The points go to a copy of the curvepoint table, which keeps its indexes,
+ * so that the rows of other tests do not change the plan.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class CurvePointIndexTests {
+
+	private static final String TABLE = "curvepoint_plan_test";
+	private static final String DIGITS = "(SELECT 0 d UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3"
+			+ " UNION ALL SELECT 4 UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7"
+			+ " UNION ALL SELECT 8 UNION ALL SELECT 9)";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeAll
+	public void setup() {
+		assumeTrue(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+				"MySQL".equals(connection.getMetaData().getDatabaseProductName())), "EXPLAIN output is MySQL's");
+		jdbcTemplate.execute("DROP TABLE IF EXISTS " + TABLE);
+		jdbcTemplate.execute("CREATE TABLE " + TABLE + " LIKE curvepoint");
+		// 100 curves x 250 dates x 40 terms
+		jdbcTemplate.execute("INSERT INTO " + TABLE + " (CurveId, asOfDate, term, value)"
+				+ " SELECT n % 100 + 1, TIMESTAMP('2024-01-01') + INTERVAL (n DIV 100) % 250 DAY,"
+				+ " n DIV 25000 + 1, (n % 997) / 100"
+				+ " FROM (SELECT a.d + 10 * b.d + 100 * c.d + 1000 * e.d + 10000 * f.d + 100000 * g.d n"
+				+ " FROM " + DIGITS + " a CROSS JOIN " + DIGITS + " b CROSS JOIN " + DIGITS + " c"
+				+ " CROSS JOIN " + DIGITS + " e CROSS JOIN " + DIGITS + " f CROSS JOIN " + DIGITS + " g) numbers");
+		jdbcTemplate.execute("ANALYZE TABLE " + TABLE);
+	}
+
+	@AfterAll
+	public void cleanup() {
+		jdbcTemplate.execute("DROP TABLE IF EXISTS " + TABLE);
+	}
+
+	@Test
+	public void findCurve_usesCurveDateTermIndex() {
+		assertEquals(1_000_000L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + TABLE, Long.class));
+
+		Map<String, Object> plan = jdbcTemplate.queryForMap("EXPLAIN SELECT Id, CurveId, term, value FROM " + TABLE
+				+ " WHERE CurveId = 42 AND asOfDate = '2024-06-01 00:00:00' ORDER BY term, Id");
+
+		assertEquals("idx_curvepoint_curve_date_term", plan.get("key"));
+		assertEquals("ref", plan.get("type"));
+		assertFalse(String.valueOf(plan.get("Extra")).contains("Using filesort"));
+	}
+
+	@Test
+	public void findCurveWithoutDate_usesCurveDateTermIndex() {
+		Map<String, Object> plan = jdbcTemplate.queryForMap("EXPLAIN SELECT Id, CurveId, term, value FROM " + TABLE
+				+ " WHERE CurveId = 42 AND asOfDate IS NULL ORDER BY term, Id");
+
+		assertEquals("idx_curvepoint_curve_date_term", plan.get("key"));
+		assertFalse(String.valueOf(plan.get("Extra")).contains("Using filesort"));
+	}
+}
@@ -36,11 +36,22 @@ public class CurvePointTests {
 		List<CurvePoint> listResult = curvePointRepository.findAll();
 		assertTrue(listResult.size() > 0);
 
+		// Find summaries
+		Integer savedId = curvePoint.getId();
+		assertTrue(curvePointRepository.findAllSummaries().stream().anyMatch(summary -> summary.id().equals(savedId)));
+
+		// Find curve
+		assertTrue(curvePointRepository.findByCurveIdAndAsOfDateIsNullOrderByTermAsc(1).stream()
+				.anyMatch(point -> point.getId().equals(savedId)));
+		assertTrue(curvePointRepository.findCurveWithoutDate(1).stream()
+				.anyMatch(summary -> summary.id().equals(savedId)));
+
 		// Delete
 		Integer id = curvePoint.getId();
-		curvePointRepository.delete(curvePoint);
+		assertEquals(1, curvePointRepository.removeById(id));
 		Optional<CurvePoint> optCurvePoint = curvePointRepository.findById(id);
 		assertFalse(optCurvePoint.isPresent());
+		assertEquals(0, curvePointRepository.removeById(id));
 	}
 
 }
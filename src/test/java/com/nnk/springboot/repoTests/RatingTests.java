@@ -35,10 +35,15 @@ public class RatingTests {
 		List<Rating> listResult = ratingRepository.findAll();
 		assertTrue(listResult.size() > 0);
 
+		// Find summaries
+		Integer savedId = rating.getId();
+		assertTrue(ratingRepository.findAllSummaries().stream().anyMatch(summary -> summary.id().equals(savedId)));
+
 		// Delete
 		Integer id = rating.getId();
-		ratingRepository.delete(rating);
+		assertEquals(1, ratingRepository.removeById(id));
 		Optional<Rating> optRating = ratingRepository.findById(id);
 		assertFalse(optRating.isPresent());
+		assertEquals(0, ratingRepository.removeById(id));
 	}
 }
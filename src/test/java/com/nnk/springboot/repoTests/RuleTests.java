@@ -35,10 +35,15 @@ public class RuleTests {
 		List<Rule> listResult = ruleRepository.findAll();
 		assertTrue(listResult.size() > 0);
 
+		// Find summaries
+		Integer savedId = rule.getId();
+		assertTrue(ruleRepository.findAllSummaries().stream().anyMatch(summary -> summary.id().equals(savedId)));
+
 		// Delete
 		Integer id = rule.getId();
-		ruleRepository.delete(rule);
+		assertEquals(1, ruleRepository.removeById(id));
 		Optional<Rule> optRule = ruleRepository.findById(id);
 		assertFalse(optRule.isPresent());
+		assertEquals(0, ruleRepository.removeById(id));
 	}
 }
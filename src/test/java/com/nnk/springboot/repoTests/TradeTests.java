@@ -1,13 +1,16 @@
 package com.nnk.springboot.repoTests;
 
 import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.dto.TradeQuantities;
 import com.nnk.springboot.repositories.TradeRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -31,14 +34,48 @@ public class TradeTests {
 		trade = tradeRepository.save(trade);
 		assertTrue(trade.getAccount().equals("Trade Account Update"));
 
+		// Conditional update
+		Integer version = trade.getVersion();
+		trade.setBuyQuantity(30d);
+		assertEquals(1, tradeRepository.updateIfUnchanged(trade));
+		assertEquals(0, tradeRepository.updateIfUnchanged(trade));
+		trade.setVersion(version + 1);
+		assertEquals(1, tradeRepository.replaceIfUnchanged(trade));
+		Trade stored = tradeRepository.findById(trade.getTradeId()).orElseThrow();
+		assertEquals(version + 2, stored.getVersion());
+		assertEquals(30d, stored.getBuyQuantity());
+
 		// Find
 		List<Trade> listResult = tradeRepository.findAll();
 		assertTrue(listResult.size() > 0);
 
+		// Find summaries
+		Integer savedId = trade.getTradeId();
+		assertTrue(tradeRepository.findAllSummaries().stream().anyMatch(summary -> summary.tradeId().equals(savedId)));
+
 		// Delete
 		Integer id = trade.getTradeId();
-		tradeRepository.delete(trade);
+		assertEquals(1, tradeRepository.removeById(id));
 		Optional<Trade> optTrade = tradeRepository.findById(id);
 		assertFalse(optTrade.isPresent());
+		assertEquals(0, tradeRepository.removeById(id));
+	}
+
+	@Test
+	@Transactional
+	public void streamQuantitiesTest() {
+		Trade trade = new Trade("Position Account", "Type", 10);
+		trade.setBuyPrice(12.5);
+		trade.setBook("Position Book");
+		trade = tradeRepository.save(trade);
+		int id = trade.getTradeId();
+
+		assertTrue(tradeRepository.findMaxTradeId() >= id);
+		try (Stream<TradeQuantities> rows = tradeRepository.streamQuantities(id, id + 1)) {
+			TradeQuantities row = rows.findFirst().orElseThrow();
+			assertEquals("Position Book", row.book());
+			assertEquals(12.5, row.buyPrice());
+			assertEquals(trade.getVersion(), row.version());
+		}
 	}
 }
@@ -39,8 +39,9 @@ public class UserTests {
 
         // Delete
         Integer id = user.getId();
-        userRepository.deleteById(id);
+        assertEquals(1, userRepository.removeById(id));
         Optional<User> optUser = userRepository.findById(id);
         assertFalse(optUser.isPresent());
+        assertEquals(0, userRepository.removeById(id));
     }
 }
@@ -1,24 +1,38 @@
 package com.nnk.springboot.serviceTests;
 
 import com.nnk.springboot.domain.Bid;
+import com.nnk.springboot.dto.BidSummary;
+import com.nnk.springboot.dto.ListChange;
 import com.nnk.springboot.repositories.BidRepository;
 import com.nnk.springboot.services.BidService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
+@RecordApplicationEvents
 public class BidServiceTest {
 
     @Autowired
@@ -27,6 +41,9 @@ public class BidServiceTest {
     @MockitoBean
     private BidRepository bidRepository;
 
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
     @Test
     public void findAll_shouldReturnList() {
         when(bidRepository.findAll()).thenReturn(new ArrayList<>());
@@ -37,6 +54,39 @@ public class BidServiceTest {
         verify(bidRepository).findAll();
     }
 
+    @Test
+    public void findAll_withPageable_shouldReturnPage() {
+        Pageable pageable = PageRequest.of(0, 20);
+        when(bidRepository.findAll(pageable)).thenReturn(Page.empty(pageable));
+
+        Page<Bid> bids = bidService.findAll(pageable);
+
+        assertNotNull(bids);
+        verify(bidRepository).findAll(pageable);
+    }
+
+    @Test
+    public void findPage_withoutCursor_shouldStartFromFirstId() {
+        when(bidRepository.findSummariesAfter(anyInt(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(new ArrayList<>()));
+
+        Slice<BidSummary> bids = bidService.findPage(null);
+
+        assertNotNull(bids);
+        verify(bidRepository).findSummariesAfter(eq(0), any(Pageable.class));
+    }
+
+    @Test
+    public void findPage_withCursor_shouldUseConfiguredPageSize() {
+        when(bidRepository.findSummariesAfter(anyInt(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(new ArrayList<>()));
+
+        bidService.findPage(10);
+
+        verify(bidRepository).findSummariesAfter(eq(10),
+                argThat(pageable -> pageable.getPageNumber() == 0 && pageable.getPageSize() == 50));
+    }
+
     @Test
     public void save_shouldReturnSavedBid() {
         Bid bid = new Bid("account", "type", 10d);
@@ -48,6 +98,57 @@ public class BidServiceTest {
         verify(bidRepository).save(any(Bid.class));
     }
 
+    @Test
+    public void update_whenUnchanged_shouldIncrementVersion() {
+        Bid bid = versionedBid();
+        when(bidRepository.updateIfUnchanged(bid)).thenReturn(1);
+
+        Bid updated = bidService.update(bid);
+
+        assertEquals(4, updated.getVersion());
+        verify(bidRepository, never()).save(any(Bid.class));
+    }
+
+    @Test
+    public void update_shouldPublishSavedRow() {
+        Bid bid = versionedBid();
+        when(bidRepository.updateIfUnchanged(bid)).thenReturn(1);
+
+        bidService.update(bid);
+
+        assertEquals(List.of(ListChange.saved("bid", 1, new BidSummary(1, "account", "type", 10d))),
+                applicationEvents.stream(ListChange.class).toList());
+    }
+
+    @Test
+    public void update_whenChangedMeanwhile_shouldThrowOptimisticLockingFailure() {
+        Bid bid = versionedBid();
+        when(bidRepository.updateIfUnchanged(bid)).thenReturn(0);
+        when(bidRepository.existsById(1)).thenReturn(true);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> bidService.update(bid));
+        assertEquals(3, bid.getVersion());
+    }
+
+    @Test
+    public void replace_whenUnchanged_shouldIncrementVersion() {
+        Bid bid = versionedBid();
+        when(bidRepository.replaceIfUnchanged(bid)).thenReturn(1);
+
+        Bid replaced = bidService.replace(bid);
+
+        assertEquals(4, replaced.getVersion());
+    }
+
+    @Test
+    public void replace_withUnknownId_shouldThrowIllegalArgumentException() {
+        Bid bid = versionedBid();
+        when(bidRepository.replaceIfUnchanged(bid)).thenReturn(0);
+        when(bidRepository.existsById(1)).thenReturn(false);
+
+        assertThrows(IllegalArgumentException.class, () -> bidService.replace(bid));
+    }
+
     @Test
     public void findById_shouldReturnBid() {
         when(bidRepository.findById(anyInt()))
@@ -78,4 +179,32 @@ public class BidServiceTest {
 
         verify(bidRepository).delete(bid);
     }
+
+    @Test
+    public void deleteById_shouldReturnTrue() {
+        when(bidRepository.removeById(anyInt())).thenReturn(1);
+
+        assertTrue(bidService.deleteById(1));
+
+        verify(bidRepository).removeById(1);
+        assertEquals(List.of(ListChange.deleted("bid", 1)), applicationEvents.stream(ListChange.class).toList());
+        verify(bidRepository, never()).findById(anyInt());
+    }
+
+    @Test
+    public void deleteById_withInvalidId_shouldReturnFalse() {
+        when(bidRepository.removeById(anyInt())).thenReturn(0);
+
+        assertFalse(bidService.deleteById(1));
+
+        verify(bidRepository).removeById(1);
+        assertEquals(0, applicationEvents.stream(ListChange.class).count());
+    }
+
+    private static Bid versionedBid() {
+        Bid bid = new Bid("account", "type", 10d);
+        bid.setBidListId(1);
+        bid.setVersion(3);
+        return bid;
+    }
 }
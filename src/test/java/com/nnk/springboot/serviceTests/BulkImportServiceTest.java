@@ -0,0 +1,139 @@
+package com.nnk.springboot.serviceTests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nnk.springboot.domain.Bid;
+import com.nnk.springboot.services.BulkImportService;
+import com.nnk.springboot.services.BulkImportService.Format;
+import com.nnk.springboot.services.ImportReport;
+import com.nnk.springboot.services.TableVersions;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class BulkImportServiceTest {
+
+    private EntityManager entityManager;
+    private TableVersions tableVersions;
+    private BulkImportService bulkImportService;
+
+    @BeforeEach
+    public void setup() {
+        entityManager = mock(EntityManager.class);
+        tableVersions = mock(TableVersions.class);
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        bulkImportService = new BulkImportService(new ObjectMapper(), validator, entityManager,
+                mock(PlatformTransactionManager.class), tableVersions, 2, 1, 80);
+    }
+
+    private static InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void importRows_withCsv_shouldPersistInBatches() throws IOException {
+        String csv = """
+                account,type,bidQuantity,commentary
+                a1,t1,10,"quoted, with comma"
+                a2,t2,20,
+                a3,t3,30,"say ""hi"" twice"
+                """;
+
+        ImportReport report = bulkImportService.importRows(input(csv), Format.CSV, Bid.class, b -> b.setBidListId(null));
+
+        assertEquals(3, report.getImported());
+        assertEquals(0, report.getRejected());
+        verify(entityManager, times(3)).persist(any(Bid.class));
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+        verify(tableVersions, times(2)).bump(Bid.class);
+    }
+
+    @Test
+    public void importRows_withNdjson_shouldResetIds() throws IOException {
+        String ndjson = """
+                {"bidListId": 7, "account": "a1", "type": "t1", "bidQuantity": 10}
+                """;
+
+        ImportReport report = bulkImportService.importRows(input(ndjson), Format.NDJSON, Bid.class, b -> b.setBidListId(null));
+
+        assertEquals(1, report.getImported());
+        verify(entityManager).persist(argThat(bid -> bid instanceof Bid b && b.getBidListId() == null));
+    }
+
+    @Test
+    public void importRows_withInvalidRows_shouldReportThemByLine() throws IOException {
+        String csv = """
+                account,type,bidQuantity
+                a1,t1,10
+                ,t2,0.5
+                a3,t3,notANumber
+                a4,t4
+                """;
+
+        ImportReport report = bulkImportService.importRows(input(csv), Format.CSV, Bid.class, b -> b.setBidListId(null));
+
+        assertEquals(1, report.getImported());
+        assertEquals(3, report.getRejected());
+        assertEquals(1, report.getErrors().size());
+        assertTrue(report.isErrorsTruncated());
+        assertEquals(3, report.getErrors().get(0).line());
+        assertTrue(report.getErrors().get(0).message().contains("account"));
+        verify(entityManager, times(1)).persist(any(Bid.class));
+    }
+
+    @Test
+    public void importRows_withBatchRejectedByDatabase_shouldRetryRowByRowAndReportBadRows() throws IOException {
+        doThrow(new PersistenceException("Data too long for column 'account'"))
+                .when(entityManager).persist(argThat(bid -> bid instanceof Bid b && "bad".equals(b.getAccount())));
+        String csv = """
+                account,type,bidQuantity
+                a1,t1,10
+                bad,t2,20
+                a3,t3,30
+                """;
+
+        ImportReport report = bulkImportService.importRows(input(csv), Format.CSV, Bid.class, b -> b.setBidListId(null));
+
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getRejected());
+        assertEquals(3, report.getErrors().get(0).line());
+        assertTrue(report.getErrors().get(0).message().contains("Data too long"));
+        verify(entityManager, times(2)).persist(argThat(bid -> bid instanceof Bid b && "a1".equals(b.getAccount())));
+        verify(tableVersions, times(2)).bump(Bid.class);
+    }
+
+    @Test
+    public void importRows_withLineOverMaximumLength_shouldRejectItAndGoOn() throws IOException {
+        String ndjson = "{\"account\": \"" + "a".repeat(100) + "\", \"type\": \"t1\", \"bidQuantity\": 10}\r\n"
+                + "{\"account\":\"a2\",\"type\":\"t2\",\"bidQuantity\":20}\r\n";
+
+        ImportReport report = bulkImportService.importRows(input(ndjson), Format.NDJSON, Bid.class, b -> b.setBidListId(null));
+
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getRejected());
+        assertEquals(1, report.getErrors().get(0).line());
+        assertEquals("Line longer than 80 characters", report.getErrors().get(0).message());
+        verify(entityManager).persist(argThat(bid -> bid instanceof Bid b && "a2".equals(b.getAccount())));
+    }
+
+    @Test
+    public void fromMediaType_withUnknownType_shouldThrowException() {
+        assertEquals(Format.CSV, Format.fromMediaType(MediaType.valueOf("text/csv;charset=UTF-8")));
+        assertThrows(IllegalArgumentException.class,
+                () -> Format.fromMediaType(MediaType.APPLICATION_XML));
+    }
+}
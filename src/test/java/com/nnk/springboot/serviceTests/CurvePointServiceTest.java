@@ -1,19 +1,27 @@
 package com.nnk.springboot.serviceTests;
 
 import com.nnk.springboot.domain.CurvePoint;
+import com.nnk.springboot.dto.CurvePointSummary;
 import com.nnk.springboot.repositories.CurvePointRepository;
 import com.nnk.springboot.services.CurvePointService;
+import com.nnk.springboot.services.YieldCurveService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
@@ -28,6 +36,9 @@ public class CurvePointServiceTest {
     @MockitoBean
     private CurvePointRepository curvePointRepository;
 
+    @MockitoBean
+    private YieldCurveService yieldCurveService;
+
     @Test
     public void findAll_shouldReturnList() {
         when(curvePointRepository.findAll()).thenReturn(new ArrayList<>());
@@ -38,6 +49,49 @@ public class CurvePointServiceTest {
         verify(curvePointRepository).findAll();
     }
 
+    @Test
+    public void findAll_withPageable_shouldReturnPage() {
+        Pageable pageable = PageRequest.of(0, 20);
+        when(curvePointRepository.findAll(pageable)).thenReturn(Page.empty(pageable));
+
+        Page<CurvePoint> curves = curvePointService.findAll(pageable);
+
+        assertNotNull(curves);
+        verify(curvePointRepository).findAll(pageable);
+    }
+
+    @Test
+    public void findSummaries_shouldReturnList() {
+        when(curvePointRepository.findAllSummaries()).thenReturn(new ArrayList<>());
+
+        List<CurvePointSummary> curves = curvePointService.findSummaries();
+
+        assertNotNull(curves);
+        verify(curvePointRepository).findAllSummaries();
+    }
+
+    @Test
+    public void findCurve_withDate_shouldQueryByDate() {
+        Timestamp asOfDate = Timestamp.valueOf("2024-06-01 00:00:00");
+        when(curvePointRepository.findByCurveIdAndAsOfDateOrderByTermAsc(1, asOfDate)).thenReturn(new ArrayList<>());
+
+        List<CurvePoint> curve = curvePointService.findCurve(1, asOfDate);
+
+        assertNotNull(curve);
+        verify(curvePointRepository).findByCurveIdAndAsOfDateOrderByTermAsc(1, asOfDate);
+    }
+
+    @Test
+    public void findCurve_withoutDate_shouldQueryNullDate() {
+        when(curvePointRepository.findByCurveIdAndAsOfDateIsNullOrderByTermAsc(1)).thenReturn(new ArrayList<>());
+
+        List<CurvePoint> curve = curvePointService.findCurve(1, null);
+
+        assertNotNull(curve);
+        verify(curvePointRepository).findByCurveIdAndAsOfDateIsNullOrderByTermAsc(1);
+        verify(curvePointRepository, never()).findByCurveIdAndAsOfDateOrderByTermAsc(anyInt(), any());
+    }
+
     @Test
     public void save_shouldReturnSavedCurvePoint() {
         CurvePoint curvePoint = new CurvePoint(1, 1.0, 1.0);
@@ -47,6 +101,7 @@ public class CurvePointServiceTest {
 
         assertNotNull(savedCurvePoint);
         verify(curvePointRepository).save(any(CurvePoint.class));
+        verify(yieldCurveService).pointSaved(savedCurvePoint);
     }
 
     @Test
@@ -73,10 +128,33 @@ public class CurvePointServiceTest {
     @Test
     public void delete_shouldCallRepo() {
         CurvePoint curvePoint = new CurvePoint(1, 1.0, 1.0);;
+        curvePoint.setId(1);
         doNothing().when(curvePointRepository).delete(any(CurvePoint.class));
 
         curvePointService.delete(curvePoint);
 
         verify(curvePointRepository).delete(curvePoint);
+        verify(yieldCurveService).pointDeleted(1);
+    }
+
+    @Test
+    public void deleteById_shouldReturnTrue() {
+        when(curvePointRepository.removeById(anyInt())).thenReturn(1);
+
+        assertTrue(curvePointService.deleteById(1));
+
+        verify(curvePointRepository).removeById(1);
+        verify(yieldCurveService).pointDeleted(1);
+        verify(curvePointRepository, never()).findById(anyInt());
+    }
+
+    @Test
+    public void deleteById_withInvalidId_shouldReturnFalse() {
+        when(curvePointRepository.removeById(anyInt())).thenReturn(0);
+
+        assertFalse(curvePointService.deleteById(1));
+
+        verify(curvePointRepository).removeById(1);
+        verify(yieldCurveService, never()).pointDeleted(anyInt());
     }
 }
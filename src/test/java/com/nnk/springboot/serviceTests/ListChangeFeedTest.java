@@ -0,0 +1,92 @@
+package com.nnk.springboot.serviceTests;
+
+import com.nnk.springboot.dto.ListChange;
+import com.nnk.springboot.dto.TradeSummary;
+import com.nnk.springboot.services.ListChangeFeed;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+public class ListChangeFeedTest {
+
+    private ListChangeFeed feed;
+
+    @AfterEach
+    public void tearDown() {
+        feed.destroy();
+    }
+
+    @Test
+    public void publish_shouldSendLastStateOfEachRowAtFlush() throws Exception {
+        feed = new ListChangeFeed(Duration.ofMillis(200), 10, Duration.ofSeconds(5), Duration.ofMinutes(1), 1);
+        MvcResult stream = subscribe();
+
+        feed.publish(ListChange.saved("trade", 1, new TradeSummary(1, "account", "type", 10d)));
+        feed.publish(ListChange.deleted("trade", 2));
+        feed.publish(ListChange.saved("trade", 1, new TradeSummary(1, "account", "type", 20d)));
+        feed.publish(ListChange.deleted("bid", 3));
+
+        String sent = awaitContent(stream, "]\n\n");
+        assertEquals("event:changes\ndata:[{\"id\":1,\"row\":{\"tradeId\":1,\"account\":\"account\",\"type\":\"type\","
+                + "\"buyQuantity\":20.0}},{\"id\":2,\"row\":null}]\n\n", sent);
+    }
+
+    @Test
+    public void publish_whenSubscriberFallsBehind_shouldDropIt() throws Exception {
+        feed = new ListChangeFeed(Duration.ofHours(1), 1, Duration.ofSeconds(5), Duration.ofMinutes(1), 1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        feed.bindTo(registry);
+        subscribe();
+        assertEquals(1, registry.get("list.feed.subscribers").gauge().value());
+
+        feed.publish(ListChange.deleted("trade", 1));
+        feed.publish(ListChange.deleted("trade", 2));
+
+        assertEquals(0, registry.get("list.feed.subscribers").gauge().value());
+        assertEquals(1, registry.get("list.feed.dropped").functionCounter().count());
+    }
+
+    private MvcResult subscribe() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new StreamController(feed)).build();
+        return mockMvc.perform(get("/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private static String awaitContent(MvcResult stream, String expected) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        String content = stream.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            content = stream.getResponse().getContentAsString();
+        }
+        return content;
+    }
+
+    @RestController
+    static class StreamController {
+
+        private final ListChangeFeed feed;
+
+        StreamController(ListChangeFeed feed) {
+            this.feed = feed;
+        }
+
+        @GetMapping("/stream")
+        SseEmitter stream() {
+            return feed.subscribe("trade");
+        }
+    }
+}
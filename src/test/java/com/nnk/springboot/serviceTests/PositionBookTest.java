@@ -0,0 +1,78 @@
+package com.nnk.springboot.serviceTests;
+
+import com.nnk.springboot.dto.Position;
+import com.nnk.springboot.services.PositionBook;
+import com.nnk.springboot.services.PositionBook.Key;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionBookTest {
+
+    private static final Key KEY = new Key("book", "account", "security");
+
+    @Test
+    public void positions_shouldMatchBoughtAndSoldAtAveragePrices() {
+        PositionBook book = new PositionBook(4);
+
+        book.add(KEY, 100, 100 * 10, 0, 0, 1);
+        book.add(KEY, 100, 100 * 12, 0, 0, 1);
+        book.add(KEY, 0, 0, 150, 150 * 13, 1);
+
+        Position position = book.positions().get(0);
+        assertEquals(50, position.netQuantity(), 1e-9);
+        assertEquals(11, position.averagePrice(), 1e-9);
+        assertEquals(150 * (13 - 11), position.realizedPnl(), 1e-9);
+        assertEquals(3, position.trades());
+    }
+
+    @Test
+    public void positions_whenShort_shouldTakeAverageSellPrice() {
+        PositionBook book = new PositionBook(4);
+
+        book.add(KEY, 50, 50 * 10, 80, 80 * 9, 1);
+
+        Position position = book.positions().get(0);
+        assertEquals(-30, position.netQuantity(), 1e-9);
+        assertEquals(9, position.averagePrice(), 1e-9);
+        assertEquals(-50, position.realizedPnl(), 1e-9);
+    }
+
+    @Test
+    public void add_withNegativeAmounts_shouldRemoveTrade() {
+        PositionBook book = new PositionBook(4);
+        book.add(KEY, 100, 1000, 0, 0, 1);
+        book.add(KEY, 0, 0, 40, 480, 1);
+
+        book.add(KEY, -100, -1000, 0, 0, -1);
+
+        Position position = book.positions().get(0);
+        assertEquals(-40, position.netQuantity(), 1e-9);
+        assertEquals(0, position.realizedPnl(), 1e-9);
+        book.add(KEY, 0, 0, -40, -480, -1);
+        assertTrue(book.positions().isEmpty());
+    }
+
+    @Test
+    public void add_fromConcurrentThreads_shouldKeepEveryUpdate() {
+        PositionBook book = new PositionBook(2);
+        List<CompletableFuture<Void>> writers = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            writers.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    book.add(new Key("book", "account " + i % 20, "security"), 1, 10, 0, 0, 1);
+                }
+            }));
+        }
+        writers.forEach(CompletableFuture::join);
+
+        List<Position> positions = book.positions();
+        assertEquals(20, positions.size());
+        assertTrue(positions.stream().allMatch(position -> position.netQuantity() == 2000
+                && position.trades() == 2000));
+    }
+}
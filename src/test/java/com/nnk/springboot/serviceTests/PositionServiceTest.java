@@ -0,0 +1,196 @@
+package com.nnk.springboot.serviceTests;
+
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.dto.Position;
+import com.nnk.springboot.dto.TradeQuantities;
+import com.nnk.springboot.repositories.TradeRepository;
+import com.nnk.springboot.services.PositionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PositionServiceTest {
+
+    @Mock
+    private TradeRepository tradeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PositionService positionService;
+
+    @BeforeEach
+    public void setup() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        positionService = new PositionService(tradeRepository, transactionManager, 4, 2);
+    }
+
+    @Test
+    public void findAll_shouldBuildPositionsOnceFromAllRanges() {
+        when(tradeRepository.findMaxTradeId()).thenReturn(10);
+        when(tradeRepository.streamQuantities(0, 6)).thenAnswer(i -> Stream.of(
+                quantities(1, 1, "account", 100, 10, 0, 0)));
+        when(tradeRepository.streamQuantities(6, 12)).thenAnswer(i -> Stream.of(
+                quantities(7, 1, "account", 0, 0, 40, 12),
+                quantities(8, 1, "other", 5, 1, 0, 0)));
+
+        List<Position> positions = positionService.findAll(null, null);
+
+        assertEquals(2, positions.size());
+        Position position = positions.get(0);
+        assertEquals("account", position.account());
+        assertEquals(60, position.netQuantity(), 1e-9);
+        assertEquals(80, position.realizedPnl(), 1e-9);
+        assertEquals(List.of(positions.get(1)), positionService.findAll("book", "other"));
+        verify(tradeRepository, times(1)).findMaxTradeId();
+    }
+
+    @Test
+    public void tradeSaved_whenBuilt_shouldReplacePreviousStateOfTrade() {
+        buildWith(quantities(1, 1, "account", 100, 10, 0, 0));
+
+        positionService.tradeSaved(trade(1, 2, "account", 50, 10));
+        positionService.tradeSaved(trade(2, 0, "account", 10, 20));
+
+        Position position = positionService.findAll(null, null).get(0);
+        assertEquals(60, position.netQuantity(), 1e-9);
+        assertEquals(2, position.trades());
+    }
+
+    @Test
+    public void tradeSaved_withOlderVersion_shouldBeIgnored() {
+        buildWith(quantities(1, 3, "account", 100, 10, 0, 0));
+
+        positionService.tradeSaved(trade(1, 2, "account", 50, 10));
+
+        assertEquals(100, positionService.findAll(null, null).get(0).netQuantity(), 1e-9);
+    }
+
+    @Test
+    public void tradeSaved_beforeBuild_shouldBeLeftToTheScan() {
+        positionService.tradeSaved(trade(1, 0, "account", 50, 10));
+
+        buildWith();
+
+        assertTrue(positionService.findAll(null, null).isEmpty());
+    }
+
+    @Test
+    public void tradeEdited_shouldKeepAmountsNotInTheForm() {
+        buildWith(quantities(1, 1, "account", 100, 10, 40, 12));
+        Trade edited = new Trade("other", "type", 60);
+        edited.setTradeId(1);
+        edited.setVersion(2);
+
+        positionService.tradeEdited(edited);
+
+        List<Position> positions = positionService.findAll(null, null);
+        assertEquals(1, positions.size());
+        assertEquals("other", positions.get(0).account());
+        assertEquals("book", positions.get(0).book());
+        assertEquals(20, positions.get(0).netQuantity(), 1e-9);
+        assertEquals(80, positions.get(0).realizedPnl(), 1e-9);
+    }
+
+    @Test
+    public void tradeDeleted_shouldRemoveTradeFromPosition() {
+        buildWith(quantities(1, 1, "account", 100, 10, 0, 0),
+                quantities(2, 1, "account", 0, 0, 30, 11));
+
+        positionService.tradeDeleted(2);
+        positionService.tradeDeleted(3);
+
+        Position position = positionService.findAll(null, null).get(0);
+        assertEquals(100, position.netQuantity(), 1e-9);
+        assertEquals(1, position.trades());
+    }
+
+    @Test
+    public void tradeSaved_afterDelete_shouldNotBringTradeBack() {
+        buildWith(quantities(1, 1, "account", 100, 10, 0, 0),
+                quantities(2, 1, "account", 0, 0, 30, 11));
+
+        positionService.tradeDeleted(2);
+        positionService.tradeSaved(trade(2, 2, "account", 50, 10));
+        positionService.tradeEdited(trade(2, 3, "account", 70, 10));
+
+        Position position = positionService.findAll(null, null).get(0);
+        assertEquals(100, position.netQuantity(), 1e-9);
+        assertEquals(1, position.trades());
+        verify(tradeRepository, never()).findQuantitiesById(anyInt());
+    }
+
+    @Test
+    public void tradeEdited_withoutAppliedState_shouldReloadTrade() {
+        buildWith();
+        when(tradeRepository.findQuantitiesById(5))
+                .thenReturn(Optional.of(quantities(5, 1, "account", 100, 10, 40, 12)));
+        Trade edited = new Trade("other", "type", 60);
+        edited.setTradeId(5);
+        edited.setVersion(2);
+
+        positionService.tradeEdited(edited);
+
+        List<Position> positions = positionService.findAll(null, null);
+        assertEquals(1, positions.size());
+        assertEquals("other", positions.get(0).account());
+        assertEquals(20, positions.get(0).netQuantity(), 1e-9);
+    }
+
+    @Test
+    public void tradeEdited_beforeBuild_shouldBeLeftToTheScan() {
+        Trade edited = new Trade("other", "type", 60);
+        edited.setTradeId(5);
+        edited.setVersion(2);
+
+        positionService.tradeEdited(edited);
+
+        verifyNoInteractions(tradeRepository);
+    }
+
+    @Test
+    public void invalidate_shouldRebuildOnNextRead() {
+        buildWith(quantities(1, 1, "account", 100, 10, 0, 0));
+
+        positionService.invalidate();
+        positionService.findAll(null, null);
+
+        verify(tradeRepository, times(2)).findMaxTradeId();
+    }
+
+    private void buildWith(TradeQuantities... rows) {
+        when(tradeRepository.findMaxTradeId()).thenReturn(0);
+        when(tradeRepository.streamQuantities(anyInt(), anyInt())).thenAnswer(i -> Stream.of(rows));
+        positionService.findAll(null, null);
+    }
+
+    private static TradeQuantities quantities(int id, int version, String account, double buyQuantity,
+                                              double buyPrice, double sellQuantity, double sellPrice) {
+        return new TradeQuantities(id, version, "book", account, "security", buyQuantity, buyPrice,
+                sellQuantity, sellPrice);
+    }
+
+    private static Trade trade(int id, int version, String account, double buyQuantity, double buyPrice) {
+        Trade trade = new Trade(account, "type", buyQuantity);
+        trade.setTradeId(id);
+        trade.setVersion(version);
+        trade.setBook("book");
+        trade.setSecurity("security");
+        trade.setBuyPrice(buyPrice);
+        return trade;
+    }
+}
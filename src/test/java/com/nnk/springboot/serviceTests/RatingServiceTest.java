@@ -1,19 +1,25 @@
 package com.nnk.springboot.serviceTests;
 
 import com.nnk.springboot.domain.Rating;
+import com.nnk.springboot.dto.RatingSummary;
 import com.nnk.springboot.repositories.RatingRepository;
 import com.nnk.springboot.services.RatingService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
@@ -38,6 +44,27 @@ public class RatingServiceTest {
         verify(ratingRepository).findAll();
     }
 
+    @Test
+    public void findAll_withPageable_shouldReturnPage() {
+        Pageable pageable = PageRequest.of(0, 20);
+        when(ratingRepository.findAll(pageable)).thenReturn(Page.empty(pageable));
+
+        Page<Rating> ratings = ratingService.findAll(pageable);
+
+        assertNotNull(ratings);
+        verify(ratingRepository).findAll(pageable);
+    }
+
+    @Test
+    public void findSummaries_shouldReturnList() {
+        when(ratingRepository.findAllSummaries()).thenReturn(new ArrayList<>());
+
+        List<RatingSummary> ratings = ratingService.findSummaries();
+
+        assertNotNull(ratings);
+        verify(ratingRepository).findAllSummaries();
+    }
+
     @Test
     public void save_shouldReturnSavedRating() {
         Rating rating = new Rating("moodys", "sandP", "fitch", 1);
@@ -79,4 +106,23 @@ public class RatingServiceTest {
 
         verify(ratingRepository).delete(rating);
     }
+
+    @Test
+    public void deleteById_shouldReturnTrue() {
+        when(ratingRepository.removeById(anyInt())).thenReturn(1);
+
+        assertTrue(ratingService.deleteById(1));
+
+        verify(ratingRepository).removeById(1);
+        verify(ratingRepository, never()).findById(anyInt());
+    }
+
+    @Test
+    public void deleteById_withInvalidId_shouldReturnFalse() {
+        when(ratingRepository.removeById(anyInt())).thenReturn(0);
+
+        assertFalse(ratingService.deleteById(1));
+
+        verify(ratingRepository).removeById(1);
+    }
 }
@@ -0,0 +1,144 @@
+package com.nnk.springboot.serviceTests;
+
+import com.nnk.springboot.domain.Bid;
+import com.nnk.springboot.domain.Rule;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.dto.RuleMatch;
+import com.nnk.springboot.repositories.RuleRepository;
+import com.nnk.springboot.services.CompiledRules;
+import com.nnk.springboot.services.RuleEngine;
+import com.nnk.springboot.services.RuleFields;
+import com.nnk.springboot.services.RuleParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RuleEngineTest {
+
+    @Mock
+    private RuleRepository ruleRepository;
+
+    private RuleEngine ruleEngine;
+
+    @BeforeEach
+    public void setup() {
+        ruleEngine = new RuleEngine(ruleRepository);
+    }
+
+    @Test
+    public void matches_shouldReturnRulesOfTheKindOfRow() {
+        when(ruleRepository.findAll()).thenReturn(new ArrayList<>(List.of(
+                rule(2, "buyQuantity > 100"),
+                rule(1, "account = 'A' AND book LIKE 'FX%'"),
+                rule(3, "bidQuantity > 100"),
+                rule(4, "not a predicate"),
+                rule(5, "account = 10"))));
+
+        assertEquals(List.of(new RuleMatch(1, "rule 1"), new RuleMatch(2, "rule 2")),
+                ruleEngine.matches(trade("A", "FX-SPOT", 150)));
+        assertEquals(List.of(new RuleMatch(2, "rule 2")), ruleEngine.matches(trade("B", "FX-SPOT", 150)));
+        assertEquals(List.of(), ruleEngine.matches(trade("A", null, 50)));
+
+        Bid bid = new Bid("A", "type", 200);
+        bid.setBook("FX");
+        assertEquals(List.of(new RuleMatch(1, "rule 1"), new RuleMatch(3, "rule 3")), ruleEngine.matches(bid));
+        verify(ruleRepository, times(1)).findAll();
+    }
+
+    @Test
+    public void ruleSaved_shouldReplaceCompiledPredicate() {
+        when(ruleRepository.findAll()).thenReturn(new ArrayList<>(List.of(rule(1, "buyQuantity > 100"))));
+        Trade trade = trade("A", "FX", 50);
+        assertEquals(List.of(), ruleEngine.matches(trade));
+
+        ruleEngine.ruleSaved(rule(1, "buyQuantity > 10"));
+        ruleEngine.ruleSaved(rule(2, "account = 'A'"));
+
+        assertEquals(2, ruleEngine.matches(trade).size());
+
+        ruleEngine.ruleSaved(rule(1, "not a predicate"));
+        ruleEngine.ruleDeleted(2);
+
+        assertEquals(List.of(), ruleEngine.matches(trade));
+        verify(ruleRepository, times(1)).findAll();
+    }
+
+    @Test
+    public void ruleSaved_beforeFirstUse_shouldBeLeftToTheLoad() {
+        ruleEngine.ruleSaved(rule(1, "buyQuantity > 10"));
+        ruleEngine.ruleDeleted(1);
+
+        verifyNoInteractions(ruleRepository);
+    }
+
+    @Test
+    public void compiledRules_shouldEvaluateSharedConditionOnce() {
+        AtomicInteger reads = new AtomicInteger();
+        Trade trade = new Trade("A", "type", 150) {
+            @Override
+            public double getBuyQuantity() {
+                reads.incrementAndGet();
+                return super.getBuyQuantity();
+            }
+        };
+        CompiledRules<Trade> rules = CompiledRules.builder(RuleFields.TRADE)
+                .add(new RuleMatch(1, "one"), RuleParser.parseSql("buyQuantity > 100 AND account = 'A'"))
+                .add(new RuleMatch(2, "two"), RuleParser.parseSql("account = 'B' OR buyQuantity > 100"))
+                .add(new RuleMatch(3, "three"), RuleParser.parseSql("NOT (buyQuantity > 100 AND account = 'A')"))
+                .build();
+
+        assertEquals(2, rules.matches(trade).size());
+        assertEquals(1, reads.get());
+        assertEquals(6, rules.conditions());
+    }
+
+    @Test
+    public void compiledRules_shouldCompareTextsIgnoringCase() {
+        CompiledRules<Trade> rules = CompiledRules.builder(RuleFields.TRADE)
+                .add(new RuleMatch(1, "eq"), RuleParser.parseSql("account = 'acc-1'"))
+                .add(new RuleMatch(2, "in"), RuleParser.parseSql("account IN ('Acc-1', 'acc-2')"))
+                .add(new RuleMatch(3, "like"), RuleParser.parseSql("book LIKE 'fx%'"))
+                .add(new RuleMatch(4, "lt"), RuleParser.parseSql("account < 'acc-2'"))
+                .add(new RuleMatch(5, "ne"), RuleParser.parseSql("account <> 'acc-1'"))
+                .build();
+
+        assertEquals(List.of(new RuleMatch(1, "eq"), new RuleMatch(2, "in"), new RuleMatch(3, "like"),
+                new RuleMatch(4, "lt")), rules.matches(trade("ACC-1", "FX-Spot", 10)));
+        assertEquals(List.of(new RuleMatch(5, "ne")), rules.matches(trade("ACC-3", null, 10)));
+    }
+
+    @Test
+    public void compiledRules_withUnknownField_shouldNotAddRule() {
+        CompiledRules.Builder<Trade> builder = CompiledRules.builder(RuleFields.TRADE)
+                .add(new RuleMatch(1, "one"), RuleParser.parseSql("buyQuantity > 100"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> builder.add(new RuleMatch(2, "two"), RuleParser.parseSql("buyQuantity > 100 AND bid < 2")));
+
+        CompiledRules<Trade> rules = builder.build();
+        assertEquals(1, rules.size());
+        assertEquals(1, rules.conditions());
+    }
+
+    private static Rule rule(int id, String sqlPart) {
+        Rule rule = new Rule("rule " + id, "description", "json", "template", "sqlStr", sqlPart);
+        rule.setId(id);
+        return rule;
+    }
+
+    private static Trade trade(String account, String book, double buyQuantity) {
+        Trade trade = new Trade(account, "type", buyQuantity);
+        trade.setBook(book);
+        return trade;
+    }
+}
@@ -0,0 +1,70 @@
+package com.nnk.springboot.serviceTests;
+
+import com.nnk.springboot.domain.Rule;
+import com.nnk.springboot.services.RuleCondition;
+import com.nnk.springboot.services.RuleCondition.And;
+import com.nnk.springboot.services.RuleCondition.Compare;
+import com.nnk.springboot.services.RuleCondition.Not;
+import com.nnk.springboot.services.RuleCondition.Operator;
+import com.nnk.springboot.services.RuleCondition.Or;
+import com.nnk.springboot.services.RuleParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RuleParserTest {
+
+    @Test
+    public void parseSql_shouldBindAndTighterThanOr() {
+        RuleCondition condition = RuleParser.parseSql(
+                "t.buyQuantity >= 1000 AND NOT Account IN ('A', 'B''s') OR status IS NULL");
+
+        assertEquals(new Or(List.of(
+                new And(List.of(
+                        new Compare("buyquantity", Operator.GE, 1000d),
+                        new Not(new Compare("account", Operator.IN, List.of("A", "B's"))))),
+                new Compare("status", Operator.IS_NULL, null))), condition);
+    }
+
+    @Test
+    public void parseSql_shouldReadBetweenLikeAndParentheses() {
+        RuleCondition condition = RuleParser.parseSql(
+                "(sellPrice BETWEEN -1.5 AND 2) AND book NOT LIKE 'FX%'");
+
+        assertEquals(new And(List.of(
+                new And(List.of(
+                        new Compare("sellprice", Operator.GE, -1.5),
+                        new Compare("sellprice", Operator.LE, 2d))),
+                new Not(new Compare("book", Operator.LIKE, "FX%")))), condition);
+    }
+
+    @Test
+    public void parseSql_withInvalidPredicate_shouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> RuleParser.parseSql("buyQuantity >"));
+        assertThrows(IllegalArgumentException.class, () -> RuleParser.parseSql("account = 'A"));
+        assertThrows(IllegalArgumentException.class, () -> RuleParser.parseSql("account = 'A' buyQuantity"));
+        assertThrows(IllegalArgumentException.class, () -> RuleParser.parseSql("sqlPart"));
+    }
+
+    @Test
+    public void parseJson_shouldEqualSameSqlPredicate() {
+        RuleCondition condition = RuleParser.parseJson("{\"and\": ["
+                + "{\"field\": \"buyQuantity\", \"op\": \">=\", \"value\": 1000},"
+                + "{\"not\": {\"field\": \"account\", \"op\": \"in\", \"value\": [\"A\", \"B\"]}}]}");
+
+        assertEquals(RuleParser.parseSql("buyQuantity >= 1000 AND account NOT IN ('A', 'B')"), condition);
+    }
+
+    @Test
+    public void parse_shouldUseJsonOnlyWhenItHoldsPredicate() {
+        Rule rule = new Rule("name", "description", "{\"field\": \"book\", \"value\": \"FX\"}", "template",
+                "sqlStr", "book = 'RATES'");
+
+        assertEquals(new Compare("book", Operator.EQ, "FX"), RuleParser.parse(rule));
+
+        rule.setJson("{\"display\": \"table\"}");
+        assertEquals(new Compare("book", Operator.EQ, "RATES"), RuleParser.parse(rule));
+    }
+}
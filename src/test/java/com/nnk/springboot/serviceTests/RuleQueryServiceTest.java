@@ -0,0 +1,125 @@
+package com.nnk.springboot.serviceTests;
+
+import com.nnk.springboot.domain.Rule;
+import com.nnk.springboot.repositories.RuleRepository;
+import com.nnk.springboot.services.RuleQueryService;
+import com.nnk.springboot.services.RuleQueryService.PreparedQuery;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The rule queries run on their own connections, which only see committed rows: the rules are saved outside
+ * of a test transaction and deleted afterwards.
+ */
+@SpringBootTest(properties = {"rule.query.max-rows=3", "rule.query.cache-rows=2"})
+public class RuleQueryServiceTest {
+
+    @Autowired
+    private RuleQueryService ruleQueryService;
+
+    @Autowired
+    private RuleRepository ruleRepository;
+
+    private Rule rule;
+
+    @BeforeEach
+    public void setup() {
+        ruleRepository.deleteAll();
+        rule = ruleRepository.save(new Rule("first", "description", "json", "template",
+                "select name, template from rulename where description in (:descriptions) and name <> :name"
+                        + " order by name", "sqlPart"));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        ruleRepository.deleteAll();
+    }
+
+    @Test
+    public void execute_shouldStreamRowsWithBoundParameters() throws Exception {
+        ruleRepository.save(new Rule("second", "other", "json", "template", "sqlStr", "sqlPart"));
+        ruleRepository.save(new Rule("third", "unknown", "json", "template", "sqlStr", "sqlPart"));
+
+        PreparedQuery query = ruleQueryService.prepare(rule,
+                Map.of("descriptions", List.of("description", "other"), "name", List.of("' or 1=1 --")));
+
+        assertEquals(List.of("description", "other", "' or 1=1 --"), query.arguments());
+        assertEquals("[{\"name\":\"first\",\"template\":\"template\"},{\"name\":\"second\",\"template\":\"template\"}]",
+                execute(query));
+    }
+
+    @Test
+    public void execute_shouldCacheSmallResultsUntilRuleChanges() throws Exception {
+        PreparedQuery query = ruleQueryService.prepare(rule,
+                Map.of("descriptions", List.of("description"), "name", List.of("none")));
+        assertEquals("[{\"name\":\"first\",\"template\":\"template\"}]", execute(query));
+
+        rule.setTemplate("changed");
+        ruleRepository.saveAndFlush(rule);
+
+        assertEquals("[{\"name\":\"first\",\"template\":\"template\"}]", execute(query));
+        ruleQueryService.ruleChanged(rule.getId());
+        assertEquals("[{\"name\":\"first\",\"template\":\"changed\"}]", execute(query));
+    }
+
+    @Test
+    public void execute_shouldCapRowsAndNotCacheLargeResults() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            ruleRepository.save(new Rule("rule " + i, "description", "json", "template", "sqlStr", "sqlPart"));
+        }
+        PreparedQuery query = ruleQueryService.prepare(rule,
+                Map.of("descriptions", List.of("description"), "name", List.of("none")));
+
+        assertEquals(3, execute(query).split("\\},\\{").length);
+
+        ruleRepository.deleteAll();
+        ruleRepository.flush();
+        assertEquals("[]", execute(query));
+    }
+
+    @Test
+    public void prepare_withMissingParameter_shouldThrowException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ruleQueryService.prepare(rule, Map.of("descriptions", List.of("description"))));
+    }
+
+    @Test
+    public void prepare_withStatementOtherThanSelect_shouldThrowException() {
+        for (String sql : List.of("delete from rulename", "select 1; delete from rulename",
+                "select * from rulename for update", "select * into outfile '/tmp/rules' from rulename",
+                "select * from rulename where id = ?", "")) {
+            rule.setSqlStr(sql);
+            assertThrows(IllegalArgumentException.class, () -> ruleQueryService.prepare(rule, Map.of()), sql);
+        }
+        rule.setSqlStr("/* rules */ select 'delete; update' as `into` from rulename -- lock\n;");
+        assertDoesNotThrow(() -> ruleQueryService.prepare(rule, Map.of()));
+    }
+
+    @Test
+    public void prepare_withFunctionReadingFilesOrHoldingServer_shouldThrowException() {
+        for (String sql : List.of("select load_file('/etc/passwd')", "select get_lock('rules', 10)",
+                "select sleep(60) from rulename", "select benchmark(100000000, md5('rule'))",
+                "select name from rulename where id = (select SLEEP (1))")) {
+            rule.setSqlStr(sql);
+            assertThrows(IllegalArgumentException.class, () -> ruleQueryService.prepare(rule, Map.of()), sql);
+        }
+        rule.setSqlStr("select 'sleep(1)' as `benchmark` from rulename");
+        assertDoesNotThrow(() -> ruleQueryService.prepare(rule, Map.of()));
+    }
+
+    private String execute(PreparedQuery query) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ruleQueryService.execute(query, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -1,19 +1,27 @@
 package com.nnk.springboot.serviceTests;
 
 import com.nnk.springboot.domain.Rule;
+import com.nnk.springboot.dto.RuleSummary;
 import com.nnk.springboot.repositories.RuleRepository;
+import com.nnk.springboot.services.RuleEngine;
+import com.nnk.springboot.services.RuleQueryService;
 import com.nnk.springboot.services.RuleService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
@@ -28,6 +36,12 @@ public class RuleServiceTest {
     @MockitoBean
     private RuleRepository ruleRepository;
 
+    @MockitoBean
+    private RuleEngine ruleEngine;
+
+    @MockitoBean
+    private RuleQueryService ruleQueryService;
+
     @Test
     public void findAll_shouldReturnList() {
         when(ruleRepository.findAll()).thenReturn(new ArrayList<>());
@@ -38,15 +52,39 @@ public class RuleServiceTest {
         verify(ruleRepository).findAll();
     }
 
+    @Test
+    public void findAll_withPageable_shouldReturnPage() {
+        Pageable pageable = PageRequest.of(0, 20);
+        when(ruleRepository.findAll(pageable)).thenReturn(Page.empty(pageable));
+
+        Page<Rule> rules = ruleService.findAll(pageable);
+
+        assertNotNull(rules);
+        verify(ruleRepository).findAll(pageable);
+    }
+
+    @Test
+    public void findSummaries_shouldReturnList() {
+        when(ruleRepository.findAllSummaries()).thenReturn(new ArrayList<>());
+
+        List<RuleSummary> rules = ruleService.findSummaries();
+
+        assertNotNull(rules);
+        verify(ruleRepository).findAllSummaries();
+    }
+
     @Test
     public void save_shouldReturnSavedRule() {
         Rule rule = new Rule("name", "description", "json", "template", "sqlStr", "sqlPart");
+        rule.setId(1);
         when(ruleRepository.save(any(Rule.class))).thenAnswer(i -> i.getArgument(0));
 
         Rule savedRule = ruleService.save(rule);
 
         assertNotNull(savedRule);
         verify(ruleRepository).save(any(Rule.class));
+        verify(ruleEngine).ruleSaved(savedRule);
+        verify(ruleQueryService).ruleChanged(savedRule.getId());
     }
 
     @Test
@@ -78,5 +116,29 @@ public class RuleServiceTest {
         ruleService.delete(rule);
 
         verify(ruleRepository).delete(rule);
+        verify(ruleEngine, never()).ruleDeleted(anyInt());
+    }
+
+    @Test
+    public void deleteById_shouldReturnTrue() {
+        when(ruleRepository.removeById(anyInt())).thenReturn(1);
+
+        assertTrue(ruleService.deleteById(1));
+
+        verify(ruleRepository).removeById(1);
+        verify(ruleRepository, never()).findById(anyInt());
+        verify(ruleEngine).ruleDeleted(1);
+        verify(ruleQueryService).ruleChanged(1);
+    }
+
+    @Test
+    public void deleteById_withInvalidId_shouldReturnFalse() {
+        when(ruleRepository.removeById(anyInt())).thenReturn(0);
+
+        assertFalse(ruleService.deleteById(1));
+
+        verify(ruleRepository).removeById(1);
+        verify(ruleEngine, never()).ruleDeleted(anyInt());
+        verify(ruleQueryService, never()).ruleChanged(anyInt());
     }
 }
@@ -0,0 +1,44 @@
+package com.nnk.springboot.serviceTests;
+
+import com.nnk.springboot.domain.Bid;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.services.TableVersions;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TableVersionsTest {
+
+    private final TableVersions tableVersions = new TableVersions();
+
+    @Test
+    public void bump_shouldOnlyChangeItsTable() {
+        TableVersions.Version bid = tableVersions.current(Bid.class);
+        TableVersions.Version trade = tableVersions.current(Trade.class);
+
+        tableVersions.bump(Bid.class);
+
+        assertEquals(bid.number() + 1, tableVersions.current(Bid.class).number());
+        assertFalse(tableVersions.current(Bid.class).lastModified().isBefore(bid.lastModified()));
+        assertEquals(trade, tableVersions.current(Trade.class));
+    }
+
+    @Test
+    public void bump_inTransaction_shouldWaitForItsCompletion() {
+        TableVersions.Version bid = tableVersions.current(Bid.class);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tableVersions.bump(Bid.class);
+            assertEquals(bid, tableVersions.current(Bid.class));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(bid.number() + 1, tableVersions.current(Bid.class).number());
+    }
+}
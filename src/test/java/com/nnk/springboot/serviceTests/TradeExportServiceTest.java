@@ -0,0 +1,69 @@
+package com.nnk.springboot.serviceTests;
+
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.repositories.TradeRepository;
+import com.nnk.springboot.services.TradeExportService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+public class TradeExportServiceTest {
+
+    private TradeRepository tradeRepository;
+    private EntityManager entityManager;
+    private TradeExportService tradeExportService;
+
+    @BeforeEach
+    public void setup() {
+        tradeRepository = mock(TradeRepository.class);
+        entityManager = mock(EntityManager.class);
+        tradeExportService = new TradeExportService(tradeRepository, entityManager);
+    }
+
+    @Test
+    public void exportCsv_shouldWriteHeaderAndOneLinePerTrade() throws IOException {
+        Trade first = new Trade("account", "type", 10d);
+        first.setTradeId(1);
+        first.setTradeDate(Timestamp.from(Instant.parse("2024-03-01T10:15:30Z")));
+        Trade second = new Trade("other, account", "say \"hi\"", 20d);
+        second.setTradeId(2);
+        when(tradeRepository.streamAll(any(), any(), any(), any())).thenReturn(Stream.of(first, second));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long count = tradeExportService.exportCsv(null, null, null, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("tradeId,account,type,buyQuantity"));
+        assertTrue(lines[1].startsWith("1,account,type,10.0,0.0,0.0,0.0,2024-03-01T10:15:30Z,"));
+        assertTrue(lines[2].startsWith("2,\"other, account\",\"say \"\"hi\"\"\",20.0,"));
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+    }
+
+    @Test
+    public void exportCsv_withTradeDate_shouldFilterOnThatDay() throws IOException {
+        when(tradeRepository.streamAll(any(), any(), any(), any())).thenReturn(Stream.empty());
+
+        tradeExportService.exportCsv("account", null, LocalDate.of(2024, 3, 1), new ByteArrayOutputStream());
+
+        verify(tradeRepository).streamAll(eq("account"), isNull(),
+                eq(Timestamp.from(Instant.parse("2024-03-01T00:00:00Z"))),
+                eq(Timestamp.from(Instant.parse("2024-03-02T00:00:00Z"))));
+    }
+}
@@ -1,25 +1,38 @@
 package com.nnk.springboot.serviceTests;
 
 import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.dto.TradeSummary;
+import com.nnk.springboot.dto.ListChange;
 import com.nnk.springboot.repositories.TradeRepository;
+import com.nnk.springboot.services.PositionService;
 import com.nnk.springboot.services.TradeService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.verify;
 
 @SpringBootTest
+@RecordApplicationEvents
 public class TradeServiceTest {
 
     @Autowired
@@ -28,6 +41,12 @@ public class TradeServiceTest {
     @MockitoBean
     private TradeRepository tradeRepository;
 
+    @MockitoBean
+    private PositionService positionService;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
     @Test
     public void findAll_shouldReturnList() {
         when(tradeRepository.findAll()).thenReturn(new ArrayList<>());
@@ -38,6 +57,27 @@ public class TradeServiceTest {
         verify(tradeRepository).findAll();
     }
 
+    @Test
+    public void findAll_withPageable_shouldReturnPage() {
+        Pageable pageable = PageRequest.of(0, 20);
+        when(tradeRepository.findAll(pageable)).thenReturn(Page.empty(pageable));
+
+        Page<Trade> trades = tradeService.findAll(pageable);
+
+        assertNotNull(trades);
+        verify(tradeRepository).findAll(pageable);
+    }
+
+    @Test
+    public void findSummaries_shouldReturnList() {
+        when(tradeRepository.findAllSummaries()).thenReturn(new ArrayList<>());
+
+        List<TradeSummary> trades = tradeService.findSummaries();
+
+        assertNotNull(trades);
+        verify(tradeRepository).findAllSummaries();
+    }
+
     @Test
     public void save_shouldReturnSavedTrade() {
         Trade trade = new Trade("account", "type", 10d);
@@ -47,6 +87,59 @@ public class TradeServiceTest {
 
         assertNotNull(savedTrade);
         verify(tradeRepository).save(any(Trade.class));
+        verify(positionService).tradeSaved(savedTrade);
+    }
+
+    @Test
+    public void update_whenUnchanged_shouldIncrementVersion() {
+        Trade trade = versionedTrade();
+        when(tradeRepository.updateIfUnchanged(trade)).thenReturn(1);
+
+        Trade updated = tradeService.update(trade);
+
+        assertEquals(4, updated.getVersion());
+        verify(tradeRepository, never()).save(any(Trade.class));
+    }
+
+    @Test
+    public void update_shouldPublishSavedRow() {
+        Trade trade = versionedTrade();
+        when(tradeRepository.updateIfUnchanged(trade)).thenReturn(1);
+
+        tradeService.update(trade);
+
+        assertEquals(List.of(ListChange.saved("trade", 1, new TradeSummary(1, "account", "type", 10d))),
+                applicationEvents.stream(ListChange.class).toList());
+        verify(positionService).tradeEdited(trade);
+    }
+
+    @Test
+    public void update_whenChangedMeanwhile_shouldThrowOptimisticLockingFailure() {
+        Trade trade = versionedTrade();
+        when(tradeRepository.updateIfUnchanged(trade)).thenReturn(0);
+        when(tradeRepository.existsById(1)).thenReturn(true);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> tradeService.update(trade));
+        assertEquals(3, trade.getVersion());
+    }
+
+    @Test
+    public void replace_whenUnchanged_shouldIncrementVersion() {
+        Trade trade = versionedTrade();
+        when(tradeRepository.replaceIfUnchanged(trade)).thenReturn(1);
+
+        Trade replaced = tradeService.replace(trade);
+
+        assertEquals(4, replaced.getVersion());
+    }
+
+    @Test
+    public void replace_withUnknownId_shouldThrowIllegalArgumentException() {
+        Trade trade = versionedTrade();
+        when(tradeRepository.replaceIfUnchanged(trade)).thenReturn(0);
+        when(tradeRepository.existsById(1)).thenReturn(false);
+
+        assertThrows(IllegalArgumentException.class, () -> tradeService.replace(trade));
     }
 
     @Test
@@ -79,4 +172,33 @@ public class TradeServiceTest {
 
         verify(tradeRepository).delete(trade);
     }
+
+    @Test
+    public void deleteById_shouldReturnTrue() {
+        when(tradeRepository.removeById(anyInt())).thenReturn(1);
+
+        assertTrue(tradeService.deleteById(1));
+
+        verify(tradeRepository).removeById(1);
+        verify(positionService).tradeDeleted(1);
+        assertEquals(List.of(ListChange.deleted("trade", 1)), applicationEvents.stream(ListChange.class).toList());
+        verify(tradeRepository, never()).findById(anyInt());
+    }
+
+    @Test
+    public void deleteById_withInvalidId_shouldReturnFalse() {
+        when(tradeRepository.removeById(anyInt())).thenReturn(0);
+
+        assertFalse(tradeService.deleteById(1));
+
+        verify(tradeRepository).removeById(1);
+        assertEquals(0, applicationEvents.stream(ListChange.class).count());
+    }
+
+    private static Trade versionedTrade() {
+        Trade trade = new Trade("account", "type", 10d);
+        trade.setTradeId(1);
+        trade.setVersion(3);
+        return trade;
+    }
 }
@@ -1,12 +1,16 @@
 package com.nnk.springboot.serviceTests;
 
+import com.nnk.springboot.config.CaffeineUserCache;
 import com.nnk.springboot.domain.User;
 import com.nnk.springboot.repositories.UserRepository;
 import com.nnk.springboot.services.UserService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
 import java.util.ArrayList;
@@ -29,7 +33,10 @@ public class UserServiceTest {
     private UserRepository userRepository;
 
     @MockitoBean
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoBean
+    private CaffeineUserCache userCache;
 
     @Test
     public void findAll_shouldReturnList() {
@@ -41,6 +48,17 @@ public class UserServiceTest {
         verify(userRepository).findAll();
     }
 
+    @Test
+    public void findAll_withPageable_shouldReturnPage() {
+        Pageable pageable = PageRequest.of(0, 20);
+        when(userRepository.findAll(pageable)).thenReturn(Page.empty(pageable));
+
+        Page<User> users = userService.findAll(pageable);
+
+        assertNotNull(users);
+        verify(userRepository).findAll(pageable);
+    }
+
     @Test
     public void save_shouldReturnSavedUser() {
         User user = new User("username", "password", "fullname", "role");
@@ -52,6 +70,19 @@ public class UserServiceTest {
         assertNotNull(savedUser);
         assertEquals("encodedPassword", savedUser.getPassword());
         verify(userRepository).save(any(User.class));
+        verify(userCache).removeUserFromCache("username");
+    }
+
+    @Test
+    public void save_withExistingUser_shouldEvictAllCachedUsers() {
+        User user = new User("renamed", "password", "fullname", "role");
+        user.setId(1);
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userRepository.save(any(User.class))).thenAnswer(i -> i.getArgument(0));
+
+        userService.save(user);
+
+        verify(userCache).removeAllUsersFromCache();
     }
 
     @Test
@@ -84,4 +115,25 @@ public class UserServiceTest {
 
         verify(userRepository).delete(user);
     }
+
+    @Test
+    public void deleteById_shouldReturnTrue() {
+        when(userRepository.removeById(anyInt())).thenReturn(1);
+
+        assertTrue(userService.deleteById(1));
+
+        verify(userRepository).removeById(1);
+        verify(userCache).removeAllUsersFromCache();
+        verify(userRepository, never()).findById(anyInt());
+    }
+
+    @Test
+    public void deleteById_withInvalidId_shouldReturnFalse() {
+        when(userRepository.removeById(anyInt())).thenReturn(0);
+
+        assertFalse(userService.deleteById(1));
+
+        verify(userRepository).removeById(1);
+        verifyNoInteractions(userCache);
+    }
 }
@@ -0,0 +1,112 @@
+package com.nnk.springboot.serviceTests;
+
+import com.nnk.springboot.domain.CurvePoint;
+import com.nnk.springboot.dto.CurvePointSummary;
+import com.nnk.springboot.repositories.CurvePointRepository;
+import com.nnk.springboot.services.YieldCurve;
+import com.nnk.springboot.services.YieldCurve.Interpolation;
+import com.nnk.springboot.services.YieldCurveService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class YieldCurveServiceTest {
+
+    private static final Timestamp AS_OF_DATE = Timestamp.valueOf("2024-03-01 00:00:00");
+
+    @Mock
+    private CurvePointRepository curvePointRepository;
+
+    private YieldCurveService yieldCurveService;
+
+    @BeforeEach
+    public void setup() {
+        yieldCurveService = new YieldCurveService(curvePointRepository);
+    }
+
+    @Test
+    public void getCurve_shouldLoadCurveOnce() {
+        when(curvePointRepository.findCurve(1, AS_OF_DATE)).thenReturn(List.of(
+                new CurvePointSummary(1, 1, 1, 2),
+                new CurvePointSummary(2, 1, 2, 3)));
+
+        YieldCurve curve = yieldCurveService.getCurve(1, AS_OF_DATE);
+
+        assertSame(curve, yieldCurveService.getCurve(1, new Timestamp(AS_OF_DATE.getTime())));
+        assertEquals(2.5, yieldCurveService.value(1, AS_OF_DATE, 1.5, Interpolation.LINEAR), 1e-9);
+        verify(curvePointRepository, times(1)).findCurve(1, AS_OF_DATE);
+    }
+
+    @Test
+    public void pointSaved_shouldUpdateLoadedCurveWithoutReloading() {
+        when(curvePointRepository.findCurve(1, AS_OF_DATE)).thenReturn(List.of(
+                new CurvePointSummary(1, 1, 1, 2),
+                new CurvePointSummary(2, 1, 2, 3)));
+        yieldCurveService.getCurve(1, AS_OF_DATE);
+
+        yieldCurveService.pointSaved(curvePoint(3, 1, AS_OF_DATE, 4, 5));
+        yieldCurveService.pointSaved(curvePoint(1, 1, AS_OF_DATE, 1, 1));
+
+        YieldCurve curve = yieldCurveService.getCurve(1, AS_OF_DATE);
+        assertEquals(3, curve.size());
+        assertEquals(1, curve.linear(1), 1e-9);
+        assertEquals(4, curve.linear(3), 1e-9);
+        verify(curvePointRepository, times(1)).findCurve(anyInt(), any());
+    }
+
+    @Test
+    public void pointSaved_withOtherCurve_shouldMovePoint() {
+        when(curvePointRepository.findCurve(1, AS_OF_DATE)).thenReturn(List.of(
+                new CurvePointSummary(1, 1, 1, 2),
+                new CurvePointSummary(2, 1, 2, 3)));
+        when(curvePointRepository.findCurveWithoutDate(2)).thenReturn(List.of(
+                new CurvePointSummary(5, 2, 1, 6)));
+        yieldCurveService.getCurve(1, AS_OF_DATE);
+        yieldCurveService.getCurve(2, null);
+
+        yieldCurveService.pointSaved(curvePoint(2, 2, null, 2, 7));
+
+        assertFalse(yieldCurveService.getCurve(1, AS_OF_DATE).contains(2));
+        assertTrue(yieldCurveService.getCurve(2, null).contains(2));
+        assertEquals(6.5, yieldCurveService.value(2, null, 1.5, Interpolation.LINEAR), 1e-9);
+    }
+
+    @Test
+    public void pointSaved_withCurveNotLoaded_shouldNotLoadIt() {
+        yieldCurveService.pointSaved(curvePoint(1, 1, AS_OF_DATE, 1, 2));
+
+        verifyNoInteractions(curvePointRepository);
+    }
+
+    @Test
+    public void pointDeleted_shouldRemovePointFromLoadedCurve() {
+        when(curvePointRepository.findCurve(1, AS_OF_DATE)).thenReturn(List.of(
+                new CurvePointSummary(1, 1, 1, 2),
+                new CurvePointSummary(2, 1, 2, 3)));
+        yieldCurveService.getCurve(1, AS_OF_DATE);
+
+        yieldCurveService.pointDeleted(2);
+        yieldCurveService.pointDeleted(42);
+
+        YieldCurve curve = yieldCurveService.getCurve(1, AS_OF_DATE);
+        assertEquals(1, curve.size());
+        assertFalse(curve.contains(2));
+    }
+
+    private static CurvePoint curvePoint(int id, int curveId, Timestamp asOfDate, double term, double value) {
+        CurvePoint curvePoint = new CurvePoint(curveId, term, value);
+        curvePoint.setId(id);
+        curvePoint.setAsOfDate(asOfDate);
+        return curvePoint;
+    }
+}
@@ -0,0 +1,135 @@
+package com.nnk.springboot.serviceTests;
+
+import com.nnk.springboot.dto.CurvePointSummary;
+import com.nnk.springboot.services.YieldCurve;
+import com.nnk.springboot.services.YieldCurve.Interpolation;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class YieldCurveTest {
+
+    private static final double DELTA = 1e-9;
+
+    private final YieldCurve curve = YieldCurve.of(List.of(
+            new CurvePointSummary(1, 1, 1, 2),
+            new CurvePointSummary(2, 1, 2, 3),
+            new CurvePointSummary(3, 1, 5, 3.5),
+            new CurvePointSummary(4, 1, 10, 4)));
+
+    @Test
+    public void linear_shouldInterpolateBetweenPoints() {
+        assertEquals(2.5, curve.linear(1.5), DELTA);
+        assertEquals(3.25, curve.linear(3.5), DELTA);
+    }
+
+    @Test
+    public void interpolation_atPointTerm_shouldReturnPointValue() {
+        for (Interpolation interpolation : Interpolation.values()) {
+            assertEquals(2, curve.value(1, interpolation), DELTA);
+            assertEquals(3.5, curve.value(5, interpolation), DELTA);
+            assertEquals(4, curve.value(10, interpolation), DELTA);
+        }
+    }
+
+    @Test
+    public void interpolation_outsideCurve_shouldReturnNearestValue() {
+        for (Interpolation interpolation : Interpolation.values()) {
+            assertEquals(2, curve.value(0.5, interpolation), DELTA);
+            assertEquals(4, curve.value(30, interpolation), DELTA);
+        }
+    }
+
+    @Test
+    public void cubicSpline_onStraightLine_shouldMatchLinear() {
+        YieldCurve straight = YieldCurve.of(List.of(
+                new CurvePointSummary(1, 1, 1, 1),
+                new CurvePointSummary(2, 1, 2, 2),
+                new CurvePointSummary(3, 1, 4, 4),
+                new CurvePointSummary(4, 1, 7, 7)));
+
+        assertEquals(3.3, straight.cubicSpline(3.3), DELTA);
+        assertEquals(5.5, straight.cubicSpline(5.5), DELTA);
+    }
+
+    @Test
+    public void cubicSpline_shouldBeSmoothAtPoints() {
+        double epsilon = 1e-6;
+        double slopeBefore = (curve.cubicSpline(2) - curve.cubicSpline(2 - epsilon)) / epsilon;
+        double slopeAfter = (curve.cubicSpline(2 + epsilon) - curve.cubicSpline(2)) / epsilon;
+
+        assertEquals(slopeBefore, slopeAfter, 1e-4);
+        assertNotEquals(curve.linear(3.5), curve.cubicSpline(3.5), 1e-3);
+    }
+
+    @Test
+    public void discountFactor_shouldDiscountAtContinuousRate() {
+        assertEquals(Math.exp(-0.035 * 5), curve.discountFactor(5, Interpolation.LINEAR), DELTA);
+        assertEquals(1, curve.discountFactor(0, Interpolation.CUBIC_SPLINE), DELTA);
+    }
+
+    @Test
+    public void of_withSameTerm_shouldKeepLastPoint() {
+        YieldCurve duplicated = YieldCurve.of(List.of(
+                new CurvePointSummary(1, 1, 1, 2),
+                new CurvePointSummary(2, 1, 1, 3)));
+
+        assertEquals(1, duplicated.size());
+        assertEquals(2, duplicated.idAt(0));
+        assertEquals(3, duplicated.linear(1), DELTA);
+    }
+
+    @Test
+    public void withPoint_shouldInsertSortedByTerm() {
+        YieldCurve updated = curve.withPoint(5, 3, 3.2);
+
+        assertEquals(4, curve.size());
+        assertEquals(5, updated.size());
+        assertEquals(3, updated.termAt(2), DELTA);
+        assertEquals(3.2, updated.linear(3), DELTA);
+        assertEquals(rebuilt(updated).cubicSpline(4), updated.cubicSpline(4), DELTA);
+    }
+
+    @Test
+    public void withPoint_withExistingId_shouldMovePoint() {
+        YieldCurve updated = curve.withPoint(2, 7, 3.8);
+
+        assertEquals(4, updated.size());
+        assertEquals(2.75, updated.linear(3), DELTA);
+        assertEquals(3.8, updated.linear(7), DELTA);
+        assertEquals(2, updated.idAt(2));
+    }
+
+    @Test
+    public void withPoint_unchanged_shouldReturnSameCurve() {
+        assertSame(curve, curve.withPoint(3, 5, 3.5));
+    }
+
+    @Test
+    public void withoutPoint_shouldRemovePoint() {
+        YieldCurve updated = curve.withoutPoint(2);
+
+        assertEquals(3, updated.size());
+        assertFalse(updated.contains(2));
+        assertEquals(2.375, updated.linear(2), DELTA);
+        assertSame(curve, curve.withoutPoint(42));
+    }
+
+    @Test
+    public void value_onEmptyCurve_shouldFail() {
+        YieldCurve empty = YieldCurve.of(List.of());
+
+        assertTrue(empty.isEmpty());
+        assertThrows(IllegalStateException.class, () -> empty.linear(1));
+    }
+
+    private static YieldCurve rebuilt(YieldCurve curve) {
+        CurvePointSummary[] points = new CurvePointSummary[curve.size()];
+        for (int i = 0; i < curve.size(); i++) {
+            points[i] = new CurvePointSummary(curve.idAt(i), 1, curve.termAt(i), curve.valueAt(i));
+        }
+        return YieldCurve.of(List.of(points));
+    }
+}
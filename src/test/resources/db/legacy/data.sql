@@ -0,0 +1,107 @@
+-- Database created from the former hand-run doc/data.sql, before the Flyway migrations:
+-- the script as it was, with statement terminators, and the table names in lower case as the entities use them.
+-- Rows are added so that the migrations run on a database in use.
+
+CREATE TABLE bidlist (
+  BidListId tinyint(4) NOT NULL AUTO_INCREMENT,
+  account VARCHAR(30) NOT NULL,
+  type VARCHAR(30) NOT NULL,
+  bidQuantity DOUBLE,
+  askQuantity DOUBLE,
+  bid DOUBLE ,
+  ask DOUBLE,
+  benchmark VARCHAR(125),
+  bidListDate TIMESTAMP,
+  commentary VARCHAR(125),
+  security VARCHAR(125),
+  status VARCHAR(10),
+  trader VARCHAR(125),
+  book VARCHAR(125),
+  creationName VARCHAR(125),
+  creationDate TIMESTAMP ,
+  revisionName VARCHAR(125),
+  revisionDate TIMESTAMP ,
+  dealName VARCHAR(125),
+  dealType VARCHAR(125),
+  sourceListId VARCHAR(125),
+  side VARCHAR(125),
+
+  PRIMARY KEY (BidListId)
+);
+
+CREATE TABLE trade (
+  TradeId tinyint(4) NOT NULL AUTO_INCREMENT,
+  account VARCHAR(30) NOT NULL,
+  type VARCHAR(30) NOT NULL,
+  buyQuantity DOUBLE,
+  sellQuantity DOUBLE,
+  buyPrice DOUBLE ,
+  sellPrice DOUBLE,
+  tradeDate TIMESTAMP,
+  security VARCHAR(125),
+  status VARCHAR(10),
+  trader VARCHAR(125),
+  benchmark VARCHAR(125),
+  book VARCHAR(125),
+  creationName VARCHAR(125),
+  creationDate TIMESTAMP ,
+  revisionName VARCHAR(125),
+  revisionDate TIMESTAMP ,
+  dealName VARCHAR(125),
+  dealType VARCHAR(125),
+  sourceListId VARCHAR(125),
+  side VARCHAR(125),
+
+  PRIMARY KEY (TradeId)
+);
+
+CREATE TABLE curvepoint (
+  Id tinyint(4) NOT NULL AUTO_INCREMENT,
+  CurveId tinyint,
+  asOfDate TIMESTAMP,
+  term DOUBLE ,
+  value DOUBLE ,
+  creationDate TIMESTAMP ,
+
+  PRIMARY KEY (Id)
+);
+
+CREATE TABLE rating (
+  Id tinyint(4) NOT NULL AUTO_INCREMENT,
+  moodysRating VARCHAR(125),
+  sandPRating VARCHAR(125),
+  fitchRating VARCHAR(125),
+  orderNumber tinyint,
+
+  PRIMARY KEY (Id)
+);
+
+CREATE TABLE rulename (
+  Id tinyint(4) NOT NULL AUTO_INCREMENT,
+  name VARCHAR(125),
+  description VARCHAR(125),
+  json VARCHAR(125),
+  template VARCHAR(512),
+  sqlStr VARCHAR(125),
+  sqlPart VARCHAR(125),
+
+  PRIMARY KEY (Id)
+);
+
+CREATE TABLE users (
+  Id tinyint(4) NOT NULL AUTO_INCREMENT,
+  username VARCHAR(125),
+  password VARCHAR(125),
+  fullname VARCHAR(125),
+  role VARCHAR(125),
+
+  PRIMARY KEY (Id)
+);
+
+insert into users(fullname, username, password, role) values("Administrator", "admin", "$2a$10$pBV8ILO/s/nao4wVnGLrh.sa/rnr5pDpbeC4E.KNzQWoy8obFZdaa", "ADMIN");
+insert into users(fullname, username, password, role) values("User", "user", "$2a$10$pBV8ILO/s/nao4wVnGLrh.sa/rnr5pDpbeC4E.KNzQWoy8obFZdaa", "USER");
+
+insert into bidlist(BidListId, account, type, bidQuantity) values(1, 'account', 'type', 10);
+insert into bidlist(BidListId, account, type, bidQuantity) values(120, 'account', 'type', 20);
+insert into trade(TradeId, account, type, buyQuantity) values(42, 'account', 'type', 10);
+insert into curvepoint(Id, CurveId, term, value) values(1, 1, 1.0, 0.5);